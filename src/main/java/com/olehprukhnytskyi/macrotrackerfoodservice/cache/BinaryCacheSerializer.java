@@ -0,0 +1,193 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Writes cached values with a registered {@link CacheValueCodec} behind a three byte header:
+ * a magic byte that can never start a JSON document, the format version and flags. Payloads
+ * above the compression threshold are deflated when that makes them smaller. Values without a
+ * codec go through the fallback serializer, and anything not starting with the magic byte is
+ * read by it too, so JSON entries written before the switch stay readable until they expire.
+ * Entries from an unknown format version are treated as cache misses.
+ */
+@Slf4j
+public class BinaryCacheSerializer implements RedisSerializer<Object> {
+    static final byte MAGIC = (byte) 0xB7;
+    static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 3;
+    private static final int FLAG_DEFLATED = 1;
+    private final List<CacheValueCodec<?>> codecs;
+    private final Map<Integer, CacheValueCodec<?>> codecsByTag = new HashMap<>();
+    private final boolean writeBinary;
+    private final int compressionThreshold;
+    private final RedisSerializer<Object> fallback;
+    private final Counter legacyReads;
+    private final Counter unknownVersions;
+
+    public BinaryCacheSerializer(List<CacheValueCodec<?>> codecs, boolean writeBinary,
+                                 int compressionThreshold, RedisSerializer<Object> fallback,
+                                 MeterRegistry meterRegistry) {
+        this.codecs = List.copyOf(codecs);
+        for (CacheValueCodec<?> codec : codecs) {
+            if (codecsByTag.put(codec.tag(), codec) != null) {
+                throw new IllegalArgumentException("Duplicate cache codec tag " + codec.tag());
+            }
+        }
+        this.writeBinary = writeBinary;
+        this.compressionThreshold = compressionThreshold;
+        this.fallback = fallback;
+        this.legacyReads = Counter.builder("cache.serializer.legacy.reads")
+                .description("Cache entries read through the fallback JSON format")
+                .register(meterRegistry);
+        this.unknownVersions = Counter.builder("cache.serializer.unknown.versions")
+                .description("Cache entries skipped because of an unknown format version")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        CacheValueCodec<?> codec = writeBinary && value != null ? codecFor(value) : null;
+        if (codec == null) {
+            return fallback.serialize(value);
+        }
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeByte(codec.tag());
+            codec.write(out, value);
+            byte[] raw = body.toByteArray();
+            byte[] deflated = raw.length > compressionThreshold ? deflate(raw) : null;
+            byte[] payload = deflated != null ? deflated : raw;
+            byte[] result = new byte[HEADER_SIZE + payload.length];
+            result[0] = MAGIC;
+            result[1] = VERSION;
+            result[2] = (byte) (deflated != null ? FLAG_DEFLATED : 0);
+            System.arraycopy(payload, 0, result, HEADER_SIZE, payload.length);
+            return result;
+        } catch (IOException e) {
+            throw new SerializationException("Failed to encode cached value", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            legacyReads.increment();
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE || bytes[1] != VERSION) {
+            unknownVersions.increment();
+            log.debug("Skipping cache entry with format version {}",
+                    bytes.length > 1 ? bytes[1] : "none");
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream((bytes[2] & FLAG_DEFLATED) != 0
+                    ? new ByteArrayInputStream(inflate(bytes))
+                    : new ByteArrayInputStream(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE));
+            int tag = in.readUnsignedByte();
+            CacheValueCodec<?> codec = codecsByTag.get(tag);
+            if (codec == null) {
+                throw new SerializationException("Unknown cached value tag " + tag);
+            }
+            return codec.read(in);
+        } catch (IOException | DataFormatException e) {
+            throw new SerializationException("Failed to decode cached value", e);
+        }
+    }
+
+    private CacheValueCodec<?> codecFor(Object value) {
+        for (CacheValueCodec<?> codec : codecs) {
+            if (codec.accepts().test(value)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[raw.length];
+            int length = 0;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            if (!deflater.finished()) {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length + 5);
+            writeLength(out, raw.length);
+            out.write(buffer, 0, length);
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) throws IOException, DataFormatException {
+        ByteArrayInputStream in = new ByteArrayInputStream(bytes, HEADER_SIZE,
+                bytes.length - HEADER_SIZE);
+        int length = readLength(in);
+        Inflater inflater = new Inflater(true);
+        try {
+            int offset = bytes.length - in.available();
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            byte[] raw = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int n = inflater.inflate(raw, read, length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new DataFormatException("Truncated cached value");
+                }
+                read += n;
+            }
+            return raw;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeLength(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readLength(ByteArrayInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Truncated cached value");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed length");
+    }
+}
@@ -0,0 +1,75 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodCursorPage;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodListCacheWrapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodSearchWindow;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.NutrimentsDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.TypeaheadResponseDto;
+import java.util.Collection;
+
+public class CacheEntryWeigher implements Weigher<Object, Object> {
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE_SIZE = 8;
+    private static final int DECIMAL_SIZE = 40;
+    private static final int NUTRIMENT_FIELDS = 8;
+    private static final int UNKNOWN_VALUE_SIZE = 256;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long weight = estimate(key) + estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String string) {
+            return OBJECT_OVERHEAD + 24 + string.length();
+        }
+        if (value instanceof FoodResponseDto dto) {
+            return estimate(dto);
+        }
+        if (value instanceof FoodListCacheWrapper wrapper) {
+            return OBJECT_OVERHEAD + estimate(wrapper.getItems());
+        }
+        if (value instanceof FoodSearchWindow window) {
+            return OBJECT_OVERHEAD + estimate(window.getItems());
+        }
+        if (value instanceof FoodCursorPage page) {
+            return OBJECT_OVERHEAD + estimate(page.getItems()) + estimate(page.getNextCursor());
+        }
+        if (value instanceof TypeaheadResponseDto typeahead) {
+            return OBJECT_OVERHEAD + estimate(typeahead.getSuggestions())
+                    + estimate(typeahead.getItems());
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = OBJECT_OVERHEAD + 16;
+            for (Object element : collection) {
+                size += REFERENCE_SIZE + estimate(element);
+            }
+            return size;
+        }
+        return UNKNOWN_VALUE_SIZE;
+    }
+
+    private static long estimate(FoodResponseDto dto) {
+        long size = OBJECT_OVERHEAD + 8 * REFERENCE_SIZE
+                + estimate(dto.getId())
+                + estimate(dto.getCode())
+                + estimate(dto.getProductName())
+                + estimate(dto.getGenericName())
+                + estimate(dto.getImageUrl())
+                + estimate(dto.getBrands());
+        if (dto.getUserId() != null) {
+            size += OBJECT_OVERHEAD + Long.BYTES;
+        }
+        NutrimentsDto nutriments = dto.getNutriments();
+        if (nutriments != null) {
+            size += OBJECT_OVERHEAD + NUTRIMENT_FIELDS * (REFERENCE_SIZE + DECIMAL_SIZE);
+        }
+        return size;
+    }
+}
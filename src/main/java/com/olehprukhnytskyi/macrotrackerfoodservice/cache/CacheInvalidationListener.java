@@ -0,0 +1,34 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+    private final TwoLevelCacheManager cacheManager;
+    private final String nodeId;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidationMessage invalidation = CacheInvalidationMessage.decode(
+                    new String(message.getBody(), StandardCharsets.UTF_8));
+            if (nodeId.equals(invalidation.nodeId())) {
+                return;
+            }
+            log.trace("Received cache invalidation cache={} key={}",
+                    invalidation.cacheName(), invalidation.key());
+            if (invalidation.isClear()) {
+                cacheManager.clearLocal(invalidation.cacheName());
+            } else {
+                cacheManager.evictLocal(invalidation.cacheName(), invalidation.key());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to apply cache invalidation message", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+public record CacheInvalidationMessage(String nodeId, String cacheName, String key) {
+    private static final char SEPARATOR = '\n';
+
+    public boolean isClear() {
+        return key == null;
+    }
+
+    public String encode() {
+        return nodeId + SEPARATOR + cacheName + (key != null ? SEPARATOR + key : "");
+    }
+
+    public static CacheInvalidationMessage decode(String payload) {
+        int first = payload.indexOf(SEPARATOR);
+        if (first < 0) {
+            throw new IllegalArgumentException("Malformed cache invalidation message");
+        }
+        int second = payload.indexOf(SEPARATOR, first + 1);
+        String nodeId = payload.substring(0, first);
+        if (second < 0) {
+            return new CacheInvalidationMessage(nodeId, payload.substring(first + 1), null);
+        }
+        return new CacheInvalidationMessage(nodeId,
+                payload.substring(first + 1, second),
+                payload.substring(second + 1));
+    }
+}
@@ -0,0 +1,47 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import java.util.Collection;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationPublisher {
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    @Getter
+    private final String nodeId;
+
+    public void publish(String cacheName, Object key) {
+        String encodedKey = key != null ? key.toString() : null;
+        CacheInvalidationMessage message = new CacheInvalidationMessage(
+                nodeId, cacheName, encodedKey);
+        try {
+            redisTemplate.convertAndSend(channel, message.encode());
+        } catch (Exception e) {
+            log.warn("Failed to broadcast cache invalidation cache={} key={}",
+                    cacheName, encodedKey, e);
+        }
+    }
+
+    public void publishAll(String cacheName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection commands = (StringRedisConnection) connection;
+                keys.forEach(key -> commands.publish(channel,
+                        new CacheInvalidationMessage(nodeId, cacheName, key).encode()));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to broadcast cache invalidation cache={} keys={}",
+                    cacheName, keys.size(), e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.Predicate;
+
+/**
+ * Binary encoding of one cached value type. The tag is written in front of the payload and
+ * must never be reused for a different type once entries with it may exist in Redis.
+ */
+public record CacheValueCodec<T>(int tag, Predicate<Object> accepts, Encoder<T> encoder,
+                                 Decoder<T> decoder) {
+    public static <T> CacheValueCodec<T> of(int tag, Class<T> type, Encoder<T> encoder,
+                                            Decoder<T> decoder) {
+        return new CacheValueCodec<>(tag, type::isInstance, encoder, decoder);
+    }
+
+    @SuppressWarnings("unchecked")
+    void write(DataOutput out, Object value) throws IOException {
+        encoder.write(out, (T) value);
+    }
+
+    T read(DataInput in) throws IOException {
+        return decoder.read(in);
+    }
+
+    @FunctionalInterface
+    public interface Encoder<T> {
+        void write(DataOutput out, T value) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Decoder<T> {
+        T read(DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,255 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodCursorPage;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodListCacheWrapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodSearchWindow;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.NutrimentsDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.TypeaheadResponseDto;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codecs for the values kept in the food caches. Fields are written positionally, so a field
+ * can only be added at the end of a type together with a new serializer version. Lengths and
+ * numbers are varints and a length of zero marks {@code null}.
+ */
+public final class FoodCacheCodecs {
+    private static final int NULL_DECIMAL = 0;
+    private static final int COMPACT_DECIMAL = 1;
+    private static final int WIDE_DECIMAL = 2;
+
+    private FoodCacheCodecs() {
+    }
+
+    public static List<CacheValueCodec<?>> all() {
+        return List.of(
+                CacheValueCodec.of(1, FoodResponseDto.class,
+                        FoodCacheCodecs::writeFood, FoodCacheCodecs::readFood),
+                CacheValueCodec.of(2, FoodListCacheWrapper.class,
+                        (out, value) -> writeFoods(out, value.getItems()),
+                        in -> new FoodListCacheWrapper(readFoods(in))),
+                CacheValueCodec.of(3, FoodSearchWindow.class,
+                        (out, value) -> {
+                            writeFoods(out, value.getItems());
+                            out.writeBoolean(value.isComplete());
+                        },
+                        in -> new FoodSearchWindow(readFoods(in), in.readBoolean())),
+                CacheValueCodec.of(4, FoodCursorPage.class,
+                        (out, value) -> {
+                            writeFoods(out, value.getItems());
+                            writeString(out, value.getNextCursor());
+                        },
+                        in -> new FoodCursorPage(readFoods(in), readString(in))),
+                CacheValueCodec.of(5, TypeaheadResponseDto.class,
+                        (out, value) -> {
+                            writeStrings(out, value.getSuggestions());
+                            writeFoods(out, value.getItems());
+                        },
+                        in -> new TypeaheadResponseDto(readStrings(in), readFoods(in))),
+                new CacheValueCodec<List<String>>(6, FoodCacheCodecs::isStringList,
+                        FoodCacheCodecs::writeStrings, FoodCacheCodecs::readStrings));
+    }
+
+    private static boolean isStringList(Object value) {
+        return value instanceof List<?> list
+                && list.stream().allMatch(String.class::isInstance);
+    }
+
+    private static void writeFoods(DataOutput out, List<FoodResponseDto> foods)
+            throws IOException {
+        if (foods == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, foods.size() + 1);
+        for (FoodResponseDto food : foods) {
+            out.writeBoolean(food != null);
+            if (food != null) {
+                writeFood(out, food);
+            }
+        }
+    }
+
+    private static List<FoodResponseDto> readFoods(DataInput in) throws IOException {
+        int size = readVarInt(in) - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<FoodResponseDto> foods = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            foods.add(in.readBoolean() ? readFood(in) : null);
+        }
+        return foods;
+    }
+
+    private static void writeFood(DataOutput out, FoodResponseDto food) throws IOException {
+        writeString(out, food.getId());
+        writeString(out, food.getCode());
+        out.writeBoolean(food.getUserId() != null);
+        if (food.getUserId() != null) {
+            writeVarLong(out, food.getUserId());
+        }
+        writeString(out, food.getProductName());
+        writeString(out, food.getGenericName());
+        writeString(out, food.getImageUrl());
+        writeString(out, food.getBrands());
+        NutrimentsDto nutriments = food.getNutriments();
+        out.writeBoolean(nutriments != null);
+        if (nutriments != null) {
+            writeDecimal(out, nutriments.getCalories());
+            writeDecimal(out, nutriments.getFat());
+            writeDecimal(out, nutriments.getProtein());
+            writeDecimal(out, nutriments.getCarbohydrates());
+            writeDecimal(out, nutriments.getCaloriesPerPiece());
+            writeDecimal(out, nutriments.getFatPerPiece());
+            writeDecimal(out, nutriments.getProteinPerPiece());
+            writeDecimal(out, nutriments.getCarbohydratesPerPiece());
+        }
+    }
+
+    private static FoodResponseDto readFood(DataInput in) throws IOException {
+        FoodResponseDto.FoodResponseDtoBuilder food = FoodResponseDto.builder()
+                .id(readString(in))
+                .code(readString(in))
+                .userId(in.readBoolean() ? readVarLong(in) : null)
+                .productName(readString(in))
+                .genericName(readString(in))
+                .imageUrl(readString(in))
+                .brands(readString(in));
+        if (in.readBoolean()) {
+            NutrimentsDto nutriments = new NutrimentsDto();
+            nutriments.setCalories(readDecimal(in));
+            nutriments.setFat(readDecimal(in));
+            nutriments.setProtein(readDecimal(in));
+            nutriments.setCarbohydrates(readDecimal(in));
+            nutriments.setCaloriesPerPiece(readDecimal(in));
+            nutriments.setFatPerPiece(readDecimal(in));
+            nutriments.setProteinPerPiece(readDecimal(in));
+            nutriments.setCarbohydratesPerPiece(readDecimal(in));
+            food.nutriments(nutriments);
+        }
+        return food.build();
+    }
+
+    private static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        if (values == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, values.size() + 1);
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(DataInput in) throws IOException {
+        int size = readVarInt(in) - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_DECIMAL);
+            return;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < Long.SIZE) {
+            out.writeByte(COMPACT_DECIMAL);
+            writeVarLong(out, zigZag(unscaled.longValue()));
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            out.writeByte(WIDE_DECIMAL);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+        writeVarLong(out, zigZag(value.scale()));
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int kind = in.readUnsignedByte();
+        BigInteger unscaled;
+        switch (kind) {
+            case NULL_DECIMAL -> {
+                return null;
+            }
+            case COMPACT_DECIMAL -> unscaled = BigInteger.valueOf(unZigZag(readVarLong(in)));
+            case WIDE_DECIMAL -> {
+                byte[] bytes = new byte[readVarInt(in)];
+                in.readFully(bytes);
+                unscaled = new BigInteger(bytes);
+            }
+            default -> throw new IOException("Unknown decimal encoding " + kind);
+        }
+        return new BigDecimal(unscaled, (int) unZigZag(readVarLong(in)));
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodCursorPage;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodListCacheWrapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodSearchWindow;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.TypeaheadResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Reverse index from a food id to the cache keys whose values contain that food, so a
+ * mutation can evict exactly the affected search pages. Each food has a sorted set in Redis
+ * scored by the expiry of the page it points to. Expired members are trimmed on write, the
+ * set is capped at the pages expiring last and the set itself expires with its newest page.
+ * Pages dropped by the cap are not evicted early, they age out with their TTL. Eviction reads
+ * the sets and deletes the pages they point to in one script, so it costs one round trip.
+ */
+@Slf4j
+public class FoodCacheKeyIndex {
+    private static final String KEY_PREFIX = "cache:index:";
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> EVICT_SCRIPT = new DefaultRedisScript<>(
+            "local evicted = {} local seen = {} "
+                    + "for _, index in ipairs(KEYS) do "
+                    + "local keys = redis.call('zrangebyscore', index, ARGV[2], '+inf') "
+                    + "for _, key in ipairs(keys) do "
+                    + "if not seen[key] then seen[key] = true table.insert(evicted, key) "
+                    + "redis.call('del', ARGV[1] .. key) end end "
+                    + "redis.call('del', index) end "
+                    + "return evicted", List.class);
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final int maxKeysPerFood;
+    private final Counter evicted;
+
+    public FoodCacheKeyIndex(StringRedisTemplate redisTemplate, Duration ttl, int maxKeysPerFood,
+                             MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.maxKeysPerFood = maxKeysPerFood;
+        this.evicted = Counter.builder("cache.index.evictions")
+                .description("Cache entries evicted because a food they contain changed")
+                .register(meterRegistry);
+    }
+
+    public void record(String cacheName, Object key, Object value) {
+        Set<String> foodIds = foodIds(value);
+        if (foodIds.isEmpty()) {
+            return;
+        }
+        String member = key.toString();
+        long now = System.currentTimeMillis();
+        double expiry = now + ttl.toMillis();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection commands = (StringRedisConnection) connection;
+                for (String foodId : foodIds) {
+                    String indexKey = indexKey(cacheName, foodId);
+                    commands.zAdd(indexKey, expiry, member);
+                    commands.zRemRangeByScore(indexKey, Double.NEGATIVE_INFINITY, now);
+                    commands.zRemRange(indexKey, 0, -(maxKeysPerFood + 1L));
+                    commands.pExpire(indexKey, ttl.toMillis());
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to index cache entry cache={} key={}: {}",
+                    cacheName, member, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes every entry of the cache that contains one of the foods, together with the index
+     * sets of those foods, and returns the evicted cache keys.
+     */
+    public Set<String> evict(String cacheName, Collection<String> foodIds) {
+        List<String> indexKeys = foodIds.stream()
+                .map(foodId -> indexKey(cacheName, foodId))
+                .toList();
+        List<?> members = redisTemplate.execute(EVICT_SCRIPT, indexKeys, cacheName + "::",
+                String.valueOf(System.currentTimeMillis()));
+        Set<String> keys = new LinkedHashSet<>();
+        if (members != null) {
+            members.forEach(member -> keys.add(member.toString()));
+        }
+        evicted.increment(keys.size());
+        return keys;
+    }
+
+    static Set<String> foodIds(Object value) {
+        List<FoodResponseDto> foods = switch (value) {
+            case FoodResponseDto food -> List.of(food);
+            case FoodSearchWindow window -> window.getItems();
+            case FoodListCacheWrapper wrapper -> wrapper.getItems();
+            case FoodCursorPage page -> page.getItems();
+            case TypeaheadResponseDto typeahead -> typeahead.getItems();
+            case null, default -> null;
+        };
+        if (foods == null) {
+            return Set.of();
+        }
+        Set<String> ids = new LinkedHashSet<>();
+        for (FoodResponseDto food : foods) {
+            if (food != null && food.getId() != null) {
+                ids.add(food.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static String indexKey(String cacheName, String foodId) {
+        return KEY_PREFIX + cacheName + ":" + foodId;
+    }
+}
@@ -0,0 +1,45 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExistenceFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+
+/**
+ * Feeds food ids broadcast by other nodes into the {@link FoodExistenceFilter}, and has it
+ * rebuilt whenever the subscription is (re)established.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FoodFilterListener implements MessageListener, SubscriptionListener {
+    private final FoodExistenceFilter foodExistenceFilter;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+            String ids = new String(message.getBody(), StandardCharsets.UTF_8);
+            if (CacheConstants.FOOD_FILTER_DELETED_CHANNEL.equals(channel)) {
+                foodExistenceFilter.applyDeleted(ids);
+            } else {
+                foodExistenceFilter.applyCreated(ids);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to apply food filter message", e);
+        }
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        if (CacheConstants.FOOD_FILTER_CHANNEL.equals(
+                new String(channel, StandardCharsets.UTF_8))) {
+            log.info("Subscribed to {}, rebuilding food existence filter",
+                    CacheConstants.FOOD_FILTER_CHANNEL);
+            foodExistenceFilter.onSubscribed();
+        }
+    }
+}
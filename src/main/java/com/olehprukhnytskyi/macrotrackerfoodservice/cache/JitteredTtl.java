@@ -0,0 +1,23 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * Shortens the freshness TTL of every entry by a random fraction up to {@code jitter}, so
+ * entries written together, e.g. while warming up after a deploy, do not all expire together.
+ * The grace period is added unchanged. TTLs only ever get shorter, so anything sized to the
+ * full TTL, like the cache key index, still outlives the entries.
+ */
+public record JitteredTtl(Duration ttl, double jitter, Duration grace)
+        implements RedisCacheWriter.TtlFunction {
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        long millis = ttl.toMillis();
+        long cut = jitter > 0
+                ? (long) (millis * jitter * ThreadLocalRandom.current().nextDouble())
+                : 0;
+        return Duration.ofMillis(millis - cut).plus(grace);
+    }
+}
@@ -0,0 +1,6 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import java.time.Duration;
+
+public record LocalCacheSpec(Duration ttl, long maxWeightBytes) {
+}
@@ -0,0 +1,73 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Short-lived Redis lease that lets one node load a missing cache entry while other nodes
+ * wait for it to appear in the shared cache.
+ */
+@Slf4j
+public class RedisLease {
+    private static final String KEY_PREFIX = "cache:lease:";
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+    private final StringRedisTemplate redisTemplate;
+    @Getter
+    private final Duration ttl;
+    @Getter
+    private final Duration pollInterval;
+    private final String owner = UUID.randomUUID().toString();
+    private final Counter waits;
+    private final Counter timeouts;
+
+    public RedisLease(StringRedisTemplate redisTemplate, Duration ttl, Duration pollInterval,
+                      MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.pollInterval = pollInterval;
+        this.waits = Counter.builder("cache.single.flight.lease.waits")
+                .description("Cache misses that waited for a load running on another node")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("cache.single.flight.lease.timeouts")
+                .description("Lease waits that gave up and loaded locally")
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquire(String key) {
+        try {
+            Boolean acquired = redisTemplate.opsForValue()
+                    .setIfAbsent(KEY_PREFIX + key, owner, ttl);
+            return !Boolean.FALSE.equals(acquired);
+        } catch (DataAccessException e) {
+            log.warn("Failed to acquire cache lease key={}: {}", key, e.getMessage());
+            return true;
+        }
+    }
+
+    public void release(String key) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + key), owner);
+        } catch (DataAccessException e) {
+            log.debug("Failed to release cache lease key={}: {}", key, e.getMessage());
+        }
+    }
+
+    public void recordWait() {
+        waits.increment();
+    }
+
+    public void recordTimeout() {
+        timeouts.increment();
+    }
+}
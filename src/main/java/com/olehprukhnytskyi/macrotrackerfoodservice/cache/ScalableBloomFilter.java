@@ -0,0 +1,148 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free scalable Bloom filter. When a stage reaches its capacity a new one is appended
+ * with twice the capacity and half the false positive rate, so the compound rate stays below
+ * the configured one however many items are added. Items can not be removed.
+ */
+public final class ScalableBloomFilter {
+    private static final double LN2 = Math.log(2);
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+    private volatile Stage[] stages;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        this.stages = new Stage[] {
+                new Stage(Math.max(initialCapacity, 1), falsePositiveRate * (1 - TIGHTENING))
+        };
+    }
+
+    public void add(String item) {
+        long hash = hash(item);
+        Stage[] current = stages;
+        for (Stage stage : current) {
+            if (stage.mightContain(hash)) {
+                return;
+            }
+        }
+        Stage last = current[current.length - 1];
+        if (last.count.get() >= last.capacity) {
+            last = grow(last);
+        }
+        last.add(hash);
+    }
+
+    public boolean mightContain(String item) {
+        long hash = hash(item);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stage stage : stages) {
+            size += stage.count.get();
+        }
+        return size;
+    }
+
+    public long bitSize() {
+        long bits = 0;
+        for (Stage stage : stages) {
+            bits += stage.bits;
+        }
+        return bits;
+    }
+
+    public int stageCount() {
+        return stages.length;
+    }
+
+    /**
+     * Estimated probability that an absent item is reported as present, given how full the
+     * stages are.
+     */
+    public double expectedFalsePositiveRate() {
+        double absent = 1;
+        for (Stage stage : stages) {
+            double fill = 1 - Math.exp(-(double) stage.hashes * stage.count.get() / stage.bits);
+            absent *= 1 - Math.pow(fill, stage.hashes);
+        }
+        return 1 - absent;
+    }
+
+    private synchronized Stage grow(Stage full) {
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if (last != full) {
+            return last;
+        }
+        Stage next = new Stage(full.capacity * GROWTH, full.falsePositiveRate * TIGHTENING);
+        Stage[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = next;
+        stages = grown;
+        return next;
+    }
+
+    private static long hash(String item) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < item.length(); i++) {
+            hash ^= item.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Stage {
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final int hashes;
+        private final long bits;
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimal = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+            this.words = new AtomicLongArray(Math.toIntExact((Math.max(optimal, 64) + 63) >>> 6));
+            this.bits = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+        }
+
+        private boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                long index = Math.floorMod(h1 + (long) i * h2, bits);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                long index = Math.floorMod(h1 + (long) i * h2, bits);
+                words.accumulateAndGet((int) (index >>> 6), 1L << index, (a, b) -> a | b);
+            }
+            count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Deduplicates concurrent loads of the same key: the first caller runs the loader, callers
+ * arriving while it is in flight wait for and share its result or failure.
+ */
+public class SingleFlight {
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<>();
+    private final Counter loads;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.loads = Counter.builder("cache.single.flight.loads")
+                .description("Cache misses that triggered a backend load")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("cache.single.flight.coalesced")
+                .description("Cache misses that joined an in-flight load")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Callable<T> loader) throws Exception {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return (T) await(existing);
+        }
+        loads.increment();
+        try {
+            T value = loader.call();
+            flight.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight) throws Exception {
+        try {
+            return flight.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
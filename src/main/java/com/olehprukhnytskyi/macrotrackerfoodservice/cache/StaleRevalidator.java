@@ -0,0 +1,146 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Background refresh of remote cache entries before readers see them expire. With a grace
+ * period the Redis TTL is the freshness TTL plus the grace, and an entry whose remaining TTL
+ * has dropped into the grace period is stale: it is still served, and a single background
+ * refresh per key replaces it. With a positive beta a fresh entry is also refreshed early with
+ * the XFetch probability {@code -delta * beta * ln(rand) >= timeToExpiry}, where delta is the
+ * moving average of how long this cache takes to load a value, so hot keys are recomputed
+ * shortly before they expire and costly ones earlier. The value and its remaining TTL are read
+ * by one script, so checking freshness adds no round trip to a remote hit.
+ */
+@Slf4j
+public class StaleRevalidator {
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> FETCH_SCRIPT = new DefaultRedisScript<>(
+            "local value = redis.call('get', KEYS[1]) "
+                    + "if not value then return nil end "
+                    + "return {value, redis.call('pttl', KEYS[1])}", List.class);
+    private final StringRedisTemplate redisTemplate;
+    private final RedisSerializer<Object> valueSerializer;
+    @Getter
+    private final Duration grace;
+    private final Executor executor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Counter served;
+    private final Counter refreshed;
+    private final Counter failed;
+    private final Counter early;
+    private final double beta;
+    private volatile double loadMillis;
+
+    public StaleRevalidator(String cacheName, StringRedisTemplate redisTemplate,
+                            RedisSerializer<Object> valueSerializer, Duration grace,
+                            double beta, Executor executor, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.valueSerializer = valueSerializer;
+        this.grace = grace;
+        this.beta = beta;
+        this.executor = executor;
+        this.served = Counter.builder("cache.stale.served")
+                .description("Stale cache entries served while being revalidated")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        this.early = Counter.builder("cache.early.refreshes")
+                .description("Fresh cache entries refreshed ahead of their expiry")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        this.refreshed = Counter.builder("cache.stale.refreshes")
+                .description("Background refreshes of stale cache entries")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        this.failed = Counter.builder("cache.stale.refresh.failures")
+                .description("Background refreshes that failed and left the stale entry")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reads a remote entry with its remaining TTL in milliseconds, or returns null on a miss.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public Entry fetch(String redisKey) {
+        List<?> reply = redisTemplate.execute(FETCH_SCRIPT, RedisSerializer.string(),
+                (RedisSerializer) valueSerializer, List.of(redisKey));
+        if (reply == null || reply.size() < 2 || reply.get(0) == null) {
+            return null;
+        }
+        return new Entry(reply.get(0), ((Number) reply.get(1)).longValue());
+    }
+
+    public boolean shouldRefresh(Entry entry) {
+        if (!entry.expires()) {
+            return false;
+        }
+        long untilStale = entry.remainingMillis() - grace.toMillis();
+        if (untilStale < 0) {
+            served.increment();
+            return true;
+        }
+        double random = 1 - ThreadLocalRandom.current().nextDouble();
+        if (beta > 0 && loadMillis > 0 && -loadMillis * beta * Math.log(random) >= untilStale) {
+            early.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the entry is in its grace period, for readers without a loader that
+     * cannot refresh it and must treat it as a miss instead.
+     */
+    public boolean isStale(Entry entry) {
+        return entry.expires() && entry.remainingMillis() < grace.toMillis();
+    }
+
+    public void recordLoad(long nanos) {
+        double millis = nanos / 1_000_000.0;
+        double current = loadMillis;
+        loadMillis = current == 0 ? millis : current * 0.8 + millis * 0.2;
+    }
+
+    public void revalidate(String redisKey, Runnable refresh) {
+        if (!refreshing.add(redisKey)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh.run();
+                    refreshed.increment();
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    log.warn("Failed to refresh stale cache entry {}: {}", redisKey,
+                            e.getMessage());
+                } finally {
+                    refreshing.remove(redisKey);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(redisKey);
+            log.warn("Failed to schedule refresh of {}: {}", redisKey, e.getMessage());
+        }
+    }
+
+    public record Entry(Object value, long remainingMillis) {
+        boolean expires() {
+            return remainingMillis >= 0;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+public class TwoLevelCache implements Cache {
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache remote;
+    private final CacheInvalidationPublisher publisher;
+    private final SingleFlight singleFlight;
+    private final RedisLease lease;
+    private final StaleRevalidator revalidator;
+    private final FoodCacheKeyIndex keyIndex;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<Object, Object> local,
+                         Cache remote,
+                         CacheInvalidationPublisher publisher,
+                         SingleFlight singleFlight,
+                         RedisLease lease,
+                         StaleRevalidator revalidator,
+                         FoodCacheKeyIndex keyIndex) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+        this.singleFlight = singleFlight;
+        this.lease = lease;
+        this.revalidator = revalidator;
+        this.keyIndex = keyIndex;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object cached = local.getIfPresent(key);
+        if (cached != null) {
+            return new SimpleValueWrapper(cached);
+        }
+        StaleRevalidator.Entry entry = getRemote(key);
+        if (entry == null || revalidator != null && revalidator.isStale(entry)) {
+            return null;
+        }
+        local.put(key, entry.value());
+        return new SimpleValueWrapper(entry.value());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type ["
+                    + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = local.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        StaleRevalidator.Entry entry = getRemote(key);
+        if (entry != null) {
+            local.put(key, entry.value());
+            if (revalidator != null && revalidator.shouldRefresh(entry)) {
+                revalidator.revalidate(name + "::" + key, () -> refresh(key, valueLoader));
+            }
+            return (T) entry.value();
+        }
+        try {
+            return singleFlight.execute(key, () -> load(key, valueLoader));
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            local.put(key, value);
+            index(key, value);
+        } else {
+            local.invalidate(key);
+        }
+        publisher.publish(name, key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null && value != null) {
+            index(key, value);
+        }
+        Object current = existing != null ? existing.get() : value;
+        if (current != null) {
+            local.put(key, current);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key);
+        publisher.publish(name, key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        local.invalidate(key);
+        publisher.publish(name, key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        publisher.publish(name, null);
+    }
+
+    /**
+     * Evicts the entries that contain any of the given foods on every node. Returns the evicted
+     * keys, or nothing when this cache keeps no key index.
+     */
+    public Set<String> evictFoods(Collection<String> foodIds) {
+        if (keyIndex == null || foodIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> keys = keyIndex.evict(name, foodIds);
+        local.invalidateAll(keys);
+        publisher.publishAll(name, keys);
+        return keys;
+    }
+
+    /**
+     * Drops the keys from the local tier of every node. The remote entries are left to the
+     * caller, which can delete them in one round trip.
+     */
+    public void evictAllLocal(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        local.invalidateAll(keys);
+        publisher.publishAll(name, keys);
+    }
+
+    public Map<Object, Object> getAllLocal(Collection<?> keys) {
+        return local.getAllPresent(keys);
+    }
+
+    public void putLocal(Object key, Object value) {
+        local.put(key, value);
+    }
+
+    public void evictLocal(Object key) {
+        local.invalidate(key);
+    }
+
+    public void clearLocal() {
+        local.invalidateAll();
+    }
+
+    /**
+     * Reads the remote entry, with its TTL in the same round trip when this cache revalidates.
+     */
+    private StaleRevalidator.Entry getRemote(Object key) {
+        if (revalidator != null) {
+            return revalidator.fetch(name + "::" + key);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        return wrapper != null && wrapper.get() != null
+                ? new StaleRevalidator.Entry(wrapper.get(), -1)
+                : null;
+    }
+
+    private <T> void refresh(Object key, Callable<T> valueLoader) {
+        try {
+            singleFlight.execute(key, () -> load(key, valueLoader));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) throws Exception {
+        String leaseKey = name + "::" + key;
+        boolean leased = lease == null || lease.tryAcquire(leaseKey);
+        if (!leased) {
+            T loaded = awaitRemote(key);
+            if (loaded != null) {
+                return loaded;
+            }
+        }
+        try {
+            long start = System.nanoTime();
+            T value = valueLoader.call();
+            if (revalidator != null) {
+                revalidator.recordLoad(System.nanoTime() - start);
+            }
+            if (value != null) {
+                remote.put(key, value);
+                local.put(key, value);
+                index(key, value);
+            }
+            return value;
+        } finally {
+            if (leased && lease != null) {
+                lease.release(leaseKey);
+            }
+        }
+    }
+
+    private void index(Object key, Object value) {
+        if (keyIndex != null) {
+            keyIndex.record(name, key, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T awaitRemote(Object key) throws InterruptedException {
+        lease.recordWait();
+        long deadline = System.nanoTime() + lease.getTtl().toNanos();
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(lease.getPollInterval());
+            ValueWrapper wrapper = remote.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                local.put(key, wrapper.get());
+                return (T) wrapper.get();
+            }
+        }
+        lease.recordTimeout();
+        return null;
+    }
+}
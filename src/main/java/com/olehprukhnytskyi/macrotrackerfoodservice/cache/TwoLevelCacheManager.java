@@ -0,0 +1,85 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+public class TwoLevelCacheManager implements CacheManager {
+    private final CacheManager remoteCacheManager;
+    private final Map<String, LocalCacheSpec> localSpecs;
+    private final LocalCacheSpec defaultLocalSpec;
+    private final CacheInvalidationPublisher publisher;
+    private final MeterRegistry meterRegistry;
+    private final RedisLease lease;
+    private final Map<String, StaleRevalidator> revalidators;
+    private final Map<String, FoodCacheKeyIndex> keyIndexes;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                Map<String, LocalCacheSpec> localSpecs,
+                                LocalCacheSpec defaultLocalSpec,
+                                CacheInvalidationPublisher publisher,
+                                MeterRegistry meterRegistry,
+                                RedisLease lease,
+                                Map<String, StaleRevalidator> revalidators,
+                                Map<String, FoodCacheKeyIndex> keyIndexes) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localSpecs = Map.copyOf(localSpecs);
+        this.defaultLocalSpec = defaultLocalSpec;
+        this.publisher = publisher;
+        this.meterRegistry = meterRegistry;
+        this.lease = lease;
+        this.revalidators = Map.copyOf(revalidators);
+        this.keyIndexes = Map.copyOf(keyIndexes);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> createCache(cacheName, remote));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    public void evictLocal(String cacheName, Object key) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+
+    public void clearLocal(String cacheName) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.clearLocal();
+        }
+    }
+
+    private TwoLevelCache createCache(String name, Cache remote) {
+        LocalCacheSpec spec = localSpecs.getOrDefault(name, defaultLocalSpec);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+                .expireAfterWrite(spec.ttl())
+                .maximumWeight(spec.maxWeightBytes())
+                .weigher(new CacheEntryWeigher())
+                .build();
+        return new TwoLevelCache(name, local, remote, publisher,
+                new SingleFlight(name, meterRegistry), lease,
+                revalidators.get(name),
+                keyIndexes.get(name));
+    }
+}
@@ -0,0 +1,41 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.config;
+
+import com.olehprukhnytskyi.util.CustomHeaders;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Rejects administration requests from callers without the admin role. The roles come from
+ * the {@value #X_USER_ROLES} header, which the service trusts the same way it trusts
+ * {@link CustomHeaders#X_USER_ID}: the gateway must drop any value sent by the client and set
+ * it from the verified token. A request that bypasses the gateway can forge both headers, so
+ * the admin paths must not be reachable other than through it.
+ */
+@Slf4j
+public class AdminAccessInterceptor implements HandlerInterceptor {
+    /**
+     * Comma separated roles of the caller, set by the gateway next to the user id.
+     */
+    public static final String X_USER_ROLES = "X-User-Roles";
+    public static final String ADMIN_PATHS = "/api/admin/**";
+    private static final String ADMIN_ROLE = "ADMIN";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                             Object handler) {
+        String roles = request.getHeader(X_USER_ROLES);
+        boolean admin = roles != null && Arrays.stream(roles.split(","))
+                .map(String::trim)
+                .anyMatch(ADMIN_ROLE::equalsIgnoreCase);
+        if (!admin) {
+            log.warn("Rejected administration request {} {} by userId={} roles={}",
+                    request.getMethod(), request.getRequestURI(),
+                    request.getHeader(CustomHeaders.X_USER_ID), roles);
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+        }
+        return admin;
+    }
+}
@@ -0,0 +1,44 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.config;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.SearchProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.resilience.CircuitBreaker;
+import com.olehprukhnytskyi.macrotrackerfoodservice.resilience.RequestHedger;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ElasticsearchConfig {
+    @Bean
+    public CircuitBreaker elasticsearchCircuitBreaker(SearchProperties searchProperties,
+                                                      MeterRegistry meterRegistry) {
+        SearchProperties.CircuitBreaker properties = searchProperties.getCircuitBreaker();
+        CircuitBreaker.Settings settings = new CircuitBreaker.Settings(
+                properties.getWindowSize(), properties.getMinimumCalls(),
+                properties.getFailureRateThreshold(), properties.getSlowCallDuration(),
+                properties.getOpenDuration(), properties.getHalfOpenCalls());
+        return new CircuitBreaker("elasticsearch", settings,
+                e -> e instanceof IOException
+                        || e instanceof ElasticsearchException es
+                        && (es.status() == 429 || es.status() >= 500),
+                meterRegistry);
+    }
+
+    @Bean
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(ElasticsearchTransport transport) {
+        return new ElasticsearchAsyncClient(transport);
+    }
+
+    @Bean
+    public RequestHedger elasticsearchRequestHedger(SearchProperties searchProperties,
+                                                    MeterRegistry meterRegistry) {
+        SearchProperties.Hedge properties = searchProperties.getHedge();
+        return new RequestHedger(new RequestHedger.Settings(properties.getPercentile(),
+                properties.getMinDelay(), properties.getMaxDelay(), properties.getBudget(),
+                properties.getWindow()), meterRegistry);
+    }
+}
@@ -1,12 +1,17 @@
 package com.olehprukhnytskyi.macrotrackerfoodservice.config;
 
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
 import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 
 @Configuration
@@ -24,4 +29,16 @@ public class MongoConfig {
     public MongoTransactionManager transactionManager(MongoDatabaseFactory dbFactory) {
         return new MongoTransactionManager(dbFactory);
     }
+
+    /**
+     * Auto index creation is off, so indexes the queries rely on are created here. The
+     * (user_id, _id) index serves the user's foods pages sorted by id.
+     */
+    @Bean
+    public ApplicationRunner foodIndexInitializer(MongoTemplate mongoTemplate) {
+        return args -> mongoTemplate.indexOps(Food.class).ensureIndex(new Index()
+                .on("user_id", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("user_id_id"));
+    }
 }
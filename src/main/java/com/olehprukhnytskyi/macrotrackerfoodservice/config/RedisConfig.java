@@ -1,27 +1,63 @@
 package com.olehprukhnytskyi.macrotrackerfoodservice.config;
 
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.BinaryCacheSerializer;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.CacheInvalidationListener;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.CacheInvalidationPublisher;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.FoodCacheCodecs;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.FoodCacheKeyIndex;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.FoodFilterListener;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.JitteredTtl;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.LocalCacheSpec;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.RedisLease;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.StaleRevalidator;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.TwoLevelCacheManager;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.CacheProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExistenceFilter;
 import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
+    private static final long MEGABYTE = 1024 * 1024;
+    private static final Duration SEARCH_TTL = Duration.ofMinutes(30);
+    private final String nodeId = UUID.randomUUID().toString();
+
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public BinaryCacheSerializer cacheValueSerializer(CacheProperties cacheProperties,
+                                                      MeterRegistry meterRegistry) {
+        CacheProperties.Serialization properties = cacheProperties.getSerialization();
+        return new BinaryCacheSerializer(FoodCacheCodecs.all(),
+                properties.getFormat() == CacheProperties.Format.BINARY,
+                (int) properties.getCompressionThreshold().toBytes(),
+                new GenericJackson2JsonRedisSerializer(), meterRegistry);
+    }
+
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       BinaryCacheSerializer serializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
         template.setDefaultSerializer(serializer);
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
@@ -33,23 +69,87 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory cf) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory cf,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             CacheProperties cacheProperties,
+                                             BinaryCacheSerializer serializer,
+                                             MeterRegistry meterRegistry,
+                                             @Qualifier(TaskExecutionAutoConfiguration
+                                                     .APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                             Executor refreshExecutor) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                        .fromSerializer(serializer))
                 .disableCachingNullValues();
 
+        Duration grace = cacheProperties.getStale().getGrace();
+        Map<String, Duration> ttls = Map.of(
+                CacheConstants.FOOD_DATA, CacheConstants.FOOD_DATA_TTL,
+                CacheConstants.SEARCH_SUGGESTIONS, SEARCH_TTL,
+                CacheConstants.SEARCH_RESULTS, SEARCH_TTL);
+        Map<String, Duration> graces = Map.of(
+                CacheConstants.FOOD_DATA, Duration.ZERO,
+                CacheConstants.SEARCH_SUGGESTIONS, grace,
+                CacheConstants.SEARCH_RESULTS, grace);
+        CacheProperties.Expiry expiry = cacheProperties.getExpiry();
         Map<String, RedisCacheConfiguration> configs = new HashMap<>();
-        configs.put(CacheConstants.FOOD_DATA, defaultConfig.entryTtl(Duration.ofHours(24)));
-        configs.put(CacheConstants.SEARCH_SUGGESTIONS, defaultConfig
-                .entryTtl(Duration.ofMinutes(30)));
-        configs.put(CacheConstants.SEARCH_RESULTS, defaultConfig.entryTtl(Duration.ofMinutes(30)));
+        ttls.forEach((name, ttl) -> configs.put(name, defaultConfig.entryTtl(
+                new JitteredTtl(ttl, expiry.getJitter(), graces.get(name)))));
 
-        return RedisCacheManager.builder(cf)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cf)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(configs)
                 .build();
+        redisCacheManager.initializeCaches();
+
+        Map<String, LocalCacheSpec> localSpecs = new HashMap<>();
+        localSpecs.put(CacheConstants.FOOD_DATA,
+                new LocalCacheSpec(Duration.ofMinutes(10), 64 * MEGABYTE));
+        localSpecs.put(CacheConstants.SEARCH_SUGGESTIONS,
+                new LocalCacheSpec(Duration.ofMinutes(2), 8 * MEGABYTE));
+        localSpecs.put(CacheConstants.SEARCH_RESULTS,
+                new LocalCacheSpec(Duration.ofMinutes(2), 32 * MEGABYTE));
+
+        CacheInvalidationPublisher publisher = new CacheInvalidationPublisher(
+                stringRedisTemplate, CacheConstants.INVALIDATION_CHANNEL, nodeId);
+        CacheProperties.Lease leaseProperties = cacheProperties.getLease();
+        RedisLease lease = leaseProperties.isEnabled()
+                ? new RedisLease(stringRedisTemplate, leaseProperties.getTtl(),
+                        leaseProperties.getPollInterval(), meterRegistry)
+                : null;
+        Map<String, StaleRevalidator> revalidators = new HashMap<>();
+        graces.forEach((name, cacheGrace) -> {
+            // without a grace period or early refresh there is nothing to revalidate
+            if (!cacheGrace.isZero() || expiry.getEarlyRefreshBeta() > 0) {
+                revalidators.put(name, new StaleRevalidator(name, stringRedisTemplate,
+                        serializer, cacheGrace, expiry.getEarlyRefreshBeta(), refreshExecutor,
+                        meterRegistry));
+            }
+        });
+        CacheProperties.KeyIndex keyIndexProperties = cacheProperties.getKeyIndex();
+        Map<String, FoodCacheKeyIndex> keyIndexes = keyIndexProperties.isEnabled()
+                ? Map.of(CacheConstants.SEARCH_RESULTS, new FoodCacheKeyIndex(
+                        stringRedisTemplate, SEARCH_TTL.plus(grace),
+                        keyIndexProperties.getMaxKeysPerFood(), meterRegistry))
+                : Map.of();
+        return new TwoLevelCacheManager(redisCacheManager, localSpecs,
+                new LocalCacheSpec(Duration.ofMinutes(1), 8 * MEGABYTE), publisher,
+                meterRegistry, lease, revalidators, keyIndexes);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory cf, TwoLevelCacheManager cacheManager,
+            FoodExistenceFilter foodExistenceFilter) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(cf);
+        container.addMessageListener(new CacheInvalidationListener(cacheManager, nodeId),
+                new ChannelTopic(CacheConstants.INVALIDATION_CHANNEL));
+        container.addMessageListener(new FoodFilterListener(foodExistenceFilter), List.of(
+                new ChannelTopic(CacheConstants.FOOD_FILTER_CHANNEL),
+                new ChannelTopic(CacheConstants.FOOD_FILTER_DELETED_CHANNEL)));
+        return container;
     }
 }
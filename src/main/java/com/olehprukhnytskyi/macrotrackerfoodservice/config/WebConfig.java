@@ -0,0 +1,14 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdminAccessInterceptor())
+                .addPathPatterns(AdminAccessInterceptor.ADMIN_PATHS);
+    }
+}
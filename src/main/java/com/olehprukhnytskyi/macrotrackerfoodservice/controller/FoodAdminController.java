@@ -0,0 +1,92 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.controller;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.importer.FoodImportFormat;
+import com.olehprukhnytskyi.macrotrackerfoodservice.importer.FoodImportReport;
+import com.olehprukhnytskyi.macrotrackerfoodservice.importer.FoodImportService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExportService;
+import com.olehprukhnytskyi.util.CustomHeaders;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Min;
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/foods")
+@Tag(
+        name = "Food Catalog Administration API",
+        description = "Maintain the shared food catalog"
+)
+public class FoodAdminController {
+    private final FoodImportService foodImportService;
+    private final FoodExportService foodExportService;
+
+    @Operation(
+            summary = "Import foods",
+            description = """
+            Stream an NDJSON or CSV product dump, optionally gzipped, into the catalog.
+            The dump is read from the request body, or from a file in the configured import
+            directory when file is set. The format defaults to the file extension or content
+            type. Rows are upserted by code; the report lists rejected rows and a checkpoint
+            line that can be passed as skipLines to resume an interrupted import.
+            """
+    )
+    @PostMapping("/import")
+    public ResponseEntity<FoodImportReport> importFoods(
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @RequestParam(required = false) FoodImportFormat format,
+            @RequestParam(required = false) String file,
+            @RequestParam(defaultValue = "0") @Min(0) long skipLines,
+            HttpServletRequest request) throws IOException {
+        log.info("Importing foods userId={} file={} format={} skipLines={}", userId, file,
+                format, skipLines);
+        if (file != null) {
+            return ResponseEntity.ok(foodImportService.importFile(file, format, skipLines));
+        }
+        FoodImportFormat resolved = format != null
+                ? format
+                : FoodImportFormat.detect(request.getContentType());
+        try (InputStream body = request.getInputStream()) {
+            return ResponseEntity.ok(foodImportService.importFoods(body, resolved, skipLines));
+        }
+    }
+
+    @Operation(
+            summary = "Export the catalog",
+            description = """
+            Stream every food as NDJSON in id order, gzipped when gzip is set. Pass the id of
+            the last complete line as after to resume an interrupted export.
+            """
+    )
+    @GetMapping("/export")
+    public void exportFoods(
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        log.info("Exporting foods userId={} after={} gzip={}", userId, after, gzip);
+        response.setContentType(gzip ? "application/gzip" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(gzip ? "foods.ndjson.gz" : "foods.ndjson")
+                .build()
+                .toString());
+        foodExportService.exportFoods(null, after, gzip, response.getOutputStream());
+    }
+}
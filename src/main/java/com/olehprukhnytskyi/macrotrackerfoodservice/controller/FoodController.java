@@ -3,24 +3,41 @@ package com.olehprukhnytskyi.macrotrackerfoodservice.controller;
 import com.olehprukhnytskyi.annotation.Idempotent;
 import com.olehprukhnytskyi.dto.PagedResponse;
 import com.olehprukhnytskyi.dto.Pagination;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.CursorPagedResponse;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.CursorPagination;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodCursorPage;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodPatchRequestDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodRequestDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodSearchFilterDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.TypeaheadResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.resilience.CircuitBreakerOpenException;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.NormalizedQuery;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.QueryNormalizer;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExportService;
 import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodService;
 import com.olehprukhnytskyi.util.CustomHeaders;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
+import java.io.IOException;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -44,6 +61,7 @@ import org.springframework.web.multipart.MultipartFile;
 )
 public class FoodController {
     private final FoodService foodService;
+    private final FoodExportService foodExportService;
 
     @Operation(
             summary = "Get food by ID",
@@ -58,6 +76,23 @@ public class FoodController {
         return ResponseEntity.ok(food);
     }
 
+    @Operation(
+            summary = "Get food by barcode",
+            description = """
+            Resolve a scanned EAN-8, UPC-A, EAN-13 or GTIN-14 barcode to a food product.
+            Valid barcodes also match their leading-zero variants. Stored codes without a
+            valid check digit, such as generated in-store codes, are matched exactly.
+            """
+    )
+    @GetMapping("/barcode/{code}")
+    public ResponseEntity<FoodResponseDto> findByBarcode(
+            @PathVariable String code) {
+        log.info("Fetching food by barcode={}", code);
+        FoodResponseDto food = foodService.findByBarcode(code);
+        log.debug("Food retrieved successfully for barcode={} id={}", code, food.getId());
+        return ResponseEntity.ok(food);
+    }
+
     @Operation(
             summary = "Get user's food products",
             description = """
@@ -79,6 +114,53 @@ public class FoodController {
                 .body(new PagedResponse<>(foods, pagination));
     }
 
+    @Operation(
+            summary = "Export user's food products",
+            description = """
+            Stream all food products created by the current user as NDJSON in id order,
+            gzipped when gzip is set. Pass the id of the last complete line as after to resume
+            an interrupted export.
+            """
+    )
+    @GetMapping("/my-foods/export")
+    public void exportUserFoods(
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(gzip ? "application/gzip" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(gzip ? "my-foods.ndjson.gz" : "my-foods.ndjson")
+                .build()
+                .toString());
+        foodExportService.exportFoods(userId, after, gzip, response.getOutputStream());
+    }
+
+    @Operation(
+            summary = "Get user's food products with cursor",
+            description = """
+            Retrieve food products created by the current user, oldest first, using cursor
+            pagination. Omit the cursor for the first page and pass pagination.nextCursor to
+            continue. The total is only counted when includeTotal is set.
+            """
+    )
+    @GetMapping("/my-foods/cursor")
+    public ResponseEntity<CursorPagedResponse<FoodResponseDto>> getUserFoodsAfter(
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "25") @Min(1) @Max(100) int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("Fetching foods for userId={} limit={} cursor={}", userId, limit,
+                cursor != null);
+        FoodCursorPage page = foodService.findAllByUserIdAfter(userId, cursor, limit);
+        Long total = includeTotal ? foodService.countByUserId(userId) : null;
+        CursorPagination pagination = new CursorPagination(limit, page.getItems().size(),
+                page.getNextCursor(), total);
+        return ResponseEntity
+                .status(page.getItems().isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK)
+                .body(new CursorPagedResponse<>(page.getItems(), pagination));
+    }
+
     @Operation(
             summary = "Get batch food details",
             description = """
@@ -101,21 +183,52 @@ public class FoodController {
 
     @Operation(
             summary = "Search foods",
-            description = "Search food products by name, brand or description with pagination"
+            description = """
+            Search food products by name, brand or description with pagination.
+            Results can be narrowed by nutriment ranges per 100g, brand and image presence.
+            """
     )
     @GetMapping
     public ResponseEntity<PagedResponse<FoodResponseDto>> findByQuery(
             @RequestParam String query,
             @RequestParam(defaultValue = "0") @Min(0) int offset,
-            @RequestParam(defaultValue = "25") @Min(1) int limit) {
+            @RequestParam(defaultValue = "25") @Min(1) int limit,
+            @ParameterObject @Valid FoodSearchFilterDto filterDto) {
         log.info("Searching foods query='{}' offset={} limit={}", query, offset, limit);
-        List<FoodResponseDto> foods = foodService.findByQuery(query, offset, limit).getItems();
+        NormalizedQuery normalized = QueryNormalizer.normalize(query);
+        List<FoodResponseDto> foods = foodService.findByQuery(normalized,
+                FoodFilter.from(filterDto), offset, limit).getItems();
         Pagination pagination = new Pagination(offset, limit, foods.size());
         return ResponseEntity
                 .status(foods.isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK)
                 .body(new PagedResponse<>(foods, pagination));
     }
 
+    @Operation(
+            summary = "Search foods with cursor",
+            description = """
+            Search food products by name, brand or description using cursor pagination.
+            Omit the cursor for the first page and pass pagination.nextCursor to continue,
+            repeating the same query and filters. Unlike offset pagination, deep pages are as
+            cheap as the first one.
+            """
+    )
+    @GetMapping("/search")
+    public ResponseEntity<CursorPagedResponse<FoodResponseDto>> findByQueryAfter(
+            @RequestParam String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "25") @Min(1) @Max(100) int limit,
+            @ParameterObject @Valid FoodSearchFilterDto filterDto) {
+        log.info("Searching foods query='{}' limit={} cursor={}", query, limit, cursor != null);
+        FoodCursorPage page = foodService.findByQueryAfter(QueryNormalizer.normalize(query),
+                FoodFilter.from(filterDto), cursor, limit);
+        CursorPagination pagination = new CursorPagination(limit, page.getItems().size(),
+                page.getNextCursor(), null);
+        return ResponseEntity
+                .status(page.getItems().isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK)
+                .body(new CursorPagedResponse<>(page.getItems(), pagination));
+    }
+
     @Operation(
             summary = "Get search suggestions",
             description = "Get autocomplete suggestions for food search"
@@ -124,12 +237,33 @@ public class FoodController {
     public ResponseEntity<List<String>> getSearchSuggestions(
             @RequestParam String query) {
         log.debug("Fetching search suggestions for query='{}'", query);
-        List<String> suggestions = foodService.getSearchSuggestions(query);
+        List<String> suggestions = foodService.getSearchSuggestions(
+                QueryNormalizer.normalize(query));
         return suggestions.isEmpty()
                 ? ResponseEntity.noContent().build()
                 : ResponseEntity.ok(suggestions);
     }
 
+    @Operation(
+            summary = "Typeahead search",
+            description = """
+            Get autocomplete suggestions and the first page of matching food products
+            in a single call. Intended to replace calling search-suggestions and search
+            back to back while the user is typing.
+            """
+    )
+    @GetMapping("/typeahead")
+    public ResponseEntity<TypeaheadResponseDto> typeahead(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+        log.debug("Fetching typeahead for query='{}' limit={}", query, limit);
+        TypeaheadResponseDto result = foodService.typeahead(
+                QueryNormalizer.normalize(query), limit);
+        return result.getSuggestions().isEmpty() && result.getItems().isEmpty()
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.ok(result);
+    }
+
     @Operation(
             summary = "Create food product",
             description = "Add new food product to database with optional image upload"
@@ -175,4 +309,10 @@ public class FoodController {
         log.debug("Food deleted successfully id={} userId={}", id, userId);
         return ResponseEntity.noContent().build();
     }
+
+    @ExceptionHandler(CircuitBreakerOpenException.class)
+    public ResponseEntity<Void> handleSearchUnavailable(CircuitBreakerOpenException e) {
+        log.warn("Search is unavailable, returning no results: {}", e.getMessage());
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,54 +1,134 @@
 package com.olehprukhnytskyi.macrotrackerfoodservice.dao;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import co.elastic.clients.elasticsearch.core.MsearchRequest;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.search.Hit;
 import com.olehprukhnytskyi.exception.BadRequestException;
 import com.olehprukhnytskyi.exception.InternalServerException;
 import com.olehprukhnytskyi.exception.error.CommonErrorCode;
-import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.popularity.QueryKind;
+import com.olehprukhnytskyi.macrotrackerfoodservice.popularity.QueryPopularityService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.SearchProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.resilience.CircuitBreaker;
+import com.olehprukhnytskyi.macrotrackerfoodservice.resilience.CircuitBreakerOpenException;
+import com.olehprukhnytskyi.macrotrackerfoodservice.resilience.RequestHedger;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchHit;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchPage;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.Gtin;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.NormalizedQuery;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.SearchCursor;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.SuggestionHit;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.TypeaheadHits;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class FoodSearchDao {
+    public static final String INDEX = "macro_tracker.foods";
+    private static final String PIT_KEEP_ALIVE = "2m";
+    private static final int SUGGESTIONS_LIMIT = 16;
+    private static final String EXACT_TIER = "exact";
+    private static final String FUZZY_TIER = "fuzzy";
+    private static final String COMBINED_TIER = "combined";
+    private static final float BARCODE_BOOST = 10f;
+    private static final String[] SEARCH_FIELDS = {"product_name^4", "_keywords^3",
+            "generic_name^2", "brands^2"};
     private final ElasticsearchClient elasticsearchClient;
+    private final QueryPopularityService popularityService;
+    private final CircuitBreaker circuitBreaker;
+    private final ElasticsearchAsyncClient elasticsearchAsyncClient;
+    private final RequestHedger requestHedger;
+    private final SearchProperties searchProperties;
+    private final Map<String, TierMeters> tierMeters = new HashMap<>();
 
-    public List<Food> search(String query, int offset, int limit) {
-        if (query == null || query.trim().isEmpty()) {
+    public FoodSearchDao(ElasticsearchClient elasticsearchClient,
+                         QueryPopularityService popularityService, MeterRegistry meterRegistry,
+                         CircuitBreaker circuitBreaker,
+                         ElasticsearchAsyncClient elasticsearchAsyncClient,
+                         RequestHedger requestHedger, SearchProperties searchProperties) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.popularityService = popularityService;
+        this.circuitBreaker = circuitBreaker;
+        this.elasticsearchAsyncClient = elasticsearchAsyncClient;
+        this.requestHedger = requestHedger;
+        this.searchProperties = searchProperties;
+        for (String tier : List.of(EXACT_TIER, FUZZY_TIER, COMBINED_TIER)) {
+            tierMeters.put(tier, new TierMeters(
+                    Timer.builder("search.tier.latency")
+                            .description("Latency of one search tier")
+                            .tag("tier", tier)
+                            .publishPercentiles(0.5, 0.99)
+                            .register(meterRegistry),
+                    DistributionSummary.builder("search.tier.hits")
+                            .description("Hits returned by one search tier")
+                            .tag("tier", tier)
+                            .register(meterRegistry)));
+        }
+    }
+
+    public List<FoodSearchHit> search(NormalizedQuery query, int offset, int limit) {
+        return search(query, FoodFilter.NONE, offset, limit);
+    }
+
+    public List<FoodSearchHit> search(NormalizedQuery query, FoodFilter filter,
+                                      int offset, int limit) {
+        if (query == null || query.isEmpty()) {
             throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
                     "Query must not be null or empty");
         }
+        int window = offset + limit;
+        if (window > searchProperties.getMaxResultWindow()) {
+            throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
+                    "Offset search is limited to the first "
+                            + searchProperties.getMaxResultWindow()
+                            + " results, use the cursor endpoint to page further");
+        }
         try {
-            Query searchQuery = buildSearchQuery(query);
-            SearchResponse<Food> response = elasticsearchClient.search(
-                    s -> s.index("macro_tracker.foods")
-                            .query(searchQuery)
-                            .from(offset)
-                            .size(limit),
-                    Food.class
-            );
-            if (response == null || response.hits() == null || response.hits().hits() == null) {
-                return Collections.emptyList();
+            if (window > searchProperties.getTieredWindow()) {
+                return searchTier(COMBINED_TIER, buildCombinedQuery(query, filter),
+                        offset, limit);
             }
-            return response.hits().hits().stream()
-                    .map(hit -> {
-                        if (hit.source() == null) {
-                            return null;
-                        }
-                        hit.source().setId(hit.id());
-                        return hit.source();
-                    })
-                    .filter(Objects::nonNull)
-                    .toList();
+            List<FoodSearchHit> exact = searchTier(EXACT_TIER,
+                    buildExactQuery(query, filter), 0, window);
+            if (exact.size() >= window) {
+                return List.copyOf(exact.subList(offset, window));
+            }
+            List<FoodSearchHit> fuzzy = searchTier(FUZZY_TIER,
+                    buildSearchQuery(query, filter), 0, window);
+            return merge(exact, fuzzy, offset, window);
+        } catch (CircuitBreakerOpenException e) {
+            throw e;
         } catch (IOException e) {
             throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
                     "Failed to execute search request", e);
@@ -58,25 +138,146 @@ public class FoodSearchDao {
         }
     }
 
-    public List<String> getSuggestions(String query) {
-        if (query == null || query.trim().isEmpty()) {
+    public FoodSearchPage searchAfter(NormalizedQuery query, FoodFilter filter,
+                                      SearchCursor cursor, int limit) {
+        if (query == null || query.isEmpty()) {
+            throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
+                    "Query must not be null or empty");
+        }
+        try {
+            Query searchQuery = buildCombinedQuery(query, filter);
+            if (cursor == null) {
+                return executeSearchAfter(searchQuery, openPointInTime(), null, limit);
+            }
+            try {
+                return executeSearchAfter(searchQuery, cursor.pitId(), cursor, limit);
+            } catch (ElasticsearchException e) {
+                if (e.status() != 404) {
+                    throw e;
+                }
+                log.debug("Point in time expired, reopening for cursor at code={}",
+                        cursor.code());
+                return executeSearchAfter(searchQuery, openPointInTime(), cursor, limit);
+            }
+        } catch (CircuitBreakerOpenException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "Failed to execute search request", e);
+        } catch (Exception e) {
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "Unexpected error during search", e);
+        }
+    }
+
+    @Cacheable(
+            value = CacheConstants.SEARCH_SUGGESTIONS,
+            key = "#query.hash",
+            condition = "!#query.empty",
+            sync = true
+    )
+    public List<String> getSuggestions(NormalizedQuery query) {
+        if (query.isEmpty()) {
             return Collections.emptyList();
         }
-        String normalized = query.trim().toLowerCase();
+        popularityService.recordMiss(QueryKind.SUGGESTIONS, query);
+        return fetchSuggestions(query);
+    }
+
+    @CachePut(
+            value = CacheConstants.SEARCH_SUGGESTIONS,
+            key = "#query.hash",
+            condition = "!#query.empty"
+    )
+    public List<String> refreshSuggestions(NormalizedQuery query) {
+        return fetchSuggestions(query);
+    }
+
+    /**
+     * Typeahead items ranked the same way as the hits of {@link #typeahead}, for callers that
+     * already have the suggestions.
+     */
+    public List<FoodSearchHit> typeaheadHits(NormalizedQuery query, int limit) {
+        if (query == null || query.isEmpty()) {
+            throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
+                    "Query must not be null or empty");
+        }
+        try {
+            return searchTier(COMBINED_TIER, buildCombinedQuery(query, FoodFilter.NONE), 0,
+                    limit);
+        } catch (CircuitBreakerOpenException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "Failed to execute typeahead request", e);
+        } catch (Exception e) {
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "Unexpected error during typeahead", e);
+        }
+    }
+
+    public TypeaheadHits typeahead(NormalizedQuery query, int limit) {
+        if (query == null || query.isEmpty()) {
+            throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
+                    "Query must not be null or empty");
+        }
         try {
-            SearchResponse<Food> response = elasticsearchClient.search(
-                    s -> s.index("macro_tracker.foods")
-                            .query(buildSuggestionQuery(normalized)),
-                    Food.class
-            );
+            Query suggestionQuery = buildSuggestionQuery(query.getText());
+            Query searchQuery = buildCombinedQuery(query, FoodFilter.NONE);
+            MsearchRequest request = MsearchRequest.of(m -> m
+                    .index(INDEX)
+                    .searches(s -> s.header(h -> h)
+                            .body(b -> b.query(suggestionQuery)
+                                    .source(src -> src.filter(f -> f
+                                            .includes(List.of(SuggestionHit.SOURCE_FIELDS))))
+                                    .size(SUGGESTIONS_LIMIT)))
+                    .searches(s -> s.header(h -> h)
+                            .body(b -> b.query(searchQuery)
+                                    .source(src -> src.filter(f -> f
+                                            .includes(List.of(FoodSearchHit.SOURCE_FIELDS))))
+                                    .size(limit))));
+            MsearchResponse<FoodSearchHit> response = guarded(() -> elasticsearchClient.msearch(
+                    request, FoodSearchHit.class));
+            List<String> suggestions = msearchHits(response, 0).stream()
+                    .map(hit -> hit.source() != null ? hit.source().productName() : null)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .limit(SUGGESTIONS_LIMIT)
+                    .toList();
+            List<FoodSearchHit> hits = msearchHits(response, 1).stream()
+                    .map(FoodSearchDao::toSearchHit)
+                    .filter(Objects::nonNull)
+                    .toList();
+            return new TypeaheadHits(suggestions, hits);
+        } catch (CircuitBreakerOpenException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "Failed to execute typeahead request", e);
+        } catch (Exception e) {
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "Unexpected error during typeahead", e);
+        }
+    }
+
+    private List<String> fetchSuggestions(NormalizedQuery query) {
+        String normalized = query.getText();
+        try {
+            SearchResponse<SuggestionHit> response = guarded(() -> elasticsearchClient.search(
+                    s -> s.index(INDEX)
+                            .query(buildSuggestionQuery(normalized))
+                            .source(src -> src.filter(f -> f
+                                    .includes(List.of(SuggestionHit.SOURCE_FIELDS)))),
+                    SuggestionHit.class
+            ));
             if (response == null || response.hits() == null || response.hits().hits() == null) {
                 return Collections.emptyList();
             }
             return response.hits().hits().stream()
-                    .map(hit -> hit.source() != null ? hit.source().getProductName() : null)
+                    .map(hit -> hit.source() != null ? hit.source().productName() : null)
                     .filter(Objects::nonNull)
                     .distinct()
-                    .limit(16)
+                    .limit(SUGGESTIONS_LIMIT)
                     .collect(Collectors.toList());
         } catch (IOException e) {
             throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
@@ -84,29 +285,230 @@ public class FoodSearchDao {
         }
     }
 
-    private Query buildSearchQuery(String query) {
-        String normalizedQuery = query.trim().toLowerCase()
-                .replaceAll("[^\\p{L}\\p{N}\\s]", "");
-        String[] tokens = normalizedQuery.split("\\s+");
+    private List<FoodSearchHit> searchTier(String tier, Query searchQuery, int from, int size)
+            throws IOException {
+        long start = System.nanoTime();
+        SearchResponse<FoodSearchHit> response = searchProperties.getHedge().isEnabled()
+                ? guarded(() -> requestHedger.execute(preference -> elasticsearchAsyncClient
+                        .search(tierRequest(searchQuery, from, size, preference),
+                                FoodSearchHit.class)))
+                : guarded(() -> elasticsearchClient.search(
+                        tierRequest(searchQuery, from, size, null), FoodSearchHit.class));
+        List<FoodSearchHit> hits = response == null || response.hits() == null
+                || response.hits().hits() == null
+                ? Collections.emptyList()
+                : response.hits().hits().stream()
+                        .map(FoodSearchDao::toSearchHit)
+                        .filter(Objects::nonNull)
+                        .toList();
+        TierMeters meters = tierMeters.get(tier);
+        meters.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        meters.hits().record(hits.size());
+        return hits;
+    }
+
+    private FoodSearchPage executeSearchAfter(Query searchQuery, String pitId,
+                                              SearchCursor cursor, int limit)
+            throws IOException {
+        SearchRequest request = SearchRequest.of(s -> {
+            s.query(searchQuery)
+                    .source(src -> src.filter(f -> f
+                            .includes(List.of(FoodSearchHit.SOURCE_FIELDS))))
+                    .pit(p -> p.id(pitId).keepAlive(k -> k.time(PIT_KEEP_ALIVE)))
+                    .sort(so -> so.score(sc -> sc.order(SortOrder.Desc)))
+                    .sort(so -> so.field(f -> f.field("code").order(SortOrder.Asc)))
+                    .size(limit + 1);
+            if (cursor != null) {
+                s.searchAfter(FieldValue.of(cursor.score()), FieldValue.of(cursor.code()));
+            }
+            return s;
+        });
+        SearchResponse<FoodSearchHit> response = guarded(() -> elasticsearchClient.search(
+                request, FoodSearchHit.class));
+        if (response == null || response.hits() == null || response.hits().hits() == null) {
+            closePointInTime(pitId);
+            return new FoodSearchPage(Collections.emptyList(), null);
+        }
+        String nextPitId = response.pitId() != null ? response.pitId() : pitId;
+        List<Hit<FoodSearchHit>> hits = response.hits().hits();
+        List<FoodSearchHit> foods = hits.stream()
+                .limit(limit)
+                .map(FoodSearchDao::toSearchHit)
+                .filter(Objects::nonNull)
+                .toList();
+        if (hits.size() <= limit) {
+            closePointInTime(nextPitId);
+            return new FoodSearchPage(foods, null);
+        }
+        List<FieldValue> sort = hits.get(limit - 1).sort();
+        return new FoodSearchPage(foods, new SearchCursor(nextPitId,
+                sort.get(0).doubleValue(), sort.get(1).stringValue()));
+    }
+
+    private static List<FoodSearchHit> merge(List<FoodSearchHit> exact, List<FoodSearchHit> fuzzy,
+                                             int offset, int window) {
+        Map<String, FoodSearchHit> merged = new LinkedHashMap<>();
+        exact.forEach(hit -> merged.put(hit.id(), hit));
+        fuzzy.forEach(hit -> merged.putIfAbsent(hit.id(), hit));
+        List<FoodSearchHit> hits = new ArrayList<>(merged.values());
+        int size = hits.size();
+        return List.copyOf(hits.subList(Math.min(offset, size), Math.min(window, size)));
+    }
+
+    private static List<Hit<FoodSearchHit>> msearchHits(MsearchResponse<FoodSearchHit> response,
+                                                        int index) {
+        if (response == null || response.responses() == null
+                || response.responses().size() <= index) {
+            return Collections.emptyList();
+        }
+        MultiSearchResponseItem<FoodSearchHit> item = response.responses().get(index);
+        if (item.isFailure()) {
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "Typeahead search failed: " + item.failure().error().reason());
+        }
+        if (item.result().hits() == null || item.result().hits().hits() == null) {
+            return Collections.emptyList();
+        }
+        return item.result().hits().hits();
+    }
+
+    private static FoodSearchHit toSearchHit(Hit<FoodSearchHit> hit) {
+        return hit.source() != null ? hit.source().withId(hit.id()) : null;
+    }
+
+    private String openPointInTime() throws IOException {
+        return guarded(() -> elasticsearchClient.openPointInTime(o -> o
+                .index(INDEX)
+                .keepAlive(k -> k.time(PIT_KEEP_ALIVE))
+        )).id();
+    }
+
+    private static SearchRequest tierRequest(Query searchQuery, int from, int size,
+                                             String preference) {
+        return SearchRequest.of(s -> s.index(INDEX)
+                .query(searchQuery)
+                .source(src -> src.filter(f -> f
+                        .includes(List.of(FoodSearchHit.SOURCE_FIELDS))))
+                .from(from)
+                .size(size)
+                .preference(preference));
+    }
+
+    private <T> T guarded(Callable<T> request) throws IOException {
+        try {
+            return circuitBreaker.execute(request);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void closePointInTime(String pitId) {
+        try {
+            elasticsearchClient.closePointInTime(c -> c.id(pitId));
+        } catch (IOException | ElasticsearchException e) {
+            log.debug("Failed to close point in time: {}", e.getMessage());
+        }
+    }
+
+    private Query buildExactQuery(NormalizedQuery query, FoodFilter filter) {
         return Query.of(q -> q.bool(b -> {
-            for (String token : tokens) {
+            for (String token : query.getTerms()) {
+                b.should(s -> s.multiMatch(mm -> mm
+                        .fields(List.of(SEARCH_FIELDS))
+                        .query(token)
+                ));
+            }
+            b.should(s -> s.matchPhrasePrefix(mp -> mp
+                    .field("product_name")
+                    .query(query.getText())
+                    .boost(2f)));
+            applyBarcodes(b, query);
+            b.minimumShouldMatch("1");
+            applyFilter(b, filter);
+            return b;
+        }));
+    }
+
+    private Query buildSearchQuery(NormalizedQuery query, FoodFilter filter) {
+        return Query.of(q -> q.bool(b -> {
+            for (String token : query.getTerms()) {
                 String fuzziness = token.length() > 3 ? "AUTO" : "2";
                 b.should(s -> s.multiMatch(mm -> mm
-                        .fields("product_name^4", "_keywords^3",
-                                "generic_name^2", "brands^2")
+                        .fields(List.of(SEARCH_FIELDS))
                         .query(token)
                         .fuzziness(fuzziness)
                 ));
-                if (token.matches("\\d{8}|\\d{12}|\\d{13}|\\d{24}")) {
-                    String tokenNoZeros = token.replaceFirst("^0+(?!$)", "");
-                    processBarcode(b, tokenNoZeros);
-                }
             }
+            applyBarcodes(b, query);
             b.minimumShouldMatch("1");
+            applyFilter(b, filter);
+            return b;
+        }));
+    }
+
+    /**
+     * Both tiers in one query for search_after and typeahead, which cannot merge two result
+     * lists. Exact matches also match the fuzzy clause and so score above fuzzy-only matches,
+     * keeping the tier order of offset search.
+     */
+    private Query buildCombinedQuery(NormalizedQuery query, FoodFilter filter) {
+        Query exact = buildExactQuery(query, FoodFilter.NONE);
+        Query fuzzy = buildSearchQuery(query, FoodFilter.NONE);
+        return Query.of(q -> q.bool(b -> {
+            b.should(exact).should(fuzzy).minimumShouldMatch("1");
+            applyFilter(b, filter);
             return b;
         }));
     }
 
+    private static void applyBarcodes(BoolQuery.Builder b, NormalizedQuery query) {
+        for (Gtin gtin : query.getBarcodes()) {
+            List<FieldValue> codes = gtin.lookupKeys().stream()
+                    .map(FieldValue::of)
+                    .toList();
+            b.should(s -> s.terms(t -> t
+                    .field("code")
+                    .terms(v -> v.value(codes))
+                    .boost(BARCODE_BOOST)));
+        }
+        for (String code : query.getCodes()) {
+            b.should(s -> s.term(t -> t
+                    .field("code")
+                    .value(code)
+                    .boost(BARCODE_BOOST)));
+        }
+    }
+
+    private void applyFilter(BoolQuery.Builder b, FoodFilter filter) {
+        filter.getRanges().forEach((nutrient, range) -> b.filter(f -> f.range(r -> r
+                .number(n -> {
+                    n.field(nutrient.getField());
+                    if (range.min() != null) {
+                        n.gte(range.min().doubleValue());
+                    }
+                    if (range.max() != null) {
+                        n.lte(range.max().doubleValue());
+                    }
+                    return n;
+                }))));
+        if (filter.getBrand() != null) {
+            b.filter(f -> f.match(m -> m
+                    .field("brands")
+                    .query(filter.getBrand())
+                    .operator(Operator.And)));
+        }
+        if (filter.getHasImage() != null) {
+            Query hasImage = Query.of(f -> f.exists(e -> e.field("image_url")));
+            if (filter.getHasImage()) {
+                b.filter(hasImage);
+            } else {
+                b.mustNot(hasImage);
+            }
+        }
+    }
+
     private Query buildSuggestionQuery(String normalized) {
         return Query.of(q -> q.bool(b -> b
                 .should(s1 -> s1.matchPhrase(mp -> mp
@@ -129,38 +531,6 @@ public class FoodSearchDao {
         ));
     }
 
-    private void processBarcode(BoolQuery.Builder b, String tokenNoZeros) {
-        String tokenAsEan13 = tokenNoZeros.length() <= 13
-                ? String.format("%013d", Long.parseLong(tokenNoZeros))
-                : tokenNoZeros;
-        b.should(s -> s.term(t -> t
-                .field("code")
-                .value(tokenAsEan13)
-                .boost(5f)
-        ));
-        String tokenAsEan8 = tokenNoZeros.length() <= 8
-                ? String.format("%08d", Long.parseLong(tokenNoZeros))
-                : tokenNoZeros;
-        b.should(s -> s.term(t -> t
-                .field("code")
-                .value(tokenAsEan8)
-                .boost(5f)
-        ));
-        String tokenAsUpc = tokenNoZeros.length() <= 12
-                ? String.format("%012d", Long.parseLong(tokenNoZeros))
-                : tokenNoZeros;
-        b.should(s -> s.term(t -> t
-                .field("code")
-                .value(tokenAsUpc)
-                .boost(5f)
-        ));
-        String tokenAsEan24 = tokenNoZeros.length() <= 24
-                ? String.format("%024d", Long.parseLong(tokenNoZeros))
-                : tokenNoZeros;
-        b.should(s -> s.term(t -> t
-                .field("code")
-                .value(tokenAsEan24)
-                .boost(5f)
-        ));
+    private record TierMeters(Timer latency, DistributionSummary hits) {
     }
 }
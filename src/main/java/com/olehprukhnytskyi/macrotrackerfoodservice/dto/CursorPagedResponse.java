@@ -0,0 +1,19 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page of items with cursor based pagination")
+public class CursorPagedResponse<T> {
+    @Schema(description = "Page items")
+    private List<T> items;
+
+    @Schema(description = "Pagination details")
+    private CursorPagination pagination;
+}
@@ -0,0 +1,24 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cursor based pagination details")
+public class CursorPagination {
+    @Schema(description = "Requested page size", example = "25")
+    private int limit;
+
+    @Schema(description = "Number of items in this page", example = "25")
+    private int count;
+
+    @Schema(description = "Opaque cursor to pass for the next page, null on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Total number of items, only present when requested", example = "120")
+    private Long total;
+}
@@ -0,0 +1,19 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cached cursor page of food products")
+public class FoodCursorPage {
+    @Schema(description = "List of food products")
+    private List<FoodResponseDto> items;
+
+    @Schema(description = "Cursor of the next page, absent on the last page")
+    private String nextCursor;
+}
@@ -0,0 +1,51 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import lombok.Data;
+
+@Data
+@Schema(description = "Structured filters applied to food search results")
+public class FoodSearchFilterDto {
+    @Schema(description = "Minimum calories per 100g", example = "0.0", minimum = "0.0")
+    @DecimalMin(value = "0.0")
+    private BigDecimal minCalories;
+
+    @Schema(description = "Maximum calories per 100g", example = "100.0", minimum = "0.0")
+    @DecimalMin(value = "0.0")
+    private BigDecimal maxCalories;
+
+    @Schema(description = "Minimum protein per 100g (g)", example = "20.0", minimum = "0.0")
+    @DecimalMin(value = "0.0")
+    private BigDecimal minProtein;
+
+    @Schema(description = "Maximum protein per 100g (g)", minimum = "0.0")
+    @DecimalMin(value = "0.0")
+    private BigDecimal maxProtein;
+
+    @Schema(description = "Minimum fat per 100g (g)", minimum = "0.0")
+    @DecimalMin(value = "0.0")
+    private BigDecimal minFat;
+
+    @Schema(description = "Maximum fat per 100g (g)", example = "5.0", minimum = "0.0")
+    @DecimalMin(value = "0.0")
+    private BigDecimal maxFat;
+
+    @Schema(description = "Minimum carbohydrates per 100g (g)", minimum = "0.0")
+    @DecimalMin(value = "0.0")
+    private BigDecimal minCarbohydrates;
+
+    @Schema(description = "Maximum carbohydrates per 100g (g)", example = "10.0",
+            minimum = "0.0")
+    @DecimalMin(value = "0.0")
+    private BigDecimal maxCarbohydrates;
+
+    @Schema(description = "Brand name", example = "Farm Fresh")
+    @Size(max = 100)
+    private String brand;
+
+    @Schema(description = "Only products with (true) or without (false) an image")
+    private Boolean hasImage;
+}
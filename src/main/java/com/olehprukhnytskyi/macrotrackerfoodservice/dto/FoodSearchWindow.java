@@ -0,0 +1,19 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cached leading window of search results for a query")
+public class FoodSearchWindow {
+    @Schema(description = "Top search results in rank order")
+    private List<FoodResponseDto> items;
+
+    @Schema(description = "Whether the window already holds every matching result")
+    private boolean complete;
+}
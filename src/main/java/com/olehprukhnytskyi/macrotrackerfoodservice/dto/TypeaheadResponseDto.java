@@ -0,0 +1,19 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Autocomplete suggestions together with the first page of matching foods")
+public class TypeaheadResponseDto {
+    @Schema(description = "Autocomplete suggestions", example = "[\"apple\", \"apple juice\"]")
+    private List<String> suggestions;
+
+    @Schema(description = "First page of matching food products")
+    private List<FoodResponseDto> items;
+}
@@ -8,4 +8,5 @@ import lombok.Getter;
 public class FoodCreatedEvent {
     private final String foodId;
     private final Long userId;
+    private final String productName;
 }
@@ -0,0 +1,11 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FoodDeletedEvent {
+    private final String foodId;
+    private final String productName;
+}
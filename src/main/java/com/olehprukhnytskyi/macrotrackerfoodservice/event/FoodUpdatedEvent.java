@@ -0,0 +1,12 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FoodUpdatedEvent {
+    private final String foodId;
+    private final String previousProductName;
+    private final String productName;
+}
@@ -0,0 +1,21 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.importer;
+
+import java.util.Locale;
+
+public enum FoodImportFormat {
+    NDJSON,
+    CSV;
+
+    /**
+     * Guesses the format from a file name or content type, defaulting to NDJSON.
+     */
+    public static FoodImportFormat detect(String hint) {
+        if (hint == null) {
+            return NDJSON;
+        }
+        String lower = hint.toLowerCase(Locale.ROOT);
+        return lower.contains("csv") || lower.contains("tsv") || lower.contains("tab-separated")
+                ? CSV
+                : NDJSON;
+    }
+}
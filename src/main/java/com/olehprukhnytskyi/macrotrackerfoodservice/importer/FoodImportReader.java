@@ -0,0 +1,229 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodRequestDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.NutrimentsDto;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams food rows out of an NDJSON or CSV dump one at a time. Gzip input is recognised by
+ * its magic bytes. Both the API field names and the OpenFoodFacts export names are understood;
+ * in NDJSON nutriments may be flat or nested under {@code nutriments}. CSV files are split on
+ * tabs when the header contains one, on commas otherwise. A malformed row is returned with an
+ * error rather than failing the stream.
+ */
+public final class FoodImportReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int GZIP_MAGIC = 0x8B1F;
+    private final BufferedReader reader;
+    private final FoodImportFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private char delimiter;
+    private long line;
+
+    public FoodImportReader(InputStream input, FoodImportFormat format,
+                            ObjectMapper objectMapper) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(decompress(input),
+                StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == FoodImportFormat.CSV) {
+            readHeader();
+        }
+    }
+
+    /**
+     * Returns the next row, or {@code null} once the input is exhausted.
+     */
+    public FoodImportRow next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            long start = line;
+            try {
+                Function<String, String> fields = format == FoodImportFormat.CSV
+                        ? csvFields(text)
+                        : jsonFields(text);
+                return FoodImportRow.parsed(start, toRequest(fields));
+            } catch (JsonProcessingException e) {
+                return FoodImportRow.failed(start, "Malformed JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                return FoodImportRow.failed(start, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Skips input up to and including the given line, used to resume from a checkpoint.
+     */
+    public void skipTo(long lineNumber) throws IOException {
+        while (line < lineNumber && reader.readLine() != null) {
+            line++;
+        }
+    }
+
+    /**
+     * Number of input lines consumed so far, including the CSV header.
+     */
+    public long line() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            columns = Map.of();
+            return;
+        }
+        line++;
+        if (!header.isEmpty() && header.charAt(0) == '\uFEFF') {
+            header = header.substring(1);
+        }
+        delimiter = header.indexOf('\t') >= 0 ? '\t' : ',';
+        List<String> names = split(header);
+        columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.putIfAbsent(names.get(i).trim(), i);
+        }
+    }
+
+    private Function<String, String> csvFields(String text) throws IOException {
+        List<String> values = split(text);
+        return name -> {
+            Integer index = columns.get(name);
+            return index != null && index < values.size() ? values.get(index) : null;
+        };
+    }
+
+    private List<String> split(String text) throws IOException {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        String current = text;
+        int i = 0;
+        while (true) {
+            if (i == current.length()) {
+                if (!quoted) {
+                    break;
+                }
+                current = reader.readLine();
+                if (current == null) {
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                line++;
+                value.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = current.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i < current.length() && current.charAt(i) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && value.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private Function<String, String> jsonFields(String text) throws JsonProcessingException {
+        JsonNode root = objectMapper.readTree(text);
+        if (!root.isObject()) {
+            throw new IllegalArgumentException("Row is not a JSON object");
+        }
+        JsonNode nutriments = root.path("nutriments");
+        return name -> {
+            JsonNode node = root.get(name);
+            if (node == null || node.isContainerNode()) {
+                node = nutriments.get(name);
+            }
+            return node == null || node.isNull() || node.isContainerNode() ? null : node.asText();
+        };
+    }
+
+    private static FoodRequestDto toRequest(Function<String, String> fields) {
+        NutrimentsDto nutriments = new NutrimentsDto();
+        nutriments.setCalories(decimal(fields, "calories", "energy-kcal_100g"));
+        nutriments.setFat(decimal(fields, "fat", "fat_100g"));
+        nutriments.setProtein(decimal(fields, "protein", "proteins_100g"));
+        nutriments.setCarbohydrates(decimal(fields, "carbohydrates", "carbohydrates_100g"));
+        nutriments.setCaloriesPerPiece(decimal(fields, "caloriesPerPiece"));
+        nutriments.setFatPerPiece(decimal(fields, "fatPerPiece"));
+        nutriments.setProteinPerPiece(decimal(fields, "proteinPerPiece"));
+        nutriments.setCarbohydratesPerPiece(decimal(fields, "carbohydratesPerPiece"));
+        return FoodRequestDto.builder()
+                .code(text(fields, "code"))
+                .productName(text(fields, "productName", "product_name"))
+                .genericName(text(fields, "genericName", "generic_name"))
+                .brands(text(fields, "brands"))
+                .nutriments(nutriments)
+                .build();
+    }
+
+    private static String text(Function<String, String> fields, String... names) {
+        for (String name : names) {
+            String value = fields.apply(name);
+            if (value != null && !value.isBlank()) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+
+    private static BigDecimal decimal(Function<String, String> fields, String... names) {
+        String value = text(fields, names);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + names[0] + ": " + value);
+        }
+    }
+
+    private static InputStream decompress(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input, BUFFER_SIZE);
+        buffered.mark(2);
+        int magic = buffered.read() | (buffered.read() << 8);
+        buffered.reset();
+        return magic == GZIP_MAGIC ? new GZIPInputStream(buffered, BUFFER_SIZE) : buffered;
+    }
+}
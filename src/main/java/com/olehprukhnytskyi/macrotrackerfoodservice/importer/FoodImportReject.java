@@ -0,0 +1,4 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.importer;
+
+public record FoodImportReject(long line, String code, String reason) {
+}
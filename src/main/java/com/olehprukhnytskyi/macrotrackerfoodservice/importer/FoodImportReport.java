@@ -0,0 +1,14 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.importer;
+
+import java.util.List;
+
+/**
+ * Outcome of an import. {@code checkpoint} is the last input line up to which every row has
+ * been written or rejected; passing it as {@code skipLines} resumes an interrupted import.
+ * {@code rejects} holds the first rejected rows only.
+ */
+public record FoodImportReport(long rowsRead, long inserted, long updated, long duplicates,
+                               long rejected, long failed, long checkpoint,
+                               long durationMillis, double rowsPerSecond,
+                               List<FoodImportReject> rejects) {
+}
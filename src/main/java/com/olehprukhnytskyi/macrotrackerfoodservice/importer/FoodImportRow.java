@@ -0,0 +1,16 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.importer;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodRequestDto;
+
+/**
+ * One row of an import, either parsed into a request or carrying the reason it could not be.
+ */
+public record FoodImportRow(long line, FoodRequestDto request, String error) {
+    public static FoodImportRow parsed(long line, FoodRequestDto request) {
+        return new FoodImportRow(line, request, null);
+    }
+
+    public static FoodImportRow failed(long line, String error) {
+        return new FoodImportRow(line, null, error);
+    }
+}
@@ -0,0 +1,390 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.olehprukhnytskyi.exception.BadRequestException;
+import com.olehprukhnytskyi.exception.InternalServerException;
+import com.olehprukhnytskyi.exception.error.CommonErrorCode;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.TwoLevelCache;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodRequestDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.ImportProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodCodeGenerator;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExistenceFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Streams a product dump into the foods collection.
+ *
+ * <p>The calling thread reads and validates rows and collects them into batches keyed by
+ * code, so a code repeated within a batch is written once, with its last row. Batches are
+ * upserted with unordered bulk writes by a fixed pool of workers, and a semaphore bounds the
+ * batches in flight so a fast reader never buffers more than a few batches of the dump.
+ * Upserts only match catalog foods; a code that belongs to a user's food is rejected. Foods
+ * that already existed are evicted from the caches and new ids are added to the existence
+ * filter. The change stream indexer picks the writes up for search.
+ */
+@Slf4j
+@Service
+public class FoodImportService {
+    private static final long PROGRESS_LOG_INTERVAL = 100_000;
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String KEY_SEPARATOR = "::";
+    private final MongoTemplate mongoTemplate;
+    private final FoodMapper foodMapper;
+    private final FoodCodeGenerator foodCodeGenerator;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final FoodExistenceFilter foodExistenceFilter;
+    private final ImportProperties properties;
+    private final Counter insertedRows;
+    private final Counter updatedRows;
+    private final Counter rejectedRows;
+    private final Timer bulkTimer;
+
+    public FoodImportService(MongoTemplate mongoTemplate, FoodMapper foodMapper,
+                             FoodCodeGenerator foodCodeGenerator, Validator validator,
+                             ObjectMapper objectMapper, CacheManager cacheManager,
+                             RedisTemplate<String, Object> redisTemplate,
+                             FoodExistenceFilter foodExistenceFilter,
+                             ImportProperties properties, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.foodMapper = foodMapper;
+        this.foodCodeGenerator = foodCodeGenerator;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.foodExistenceFilter = foodExistenceFilter;
+        this.properties = properties;
+        this.insertedRows = rowCounter(meterRegistry, "inserted");
+        this.updatedRows = rowCounter(meterRegistry, "updated");
+        this.rejectedRows = rowCounter(meterRegistry, "rejected");
+        this.bulkTimer = Timer.builder("food.import.bulk")
+                .description("Time spent writing an import batch")
+                .register(meterRegistry);
+    }
+
+    public FoodImportReport importFile(String file, FoodImportFormat format, long skipLines) {
+        Path directory = properties.getDirectory();
+        if (directory == null) {
+            throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
+                    "File imports are not enabled");
+        }
+        Path root = directory.toAbsolutePath().normalize();
+        Path path = root.resolve(file).normalize();
+        if (!path.startsWith(root) || !Files.isRegularFile(path)) {
+            throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
+                    "Unknown import file: " + file);
+        }
+        FoodImportFormat resolved = format != null
+                ? format
+                : FoodImportFormat.detect(path.getFileName().toString());
+        try (InputStream input = Files.newInputStream(path)) {
+            return importFoods(input, resolved, skipLines);
+        } catch (IOException e) {
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "Failed to read import file " + file, e);
+        }
+    }
+
+    public FoodImportReport importFoods(InputStream input, FoodImportFormat format,
+                                        long skipLines) {
+        log.info("Starting food import format={} skipLines={}", format, skipLines);
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun(skipLines, properties.getMaxRejectSamples());
+        int slotCount = properties.getParallelism() + properties.getMaxPendingBatches();
+        Semaphore slots = new Semaphore(slotCount);
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism(),
+                Thread.ofVirtual().name("food-import-", 0).factory());
+        long lastLine = skipLines;
+        try (FoodImportReader reader = new FoodImportReader(input, format, objectMapper)) {
+            reader.skipTo(skipLines);
+            Map<String, ImportedFood> batch = new LinkedHashMap<>();
+            FoodImportRow row;
+            while ((row = reader.next()) != null) {
+                long read = run.read.incrementAndGet();
+                ImportedFood food = accept(row, run);
+                if (food != null && batch.put(food.food().getId(), food) != null) {
+                    run.duplicates.incrementAndGet();
+                }
+                if (batch.size() >= properties.getBatchSize()) {
+                    submit(executor, slots, run, batch, reader.line());
+                    batch = new LinkedHashMap<>();
+                }
+                if (read % PROGRESS_LOG_INTERVAL == 0) {
+                    log.info("Food import progress rows={} rowsPerSecond={} checkpoint={}",
+                            read, rate(read, start), run.checkpoint());
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(executor, slots, run, batch, reader.line());
+            }
+            lastLine = reader.line();
+            slots.acquire(slotCount);
+            slots.release(slotCount);
+        } catch (IOException e) {
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "Failed to read food import", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "Food import interrupted", e);
+        } finally {
+            executor.shutdown();
+        }
+        FoodImportReport report = run.report(lastLine, start);
+        log.info("Food import finished rows={} inserted={} updated={} duplicates={} "
+                        + "rejected={} failed={} rowsPerSecond={} checkpoint={}",
+                report.rowsRead(), report.inserted(), report.updated(), report.duplicates(),
+                report.rejected(), report.failed(), report.rowsPerSecond(),
+                report.checkpoint());
+        return report;
+    }
+
+    private ImportedFood accept(FoodImportRow row, ImportRun run) {
+        if (row.error() != null) {
+            reject(run, row.line(), null, row.error());
+            return null;
+        }
+        FoodRequestDto request = row.request();
+        Set<ConstraintViolation<FoodRequestDto>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            reject(run, row.line(), request.getCode(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+        if (!foodCodeGenerator.isValidCode(request.getCode())) {
+            reject(run, row.line(), request.getCode(), "Missing or unsupported barcode");
+            return null;
+        }
+        Food food = foodMapper.toModel(request);
+        food.setId(request.getCode());
+        return new ImportedFood(food, row.line());
+    }
+
+    private void submit(ExecutorService executor, Semaphore slots, ImportRun run,
+                        Map<String, ImportedFood> batch, long endLine)
+            throws InterruptedException {
+        List<ImportedFood> foods = List.copyOf(batch.values());
+        slots.acquire();
+        run.started(endLine);
+        executor.execute(() -> {
+            try {
+                write(foods, run);
+                run.finished(endLine);
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                run.failed.addAndGet(foods.size());
+                log.error("Food import batch ending at line={} failed", endLine, e);
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    private void write(List<ImportedFood> foods, ImportRun run) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            Timer.Sample sample = Timer.start();
+            try {
+                record(foods, bulkUpsert(foods), List.of(), run);
+                return;
+            } catch (BulkOperationException e) {
+                record(foods, e.getResult(), e.getErrors(), run);
+                return;
+            } catch (DataAccessException e) {
+                if (attempt >= properties.getMaxRetries()) {
+                    throw e;
+                }
+                log.warn("Food import batch failed, attempt={}: {}", attempt, e.getMessage());
+            } finally {
+                sample.stop(bulkTimer);
+            }
+            Thread.sleep(properties.getRetryBackoff().multipliedBy(attempt));
+        }
+    }
+
+    private BulkWriteResult bulkUpsert(List<ImportedFood> foods) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                Food.class);
+        MongoConverter converter = mongoTemplate.getConverter();
+        for (ImportedFood item : foods) {
+            Document document = new Document();
+            converter.write(item.food(), document);
+            document.remove("_id");
+            Update update = new Update();
+            document.forEach(update::set);
+            bulk.upsert(new Query(Criteria.where("_id").is(item.food().getId())
+                    .and("user_id").is(null)), update);
+        }
+        return bulk.execute();
+    }
+
+    private void record(List<ImportedFood> foods, BulkWriteResult result,
+                        List<BulkWriteError> errors, ImportRun run) {
+        Set<Integer> skipped = new HashSet<>();
+        for (BulkWriteError error : errors) {
+            ImportedFood item = foods.get(error.getIndex());
+            skipped.add(error.getIndex());
+            reject(run, item.line(), item.food().getId(), error.getCode() == DUPLICATE_KEY
+                    ? "Code belongs to a user's food"
+                    : error.getMessage());
+        }
+        List<String> created = new ArrayList<>();
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            created.add(foods.get(upsert.getIndex()).food().getId());
+            skipped.add(upsert.getIndex());
+        }
+        List<String> existing = new ArrayList<>();
+        for (int i = 0; i < foods.size(); i++) {
+            if (!skipped.contains(i)) {
+                existing.add(foods.get(i).food().getId());
+            }
+        }
+        run.inserted.addAndGet(created.size());
+        run.updated.addAndGet(existing.size());
+        insertedRows.increment(created.size());
+        updatedRows.increment(existing.size());
+        foodExistenceFilter.addAll(created);
+        evict(existing);
+    }
+
+    private void evict(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(ids.stream()
+                    .map(id -> CacheConstants.FOOD_DATA + KEY_SEPARATOR + id)
+                    .toList());
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict {} imported foods from cache: {}", ids.size(),
+                    e.getMessage());
+        }
+        Cache foods = cacheManager.getCache(CacheConstants.FOOD_DATA);
+        if (foods instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.evictAllLocal(ids);
+        }
+        try {
+            if (cacheManager.getCache(CacheConstants.SEARCH_RESULTS) instanceof TwoLevelCache
+                    searchResults) {
+                searchResults.evictFoods(ids);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict search results of {} imported foods: {}", ids.size(),
+                    e.getMessage());
+        }
+    }
+
+    private void reject(ImportRun run, long line, String code, String reason) {
+        rejectedRows.increment();
+        run.reject(new FoodImportReject(line, code, reason));
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("food.import.rows")
+                .description("Rows of food imports by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static double rate(long rows, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? Math.round(rows / seconds * 10) / 10.0 : 0;
+    }
+
+    private record ImportedFood(Food food, long line) {
+    }
+
+    private static final class ImportRun {
+        private final AtomicLong read = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<FoodImportReject> rejects = new ArrayList<>();
+        private final TreeMap<Long, Boolean> batches = new TreeMap<>();
+        private final int maxRejectSamples;
+        private long checkpoint;
+
+        private ImportRun(long skipLines, int maxRejectSamples) {
+            this.checkpoint = skipLines;
+            this.maxRejectSamples = maxRejectSamples;
+        }
+
+        private synchronized void reject(FoodImportReject reject) {
+            rejected.incrementAndGet();
+            if (rejects.size() < maxRejectSamples) {
+                rejects.add(reject);
+            }
+        }
+
+        private synchronized void started(long endLine) {
+            batches.put(endLine, false);
+        }
+
+        private synchronized void finished(long endLine) {
+            batches.put(endLine, true);
+            while (!batches.isEmpty() && batches.firstEntry().getValue()) {
+                checkpoint = batches.pollFirstEntry().getKey();
+            }
+        }
+
+        private synchronized long checkpoint() {
+            return checkpoint;
+        }
+
+        private synchronized FoodImportReport report(long lastLine, long startNanos) {
+            long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            return new FoodImportReport(read.get(), inserted.get(), updated.get(),
+                    duplicates.get(), rejected.get(), failed.get(),
+                    batches.isEmpty() ? lastLine : checkpoint, durationMillis,
+                    rate(read.get(), startNanos), List.copyOf(rejects));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dao.FoodSearchDao;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ElasticsearchFoodIndexWriter implements FoodIndexWriter {
+    private final ElasticsearchClient elasticsearchClient;
+    private final FoodReindexService reindexService;
+
+    @Override
+    public int write(List<FoodChange> changes) throws IOException {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        Map<String, FoodChange> latest = new LinkedHashMap<>();
+        for (FoodChange change : changes) {
+            latest.remove(change.id());
+            latest.put(change.id(), change);
+        }
+        Optional<String> reindexTarget = reindexService.activeTarget();
+        List<String> deletes = latest.values().stream()
+                .filter(FoodChange::isDelete)
+                .map(FoodChange::id)
+                .toList();
+        // Recorded before the write, so a reindex that finishes its scan in between still
+        // sees the delete when it replays them
+        if (reindexTarget.isPresent() && !deletes.isEmpty()) {
+            reindexService.recordDeletes(reindexTarget.get(), deletes);
+        }
+        BulkRequest.Builder request = new BulkRequest.Builder().index(FoodSearchDao.INDEX);
+        for (FoodChange change : latest.values()) {
+            addOperation(request, change, FoodSearchDao.INDEX);
+            reindexTarget.ifPresent(target -> addOperation(request, change, target));
+        }
+        BulkResponse response = elasticsearchClient.bulk(request.build());
+        if (!response.errors()) {
+            return 0;
+        }
+        int rejected = 0;
+        for (BulkResponseItem item : response.items()) {
+            if (item.error() == null) {
+                continue;
+            }
+            if (item.status() == 429 || item.status() >= 500) {
+                throw new IOException("Bulk indexing of food id=" + item.id()
+                        + " failed with status " + item.status());
+            }
+            log.warn("Elasticsearch rejected food id={} status={} reason={}",
+                    item.id(), item.status(), item.error().reason());
+            rejected++;
+        }
+        return rejected;
+    }
+
+    private void addOperation(BulkRequest.Builder request, FoodChange change, String index) {
+        if (change.isDelete()) {
+            request.operations(op -> op.delete(d -> d.index(index).id(change.id())));
+        } else {
+            request.operations(op -> op.index(i -> i
+                    .index(index)
+                    .id(change.id())
+                    .document(change.document())));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A single change of the foods collection. A {@code null} document means the food is gone
+ * and must be removed from the index.
+ */
+public record FoodChange(String id, Map<String, Object> document, String resumeToken,
+                         Instant clusterTime) {
+    public boolean isDelete() {
+        return document == null;
+    }
+
+    /**
+     * Returns the search index source of a stored food: the document without its {@code _id},
+     * which becomes the index document id.
+     */
+    public static Map<String, Object> indexSource(Map<String, Object> document) {
+        Map<String, Object> source = new LinkedHashMap<>(document);
+        source.remove("_id");
+        return source;
+    }
+}
@@ -0,0 +1,15 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+public interface FoodChangeSource {
+    Cursor open(String resumeToken);
+
+    interface Cursor extends AutoCloseable {
+        /**
+         * Returns the next change, or {@code null} if none arrived within the await time.
+         */
+        FoodChange tryNext();
+
+        @Override
+        void close();
+    }
+}
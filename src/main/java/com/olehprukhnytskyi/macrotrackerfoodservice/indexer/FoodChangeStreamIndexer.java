@@ -0,0 +1,321 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.IndexerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tails the foods change stream and applies it to the search index in bulk batches.
+ *
+ * <p>A tail thread reads changes into a bounded queue and a writer thread flushes them once
+ * the batch is full or the flush interval has passed since its first change. When the index
+ * falls behind the queue fills up and the tail thread stops reading, leaving the backlog in
+ * the oplog. The resume token is persisted only after a batch has been written, so a restart
+ * replays at most the unflushed changes; replays are harmless because writes are idempotent.
+ *
+ * <p>Every instance shares the checkpoint, so only the holder of a ShedLock lease tails the
+ * stream; the others wait to take the lease over. A new holder reloads the checkpoint, and a
+ * node that fails to renew its lease drops its unflushed changes instead of writing them over
+ * the new holder's. The lease must outlive a bulk write, which is not fenced once started.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.indexer", name = "enabled", havingValue = "true")
+public class FoodChangeStreamIndexer implements SmartLifecycle {
+    private static final String LEASE_PREFIX = "food-indexer-";
+    private final FoodChangeSource changeSource;
+    private final FoodIndexWriter indexWriter;
+    private final ResumeTokenStore resumeTokenStore;
+    private final IndexerProperties properties;
+    private final LockProvider lockProvider;
+    private final BlockingQueue<FoodChange> queue;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter indexed;
+    private final Counter deleted;
+    private final Counter rejected;
+    private final Counter failures;
+    private final Timer bulkTimer;
+    private final Timer backpressureTimer;
+    private volatile boolean running;
+    private volatile boolean leading;
+    private volatile boolean leaseLost;
+    private volatile String lastQueuedToken;
+    private Thread leaseThread;
+    private Thread tailThread;
+    private Thread writerThread;
+
+    public FoodChangeStreamIndexer(FoodChangeSource changeSource, FoodIndexWriter indexWriter,
+                                   ResumeTokenStore resumeTokenStore,
+                                   IndexerProperties properties, LockProvider lockProvider,
+                                   MeterRegistry meterRegistry) {
+        this.changeSource = changeSource;
+        this.indexWriter = indexWriter;
+        this.resumeTokenStore = resumeTokenStore;
+        this.properties = properties;
+        this.lockProvider = lockProvider;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.indexed = Counter.builder("indexer.changes")
+                .description("Food changes applied to the search index")
+                .tag("operation", "index")
+                .register(meterRegistry);
+        this.deleted = Counter.builder("indexer.changes")
+                .description("Food changes applied to the search index")
+                .tag("operation", "delete")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("indexer.rejected")
+                .description("Food documents permanently rejected by the search index")
+                .register(meterRegistry);
+        this.failures = Counter.builder("indexer.bulk.failures")
+                .description("Bulk requests that failed and were retried")
+                .register(meterRegistry);
+        this.bulkTimer = Timer.builder("indexer.bulk")
+                .description("Time spent writing a batch to the search index")
+                .register(meterRegistry);
+        this.backpressureTimer = Timer.builder("indexer.backpressure")
+                .description("Time the change stream tail waited for queue capacity")
+                .register(meterRegistry);
+        Gauge.builder("indexer.queue.size", queue, BlockingQueue::size)
+                .description("Changes read from the change stream but not yet indexed")
+                .register(meterRegistry);
+        TimeGauge.builder("indexer.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the last indexed change when its batch was flushed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        log.info("Starting food indexer");
+        running = true;
+        leaseThread = Thread.ofVirtual().name("food-indexer-lease").start(this::lead);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        leaseThread.interrupt();
+        try {
+            leaseThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Food indexer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void lead() {
+        while (running) {
+            Optional<SimpleLock> lease = acquireLease();
+            if (lease.isEmpty()) {
+                awaitLeaseRenewal();
+                continue;
+            }
+            SimpleLock held = lease.get();
+            startPipeline();
+            while (running) {
+                awaitLeaseRenewal();
+                if (!running) {
+                    break;
+                }
+                Optional<SimpleLock> renewed = renewLease(held);
+                if (renewed.isEmpty()) {
+                    held = null;
+                    break;
+                }
+                held = renewed.get();
+            }
+            stopPipeline(held == null);
+            if (held != null) {
+                held.unlock();
+            }
+        }
+    }
+
+    private Optional<SimpleLock> acquireLease() {
+        try {
+            return lockProvider.lock(new LockConfiguration(Instant.now(),
+                    LEASE_PREFIX + properties.getCheckpointId(),
+                    properties.getLeaseDuration(), Duration.ZERO));
+        } catch (RuntimeException e) {
+            log.warn("Failed to acquire food indexer lease: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<SimpleLock> renewLease(SimpleLock lease) {
+        try {
+            return lease.extend(properties.getLeaseDuration(), Duration.ZERO);
+        } catch (RuntimeException e) {
+            log.warn("Failed to renew food indexer lease: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void startPipeline() {
+        lastQueuedToken = resumeTokenStore.load(properties.getCheckpointId()).orElse(null);
+        log.info("Acquired food indexer lease, resuming={}", lastQueuedToken != null);
+        queue.clear();
+        leaseLost = false;
+        leading = true;
+        writerThread = Thread.ofVirtual().name("food-indexer-writer").start(this::drain);
+        tailThread = Thread.ofVirtual().name("food-indexer-tail").start(this::tail);
+    }
+
+    private void stopPipeline(boolean lost) {
+        if (lost) {
+            log.warn("Lost food indexer lease, dropping {} unflushed changes", queue.size());
+            leaseLost = true;
+        }
+        leading = false;
+        tailThread.interrupt();
+        joinUninterruptibly(tailThread);
+        if (lost) {
+            queue.clear();
+        }
+        joinUninterruptibly(writerThread);
+    }
+
+    private void awaitLeaseRenewal() {
+        try {
+            Thread.sleep(properties.getLeaseRenewInterval());
+        } catch (InterruptedException e) {
+            log.debug("Food indexer lease wait interrupted");
+        }
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        while (true) {
+            try {
+                thread.join();
+                return;
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while joining {}", thread.getName());
+            }
+        }
+    }
+
+    private void tail() {
+        while (leading) {
+            try (FoodChangeSource.Cursor cursor = changeSource.open(lastQueuedToken)) {
+                while (leading) {
+                    FoodChange change = cursor.tryNext();
+                    if (change != null) {
+                        enqueue(change);
+                        lastQueuedToken = change.resumeToken();
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (!leading) {
+                    return;
+                }
+                log.warn("Change stream failed, reopening: {}", e.getMessage());
+                if (!pause()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void enqueue(FoodChange change) throws InterruptedException {
+        if (queue.offer(change)) {
+            return;
+        }
+        long start = System.nanoTime();
+        queue.put(change);
+        backpressureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void drain() {
+        int batchSize = properties.getBatchSize();
+        long flushNanos = properties.getFlushInterval().toNanos();
+        List<FoodChange> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        while (leading || !queue.isEmpty()) {
+            long wait = batch.isEmpty() ? flushNanos : deadline - System.nanoTime();
+            FoodChange change;
+            try {
+                change = queue.poll(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (change != null) {
+                if (batch.isEmpty()) {
+                    deadline = System.nanoTime() + flushNanos;
+                }
+                batch.add(change);
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (batch.size() >= batchSize
+                    || (!batch.isEmpty() && System.nanoTime() >= deadline)) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<FoodChange> batch) {
+        while (true) {
+            if (leaseLost) {
+                return;
+            }
+            try {
+                int rejectedCount = bulkTimer.recordCallable(() -> indexWriter.write(batch));
+                rejected.increment(rejectedCount);
+                break;
+            } catch (Exception e) {
+                failures.increment();
+                log.warn("Failed to index {} food changes, retrying: {}",
+                        batch.size(), e.getMessage());
+                if (!leading || !pause()) {
+                    return;
+                }
+            }
+        }
+        FoodChange last = batch.getLast();
+        resumeTokenStore.save(properties.getCheckpointId(), last.resumeToken());
+        long deletes = batch.stream().filter(FoodChange::isDelete).count();
+        deleted.increment(deletes);
+        indexed.increment(batch.size() - deletes);
+        lagMillis.set(Math.max(0, Instant.now().toEpochMilli()
+                - last.clusterTime().toEpochMilli()));
+        log.debug("Indexed {} food changes", batch.size());
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getRetryBackoff());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
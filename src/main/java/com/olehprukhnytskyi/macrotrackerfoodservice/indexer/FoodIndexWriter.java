@@ -0,0 +1,12 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface FoodIndexWriter {
+    /**
+     * Applies the changes in order and returns the number of documents that were rejected
+     * permanently. Throws when the batch should be retried as a whole.
+     */
+    int write(List<FoodChange> changes) throws IOException;
+}
@@ -0,0 +1,499 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.IndexState;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import com.olehprukhnytskyi.exception.ConflictException;
+import com.olehprukhnytskyi.exception.InternalServerException;
+import com.olehprukhnytskyi.exception.error.CommonErrorCode;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dao.FoodSearchDao;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.ReindexCheckpoint;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.IndexerProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.ReindexProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo.ReindexCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rebuilds the search index into a fresh versioned index and swaps the alias read by
+ * {@link FoodSearchDao} once it is complete.
+ *
+ * <p>The foods collection is split into {@code _id} ranges with {@code $bucketAuto} and the
+ * ranges are copied by parallel workers, each streaming its range in {@code _id} order and
+ * writing {@code _bulk} batches. The last copied {@code _id} of every range is checkpointed
+ * after each batch, so an interrupted run resumes where it stopped. Documents are written
+ * with {@code create}, letting live changes mirrored by {@link ElasticsearchFoodIndexWriter}
+ * win over the possibly older copy read by the scan. A {@code create} cannot see a live delete
+ * that came first, so the writer records deleted ids on the checkpoint and they are deleted
+ * again once the scan is over, unless the food exists again by then.
+ *
+ * <p>Live changes only reach the new index through the change-stream indexer, so a reindex
+ * refuses to start while {@code app.indexer.enabled} is off.
+ */
+@Slf4j
+@Service
+public class FoodReindexService {
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter
+            .ofPattern("yyyyMMddHHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final String DEFAULT_REPLICAS = "1";
+    private static final String DEFAULT_REFRESH_INTERVAL = "1s";
+    private final ElasticsearchClient elasticsearchClient;
+    private final MongoTemplate mongoTemplate;
+    private final ReindexCheckpointRepository checkpointRepository;
+    private final ReindexProperties properties;
+    private final IndexerProperties indexerProperties;
+    private final AtomicLong indexedDocuments = new AtomicLong();
+    private final Counter documents;
+    private final Counter rejected;
+    private final Timer bulkTimer;
+    private volatile ReindexCheckpoint active;
+    private volatile long resumedFrom;
+    private volatile Instant runStartedAt;
+
+    public FoodReindexService(ElasticsearchClient elasticsearchClient,
+                              MongoTemplate mongoTemplate,
+                              ReindexCheckpointRepository checkpointRepository,
+                              ReindexProperties properties,
+                              IndexerProperties indexerProperties,
+                              MeterRegistry meterRegistry) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.mongoTemplate = mongoTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+        this.indexerProperties = indexerProperties;
+        this.documents = Counter.builder("reindex.documents")
+                .description("Food documents copied into the new search index")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("reindex.rejected")
+                .description("Food documents rejected by the new search index")
+                .register(meterRegistry);
+        this.bulkTimer = Timer.builder("reindex.bulk")
+                .description("Time spent writing a reindex batch")
+                .register(meterRegistry);
+        Gauge.builder("reindex.progress", this, FoodReindexService::progress)
+                .description("Share of the foods collection copied by the running reindex")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the index of the unfinished reindex, read from the checkpoint so that the indexer
+     * mirrors changes into it whichever node runs the copy, and while a failed run waits to be
+     * resumed.
+     */
+    public Optional<String> activeTarget() {
+        return unfinished().map(ReindexCheckpoint::getId);
+    }
+
+    public void recordDeletes(String target, Collection<String> ids) {
+        updateCheckpoint(target, new Update().addToSet("deleted_ids").each(ids.toArray()));
+    }
+
+    public synchronized ReindexStatus start() {
+        if (active != null) {
+            return status();
+        }
+        if (!indexerProperties.isEnabled()) {
+            throw new ConflictException(CommonErrorCode.CONFLICT,
+                    "Reindex requires app.indexer.enabled to mirror live changes");
+        }
+        ReindexCheckpoint checkpoint = unfinished().orElseGet(this::prepare);
+        setStatus(checkpoint.getId(), ReindexCheckpoint.Status.RUNNING);
+        long copied = checkpoint.getPartitions().stream()
+                .mapToLong(ReindexCheckpoint.Partition::getIndexed)
+                .sum();
+        log.info("Starting reindex into index={} partitions={} alreadyCopied={}",
+                checkpoint.getId(), checkpoint.getPartitions().size(), copied);
+        indexedDocuments.set(copied);
+        resumedFrom = copied;
+        runStartedAt = Instant.now();
+        active = checkpoint;
+        Thread.ofVirtual().name("food-reindex").start(() -> run(checkpoint));
+        return status();
+    }
+
+    public ReindexStatus status() {
+        ReindexCheckpoint running = active;
+        Optional<ReindexCheckpoint> latest = running != null
+                ? checkpointRepository.findById(running.getId())
+                : checkpointRepository.findFirstByOrderByStartedAtDesc();
+        if (latest.isEmpty()) {
+            return null;
+        }
+        ReindexCheckpoint checkpoint = latest.get();
+        long indexed = checkpoint.getPartitions().stream()
+                .mapToLong(ReindexCheckpoint.Partition::getIndexed)
+                .sum();
+        int completed = (int) checkpoint.getPartitions().stream()
+                .filter(ReindexCheckpoint.Partition::isDone)
+                .count();
+        double rate = 0;
+        if (running != null) {
+            rate = rate(indexed - resumedFrom, Duration.between(runStartedAt, Instant.now()));
+        } else if (checkpoint.getCompletedAt() != null) {
+            rate = rate(indexed, Duration.between(checkpoint.getStartedAt(),
+                    checkpoint.getCompletedAt()));
+        }
+        return new ReindexStatus(checkpoint.getId(), checkpoint.getStatus().name(),
+                checkpoint.getTotalDocuments(), indexed, checkpoint.getPartitions().size(),
+                completed, rate, checkpoint.getStartedAt(), checkpoint.getCompletedAt());
+    }
+
+    private void run(ReindexCheckpoint checkpoint) {
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism(),
+                Thread.ofVirtual().name("food-reindex-", 0).factory());
+        try {
+            List<Future<Void>> workers = new ArrayList<>();
+            List<ReindexCheckpoint.Partition> partitions = checkpoint.getPartitions();
+            for (int i = 0; i < partitions.size(); i++) {
+                if (partitions.get(i).isDone()) {
+                    continue;
+                }
+                int index = i;
+                workers.add(executor.submit(() -> {
+                    copyPartition(checkpoint.getId(), index, partitions.get(index));
+                    return null;
+                }));
+            }
+            for (Future<Void> worker : workers) {
+                worker.get();
+            }
+            replayDeletes(checkpoint.getId());
+            swapAlias(checkpoint);
+            updateCheckpoint(checkpoint.getId(), new Update()
+                    .set("status", ReindexCheckpoint.Status.COMPLETED.name())
+                    .set("completed_at", Instant.now()));
+            log.info("Reindex into index={} completed, copied={}", checkpoint.getId(),
+                    indexedDocuments.get());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Reindex into index={} failed", checkpoint.getId(), e);
+            setStatus(checkpoint.getId(), ReindexCheckpoint.Status.FAILED);
+        } finally {
+            executor.shutdownNow();
+            active = null;
+        }
+    }
+
+    private void copyPartition(String target, int index, ReindexCheckpoint.Partition partition)
+            throws IOException, InterruptedException {
+        Document range = new Document();
+        if (partition.getLastId() != null) {
+            range.append("$gt", partition.getLastId());
+        } else if (partition.getMinId() != null) {
+            range.append("$gte", partition.getMinId());
+        }
+        if (partition.getMaxId() != null) {
+            range.append("$lt", partition.getMaxId());
+        }
+        Query query = new BasicQuery(range.isEmpty() ? new Document() : new Document("_id", range))
+                .with(Sort.by("_id"))
+                .cursorBatchSize(properties.getBatchSize());
+        List<Document> batch = new ArrayList<>(properties.getBatchSize());
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class,
+                mongoTemplate.getCollectionName(Food.class))) {
+            Iterator<Document> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("Reindex worker interrupted");
+                }
+                batch.add(iterator.next());
+                if (batch.size() >= properties.getBatchSize()) {
+                    writeBatch(target, index, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(target, index, batch);
+        }
+        updateCheckpoint(target, new Update().set("partitions." + index + ".done", true));
+    }
+
+    private void writeBatch(String target, int index, List<Document> batch)
+            throws IOException, InterruptedException {
+        BulkRequest.Builder builder = new BulkRequest.Builder().index(target);
+        for (Document document : batch) {
+            String id = String.valueOf(document.get("_id"));
+            Map<String, Object> source = FoodChange.indexSource(document);
+            builder.operations(op -> op.create(c -> c.id(id).document(source)));
+        }
+        BulkRequest request = builder.build();
+        for (int attempt = 1; ; attempt++) {
+            Timer.Sample sample = Timer.start();
+            try {
+                BulkResponse response = elasticsearchClient.bulk(request);
+                if (!shouldRetry(response)) {
+                    break;
+                }
+                log.warn("Reindex batch into index={} was throttled, attempt={}", target,
+                        attempt);
+            } catch (IOException e) {
+                if (attempt >= properties.getMaxRetries()) {
+                    throw e;
+                }
+                log.warn("Reindex batch into index={} failed, attempt={}: {}", target, attempt,
+                        e.getMessage());
+            } finally {
+                sample.stop(bulkTimer);
+            }
+            if (attempt >= properties.getMaxRetries()) {
+                throw new IOException("Reindex batch into " + target + " kept being throttled");
+            }
+            Thread.sleep(properties.getRetryBackoff().multipliedBy(attempt));
+        }
+        String lastId = String.valueOf(batch.getLast().get("_id"));
+        updateCheckpoint(target, new Update()
+                .set("partitions." + index + ".last_id", lastId)
+                .inc("partitions." + index + ".indexed", batch.size()));
+        documents.increment(batch.size());
+        indexedDocuments.addAndGet(batch.size());
+    }
+
+    private void replayDeletes(String target) throws IOException {
+        List<String> deleted = checkpointRepository.findById(target)
+                .map(ReindexCheckpoint::getDeletedIds)
+                .orElse(List.of());
+        if (deleted == null || deleted.isEmpty()) {
+            return;
+        }
+        for (int from = 0; from < deleted.size(); from += properties.getBatchSize()) {
+            List<String> ids = deleted.subList(from,
+                    Math.min(from + properties.getBatchSize(), deleted.size()));
+            Query existing = Query.query(Criteria.where("_id").in(ids));
+            existing.fields().include("_id");
+            Set<String> alive = new HashSet<>();
+            mongoTemplate.find(existing, Document.class,
+                            mongoTemplate.getCollectionName(Food.class))
+                    .forEach(document -> alive.add(String.valueOf(document.get("_id"))));
+            BulkRequest.Builder builder = new BulkRequest.Builder().index(target);
+            int operations = 0;
+            for (String id : ids) {
+                if (!alive.contains(id)) {
+                    builder.operations(op -> op.delete(d -> d.id(id)));
+                    operations++;
+                }
+            }
+            if (operations > 0) {
+                BulkResponse response = elasticsearchClient.bulk(builder.build());
+                if (shouldRetry(response)) {
+                    throw new IOException("Replaying deletes into " + target + " failed");
+                }
+            }
+        }
+        log.info("Replayed {} live deletes into index={}", deleted.size(), target);
+    }
+
+    private boolean shouldRetry(BulkResponse response) {
+        if (!response.errors()) {
+            return false;
+        }
+        boolean retry = false;
+        for (BulkResponseItem item : response.items()) {
+            if (item.error() == null || item.status() == 409) {
+                continue;
+            }
+            if (item.status() == 429 || item.status() >= 500) {
+                retry = true;
+            } else {
+                rejected.increment();
+                log.warn("Reindex rejected food id={} status={} reason={}", item.id(),
+                        item.status(), item.error().reason());
+            }
+        }
+        return retry;
+    }
+
+    private ReindexCheckpoint prepare() {
+        String target = FoodSearchDao.INDEX + "_v" + VERSION_FORMAT.format(Instant.now());
+        try {
+            IndexState live = liveIndex();
+            IndexSettings liveSettings = live != null ? indexSettings(live) : null;
+            String replicas = liveSettings != null && liveSettings.numberOfReplicas() != null
+                    ? liveSettings.numberOfReplicas()
+                    : DEFAULT_REPLICAS;
+            createIndex(target, live);
+            elasticsearchClient.indices().putSettings(p -> p
+                    .index(target)
+                    .settings(s -> s
+                            .numberOfReplicas("0")
+                            .refreshInterval(t -> t.time("-1"))));
+            ReindexCheckpoint checkpoint = ReindexCheckpoint.builder()
+                    .id(target)
+                    .status(ReindexCheckpoint.Status.RUNNING)
+                    .totalDocuments(mongoTemplate.estimatedCount(Food.class))
+                    .numberOfReplicas(replicas)
+                    .refreshInterval(liveSettings != null ? refreshInterval(liveSettings)
+                            : DEFAULT_REFRESH_INTERVAL)
+                    .partitions(partition())
+                    .startedAt(Instant.now())
+                    .build();
+            return checkpointRepository.save(checkpoint);
+        } catch (IOException e) {
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "Failed to prepare reindex", e);
+        }
+    }
+
+    private List<ReindexCheckpoint.Partition> partition() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.bucketAuto("_id", properties.getPartitions()))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        List<Document> buckets = mongoTemplate.aggregate(aggregation,
+                mongoTemplate.getCollectionName(Food.class), Document.class).getMappedResults();
+        List<ReindexCheckpoint.Partition> partitions = new ArrayList<>();
+        for (int i = 0; i < buckets.size(); i++) {
+            Document bounds = buckets.get(i).get("_id", Document.class);
+            String min = i == 0 ? null : String.valueOf(bounds.get("min"));
+            String max = i == buckets.size() - 1 ? null : String.valueOf(bounds.get("max"));
+            partitions.add(new ReindexCheckpoint.Partition(min, max, null, 0, false));
+        }
+        if (partitions.isEmpty()) {
+            partitions.add(new ReindexCheckpoint.Partition(null, null, null, 0, false));
+        }
+        return partitions;
+    }
+
+    private IndexState liveIndex() throws IOException {
+        try {
+            return elasticsearchClient.indices().get(g -> g.index(FoodSearchDao.INDEX))
+                    .result().values().stream()
+                    .findFirst()
+                    .orElse(null);
+        } catch (ElasticsearchException e) {
+            if (e.status() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private void createIndex(String target, IndexState live) throws IOException {
+        Resource definition = properties.getIndexDefinition();
+        if (definition != null) {
+            try (InputStream body = definition.getInputStream()) {
+                elasticsearchClient.indices().create(c -> c.withJson(body).index(target));
+            }
+            return;
+        }
+        if (live == null) {
+            throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                    "No live index to copy and no index definition configured");
+        }
+        IndexSettings settings = indexSettings(live);
+        elasticsearchClient.indices().create(c -> {
+            c.index(target).mappings(live.mappings());
+            if (settings != null && settings.analysis() != null) {
+                c.settings(s -> s.analysis(settings.analysis()));
+            }
+            return c;
+        });
+    }
+
+    private void swapAlias(ReindexCheckpoint checkpoint) throws IOException {
+        String target = checkpoint.getId();
+        String alias = FoodSearchDao.INDEX;
+        elasticsearchClient.indices().putSettings(p -> p
+                .index(target)
+                .settings(s -> s
+                        .numberOfReplicas(checkpoint.getNumberOfReplicas())
+                        .refreshInterval(t -> t.time(checkpoint.getRefreshInterval()))));
+        elasticsearchClient.indices().refresh(r -> r.index(target));
+        List<Action> actions = new ArrayList<>();
+        actions.add(Action.of(a -> a.add(add -> add.index(target).alias(alias)
+                .isWriteIndex(true))));
+        if (elasticsearchClient.indices().existsAlias(e -> e.name(alias)).value()) {
+            for (String index : elasticsearchClient.indices().getAlias(g -> g.name(alias))
+                    .result().keySet()) {
+                if (!index.equals(target)) {
+                    actions.add(Action.of(a -> a.remove(r -> r.index(index).alias(alias))));
+                }
+            }
+        } else if (elasticsearchClient.indices().exists(e -> e.index(alias)).value()) {
+            actions.add(Action.of(a -> a.removeIndex(r -> r.index(alias))));
+        }
+        elasticsearchClient.indices().updateAliases(u -> u.actions(actions));
+        log.info("Alias {} now points to index={}", alias, target);
+    }
+
+    private Optional<ReindexCheckpoint> unfinished() {
+        return checkpointRepository.findFirstByStatusInOrderByStartedAtDesc(List.of(
+                ReindexCheckpoint.Status.RUNNING, ReindexCheckpoint.Status.FAILED));
+    }
+
+    private void setStatus(String id, ReindexCheckpoint.Status status) {
+        updateCheckpoint(id, new Update().set("status", status.name()));
+    }
+
+    private void updateCheckpoint(String id, Update update) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), update,
+                mongoTemplate.getCollectionName(ReindexCheckpoint.class));
+    }
+
+    private double progress() {
+        ReindexCheckpoint checkpoint = active;
+        if (checkpoint == null || checkpoint.getTotalDocuments() == 0) {
+            return 0;
+        }
+        return Math.min(1.0, (double) indexedDocuments.get() / checkpoint.getTotalDocuments());
+    }
+
+    private static IndexSettings indexSettings(IndexState state) {
+        if (state.settings() == null) {
+            return null;
+        }
+        return state.settings().index() != null ? state.settings().index() : state.settings();
+    }
+
+    private static String refreshInterval(IndexSettings settings) {
+        Time interval = settings.refreshInterval();
+        return interval != null && interval.isTime() ? interval.time() : DEFAULT_REFRESH_INTERVAL;
+    }
+
+    private static double rate(long documents, Duration elapsed) {
+        double seconds = elapsed.toMillis() / 1000.0;
+        return seconds > 0 ? documents / seconds : 0;
+    }
+}
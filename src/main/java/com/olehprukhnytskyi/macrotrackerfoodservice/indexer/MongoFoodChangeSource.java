@@ -0,0 +1,75 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.IndexerProperties;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class MongoFoodChangeSource implements FoodChangeSource {
+    private static final List<String> OPERATIONS = List.of(
+            OperationType.INSERT.getValue(),
+            OperationType.UPDATE.getValue(),
+            OperationType.REPLACE.getValue(),
+            OperationType.DELETE.getValue());
+    private final MongoTemplate mongoTemplate;
+    private final IndexerProperties indexerProperties;
+
+    @Override
+    public Cursor open(String resumeToken) {
+        ChangeStreamIterable<Document> stream = mongoTemplate
+                .getCollection(mongoTemplate.getCollectionName(Food.class))
+                .watch(List.of(Aggregates.match(Filters.in("operationType", OPERATIONS))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(indexerProperties.getMaxAwaitTime().toMillis(),
+                        TimeUnit.MILLISECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(BsonDocument.parse(resumeToken));
+        }
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor();
+        return new Cursor() {
+            @Override
+            public FoodChange tryNext() {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                return change != null ? toChange(change) : null;
+            }
+
+            @Override
+            public void close() {
+                cursor.close();
+            }
+        };
+    }
+
+    static FoodChange toChange(ChangeStreamDocument<Document> change) {
+        BsonValue key = change.getDocumentKey().get("_id");
+        String id = key.isObjectId()
+                ? key.asObjectId().getValue().toHexString()
+                : key.asString().getValue();
+        Map<String, Object> document = null;
+        if (change.getOperationType() != OperationType.DELETE
+                && change.getFullDocument() != null) {
+            document = FoodChange.indexSource(change.getFullDocument());
+        }
+        Instant clusterTime = change.getClusterTime() != null
+                ? Instant.ofEpochSecond(change.getClusterTime().getTime())
+                : Instant.now();
+        return new FoodChange(id, document, change.getResumeToken().toJson(), clusterTime);
+    }
+}
@@ -0,0 +1,29 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.IndexerCheckpoint;
+import com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo.IndexerCheckpointRepository;
+import java.time.Instant;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class MongoResumeTokenStore implements ResumeTokenStore {
+    private final IndexerCheckpointRepository checkpointRepository;
+
+    @Override
+    public Optional<String> load(String checkpointId) {
+        return checkpointRepository.findById(checkpointId)
+                .map(IndexerCheckpoint::getResumeToken);
+    }
+
+    @Override
+    public void save(String checkpointId, String resumeToken) {
+        checkpointRepository.save(IndexerCheckpoint.builder()
+                .id(checkpointId)
+                .resumeToken(resumeToken)
+                .updatedAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,24 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "reindex")
+@RequiredArgsConstructor
+public class ReindexEndpoint {
+    private final FoodReindexService reindexService;
+
+    @ReadOperation
+    public ReindexStatus status() {
+        return reindexService.status();
+    }
+
+    @WriteOperation
+    public ReindexStatus start() {
+        return reindexService.start();
+    }
+}
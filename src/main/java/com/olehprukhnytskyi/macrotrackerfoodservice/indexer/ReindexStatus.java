@@ -0,0 +1,9 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import java.time.Instant;
+
+public record ReindexStatus(String index, String status, long totalDocuments,
+                            long indexedDocuments, int partitions, int completedPartitions,
+                            double documentsPerSecond, Instant startedAt,
+                            Instant completedAt) {
+}
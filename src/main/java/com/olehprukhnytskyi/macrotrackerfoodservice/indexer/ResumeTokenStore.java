@@ -0,0 +1,9 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import java.util.Optional;
+
+public interface ResumeTokenStore {
+    Optional<String> load(String checkpointId);
+
+    void save(String checkpointId, String resumeToken);
+}
@@ -5,6 +5,7 @@ import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodPatchRequestDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodRequestDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchHit;
 import java.util.List;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
@@ -27,6 +28,10 @@ public interface FoodMapper {
 
     List<FoodResponseDto> toDto(List<Food> foods);
 
+    FoodResponseDto toDto(FoodSearchHit hit);
+
+    List<FoodResponseDto> fromSearchHits(List<FoodSearchHit> hits);
+
     @Mappings({
             @Mapping(target = "id", ignore = true),
             @Mapping(target = "keywords", ignore = true),
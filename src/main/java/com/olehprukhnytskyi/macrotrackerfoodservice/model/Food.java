@@ -45,7 +45,6 @@ public class Food {
 
     private Nutriments nutriments;
 
-    @Indexed
     @Field(name = "user_id")
     @JsonProperty("user_id")
     private Long userId;
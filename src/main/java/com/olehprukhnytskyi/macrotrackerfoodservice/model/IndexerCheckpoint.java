@@ -0,0 +1,26 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "indexer_checkpoints")
+public class IndexerCheckpoint {
+    @Id
+    private String id;
+
+    @Field(name = "resume_token")
+    private String resumeToken;
+
+    @Field(name = "updated_at")
+    private Instant updatedAt;
+}
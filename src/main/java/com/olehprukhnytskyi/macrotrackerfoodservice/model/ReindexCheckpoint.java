@@ -0,0 +1,71 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.model;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "reindex_checkpoints")
+public class ReindexCheckpoint {
+    @Id
+    private String id;
+
+    private Status status;
+
+    @Field(name = "total_documents")
+    private long totalDocuments;
+
+    @Field(name = "number_of_replicas")
+    private String numberOfReplicas;
+
+    @Field(name = "refresh_interval")
+    private String refreshInterval;
+
+    private List<Partition> partitions;
+
+    /**
+     * Foods deleted by the live indexer while the copy runs, deleted again from the new index
+     * before the alias swap in case the scan copied them after the live delete.
+     */
+    @Field(name = "deleted_ids")
+    private List<String> deletedIds;
+
+    @Field(name = "started_at")
+    private Instant startedAt;
+
+    @Field(name = "completed_at")
+    private Instant completedAt;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Partition {
+        @Field(name = "min_id")
+        private String minId;
+
+        @Field(name = "max_id")
+        private String maxId;
+
+        @Field(name = "last_id")
+        private String lastId;
+
+        private long indexed;
+
+        private boolean done;
+    }
+}
@@ -0,0 +1,61 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.popularity;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count-min sketch. Estimates never undercount; with width {@code w} and depth
+ * {@code d} they overcount by more than {@code 2N/w} with probability below {@code 2^-d},
+ * where {@code N} is the total number of additions.
+ */
+public final class CountMinSketch {
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        int size = Integer.highestOneBit(Math.max(width, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.counters = new AtomicLongArray(depth * size);
+    }
+
+    public long add(String item) {
+        int h1 = mix(item.hashCode());
+        int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long count = counters.incrementAndGet(slot(row, h1, h2));
+            estimate = Math.min(estimate, count);
+        }
+        return estimate;
+    }
+
+    public long estimate(String item) {
+        int h1 = mix(item.hashCode());
+        int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(slot(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    private int slot(int row, int h1, int h2) {
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
@@ -0,0 +1,9 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.popularity;
+
+public record HeavyHitter(String query, long requests, long misses, double hitRatio) {
+    public static HeavyHitter of(String query, long requests, long misses) {
+        long hits = Math.max(0, requests - misses);
+        return new HeavyHitter(query, requests, misses,
+                requests > 0 ? (double) hits / requests : 0);
+    }
+}
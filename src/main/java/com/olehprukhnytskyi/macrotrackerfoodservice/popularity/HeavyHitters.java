@@ -0,0 +1,77 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.popularity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the most frequent queries of a stream. Frequencies come from a count-min sketch and
+ * only queries whose estimate beats the smallest retained one are kept as candidates, so
+ * memory stays proportional to {@code k} regardless of how many distinct queries are seen.
+ * Cache misses are counted in a second sketch to derive per-query hit ratios.
+ */
+public final class HeavyHitters {
+    private final CountMinSketch requests;
+    private final CountMinSketch misses;
+    private final int capacity;
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+    private volatile long threshold;
+
+    public HeavyHitters(int capacity, int depth, int width) {
+        this.capacity = capacity;
+        this.requests = new CountMinSketch(depth, width);
+        this.misses = new CountMinSketch(depth, width);
+    }
+
+    public void record(String query) {
+        long estimate = requests.add(query);
+        if (estimate > threshold || candidates.size() < capacity) {
+            candidates.add(query);
+            if (candidates.size() > capacity * 2) {
+                prune();
+            }
+        }
+    }
+
+    public void recordMiss(String query) {
+        misses.add(query);
+    }
+
+    public List<HeavyHitter> top() {
+        return candidates.stream()
+                .map(query -> HeavyHitter.of(query, requests.estimate(query),
+                        misses.estimate(query)))
+                .sorted(Comparator.comparingLong(HeavyHitter::requests).reversed())
+                .limit(capacity)
+                .toList();
+    }
+
+    public void decay() {
+        requests.decay();
+        misses.decay();
+        threshold >>>= 1;
+    }
+
+    private synchronized void prune() {
+        if (candidates.size() <= capacity) {
+            return;
+        }
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(capacity + 1,
+                Map.Entry.comparingByValue());
+        for (String query : candidates) {
+            heap.offer(Map.entry(query, requests.estimate(query)));
+            if (heap.size() > capacity) {
+                heap.poll();
+            }
+        }
+        threshold = heap.isEmpty() ? 0 : heap.peek().getValue();
+        Set<String> retained = new HashSet<>(heap.size());
+        heap.forEach(entry -> retained.add(entry.getKey()));
+        candidates.retainAll(retained);
+    }
+}
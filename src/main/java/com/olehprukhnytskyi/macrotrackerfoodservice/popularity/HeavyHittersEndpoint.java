@@ -0,0 +1,35 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.popularity;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.PopularityProperties;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@Endpoint(id = "heavyhitters")
+@RequiredArgsConstructor
+public class HeavyHittersEndpoint {
+    private final QueryPopularityService popularityService;
+    private final PopularityProperties properties;
+
+    @ReadOperation
+    public Map<QueryKind, PopularityReport> heavyHitters() {
+        Map<QueryKind, PopularityReport> report = new EnumMap<>(QueryKind.class);
+        for (QueryKind kind : QueryKind.values()) {
+            Map<String, Double> shared;
+            try {
+                shared = popularityService.sharedTop(kind, properties.getTopK());
+            } catch (RuntimeException e) {
+                log.warn("Failed to read shared popular {} queries: {}", kind, e.getMessage());
+                shared = Map.of();
+            }
+            report.put(kind, new PopularityReport(popularityService.localTop(kind), shared));
+        }
+        return report;
+    }
+}
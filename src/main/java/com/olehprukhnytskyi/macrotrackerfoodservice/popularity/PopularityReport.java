@@ -0,0 +1,7 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.popularity;
+
+import java.util.List;
+import java.util.Map;
+
+public record PopularityReport(List<HeavyHitter> local, Map<String, Double> shared) {
+}
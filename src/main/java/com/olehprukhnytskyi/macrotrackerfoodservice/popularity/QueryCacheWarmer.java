@@ -0,0 +1,102 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.popularity;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.dao.FoodSearchDao;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.PopularityProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.NormalizedQuery;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.QueryNormalizer;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.SearchWindowService;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prefills the search caches with the fleet-wide most popular queries. On startup missing
+ * entries are loaded; afterwards the entries are recomputed and overwritten on an interval
+ * shorter than their TTL, so popular queries never expire into a miss. The entries are shared
+ * through Redis, so one node per interval refreshes them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryCacheWarmer {
+    private final QueryPopularityService popularityService;
+    private final SearchWindowService searchWindowService;
+    private final FoodSearchDao foodSearchDao;
+    private final PopularityProperties properties;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.getWarm().isEnabled()) {
+            warm(false);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.popularity.warm-interval:PT20M}",
+            fixedDelayString = "${app.popularity.warm-interval:PT20M}"
+    )
+    @SchedulerLock(
+            name = "refreshPopularQueries",
+            lockAtLeastFor = "${app.popularity.warm-lock:PT15M}",
+            lockAtMostFor = "${app.popularity.warm-lock:PT15M}"
+    )
+    public void refresh() {
+        if (properties.getWarm().isEnabled()) {
+            warm(true);
+        }
+    }
+
+    void warm(boolean refresh) {
+        long start = System.nanoTime();
+        int pageSize = properties.getWarm().getPageSize();
+        int searches = warm(QueryKind.SEARCH, query -> {
+            if (refresh) {
+                searchWindowService.refresh(query);
+            } else {
+                searchWindowService.search(query, 0, pageSize);
+            }
+        });
+        int suggestions = warm(QueryKind.SUGGESTIONS, query -> {
+            if (refresh) {
+                foodSearchDao.refreshSuggestions(query);
+            } else {
+                foodSearchDao.getSuggestions(query);
+            }
+        });
+        log.info("Warmed {} popular searches and {} suggestions in {} ms", searches,
+                suggestions, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int warm(QueryKind kind, Consumer<NormalizedQuery> loader) {
+        Set<String> queries;
+        try {
+            queries = popularityService.sharedTop(kind, properties.getWarm().getQueries())
+                    .keySet();
+        } catch (RuntimeException e) {
+            log.warn("Failed to read popular {} queries: {}", kind, e.getMessage());
+            return 0;
+        }
+        int warmed = 0;
+        for (String text : queries) {
+            NormalizedQuery query = QueryNormalizer.normalize(text);
+            if (query.isEmpty() || query.isBarcode()) {
+                continue;
+            }
+            try {
+                loader.accept(query);
+                warmed++;
+            } catch (RuntimeException e) {
+                log.debug("Failed to warm {} query='{}': {}", kind, text, e.getMessage());
+            }
+        }
+        return warmed;
+    }
+}
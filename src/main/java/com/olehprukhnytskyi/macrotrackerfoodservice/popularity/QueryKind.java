@@ -0,0 +1,6 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.popularity;
+
+public enum QueryKind {
+    SEARCH,
+    SUGGESTIONS
+}
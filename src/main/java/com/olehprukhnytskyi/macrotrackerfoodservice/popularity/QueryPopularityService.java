@@ -0,0 +1,163 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.popularity;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.PopularityProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.NormalizedQuery;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Counts search and suggestion queries per instance and periodically merges the local heavy
+ * hitters into a Redis sorted set per query kind, so every instance sees the fleet-wide
+ * ranking. Both the local sketches and the shared ranking are halved every decay interval
+ * to let the ranking follow changing traffic.
+ *
+ * <p>Only the growth since the last merge is pushed, so the merged count of every query is
+ * kept as its baseline, also after it drops out of the local top, and halved with the sketch.
+ * The shared ranking is halved by one node per interval under a ShedLock lock that is held
+ * for {@code app.popularity.shared-decay-lock}, which must stay below the decay interval.
+ */
+@Slf4j
+@Service
+public class QueryPopularityService {
+    private static final String KEY_PREFIX = "popularity:";
+    private final StringRedisTemplate redisTemplate;
+    private final PopularityProperties properties;
+    private final Map<QueryKind, HeavyHitters> trackers = new EnumMap<>(QueryKind.class);
+    private final Map<QueryKind, Map<String, Long>> synced = new EnumMap<>(QueryKind.class);
+
+    public QueryPopularityService(StringRedisTemplate redisTemplate,
+                                  PopularityProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        for (QueryKind kind : QueryKind.values()) {
+            trackers.put(kind, new HeavyHitters(properties.getTopK(),
+                    properties.getSketchDepth(), properties.getSketchWidth()));
+            synced.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    public void record(QueryKind kind, NormalizedQuery query) {
+        if (!query.isEmpty()) {
+            trackers.get(kind).record(query.getText());
+        }
+    }
+
+    public void recordMiss(QueryKind kind, NormalizedQuery query) {
+        if (!query.isEmpty()) {
+            trackers.get(kind).recordMiss(query.getText());
+        }
+    }
+
+    public List<HeavyHitter> localTop(QueryKind kind) {
+        return trackers.get(kind).top();
+    }
+
+    public Map<String, Double> sharedTop(QueryKind kind, int limit) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = redisTemplate.opsForZSet()
+                .reverseRangeWithScores(key(kind), 0, limit - 1L);
+        Map<String, Double> top = new LinkedHashMap<>();
+        if (tuples != null) {
+            tuples.forEach(tuple -> top.put(tuple.getValue(), tuple.getScore()));
+        }
+        return top;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.popularity.sync-interval:PT30S}",
+            fixedDelayString = "${app.popularity.sync-interval:PT30S}"
+    )
+    public void sync() {
+        for (QueryKind kind : QueryKind.values()) {
+            List<HeavyHitter> top = trackers.get(kind).top();
+            Map<String, Long> last = synced.get(kind);
+            Map<String, Long> deltas = new HashMap<>();
+            for (HeavyHitter hitter : top) {
+                long delta = hitter.requests() - last.getOrDefault(hitter.query(), 0L);
+                if (delta > 0) {
+                    deltas.put(hitter.query(), delta);
+                }
+            }
+            if (deltas.isEmpty()) {
+                continue;
+            }
+            String key = key(kind);
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection commands = (StringRedisConnection) connection;
+                    deltas.forEach((query, delta) -> commands.zIncrBy(key, delta, query));
+                    commands.zRemRange(key, 0, -(properties.getSharedSize() + 1L));
+                    return null;
+                });
+                deltas.forEach((query, delta) -> last.merge(query, delta, Long::sum));
+                log.debug("Merged {} popular {} queries into Redis", deltas.size(), kind);
+            } catch (RuntimeException e) {
+                log.warn("Failed to merge popular {} queries: {}", kind, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.popularity.decay-interval:PT1H}",
+            fixedDelayString = "${app.popularity.decay-interval:PT1H}"
+    )
+    public void decay() {
+        for (QueryKind kind : QueryKind.values()) {
+            trackers.get(kind).decay();
+            Map<String, Long> last = synced.get(kind);
+            last.replaceAll((query, count) -> count >>> 1);
+            last.values().removeIf(count -> count == 0);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.popularity.decay-interval:PT1H}",
+            fixedDelayString = "${app.popularity.decay-interval:PT1H}"
+    )
+    @SchedulerLock(
+            name = "decaySharedPopularity",
+            lockAtLeastFor = "${app.popularity.shared-decay-lock:PT50M}",
+            lockAtMostFor = "${app.popularity.shared-decay-lock:PT50M}"
+    )
+    public void decayShared() {
+        for (QueryKind kind : QueryKind.values()) {
+            try {
+                decayShared(kind);
+            } catch (RuntimeException e) {
+                log.warn("Failed to decay popular {} queries: {}", kind, e.getMessage());
+            }
+        }
+    }
+
+    private void decayShared(QueryKind kind) {
+        String key = key(kind);
+        Map<String, Double> scores = sharedTop(kind, properties.getSharedSize());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection commands = (StringRedisConnection) connection;
+            scores.forEach((query, score) -> commands.zAdd(key, Math.floor(score / 2), query));
+            commands.zRemRangeByScore(key, Double.NEGATIVE_INFINITY, 0);
+            return null;
+        });
+    }
+
+    private static String key(QueryKind kind) {
+        return KEY_PREFIX + name(kind);
+    }
+
+    private static String name(QueryKind kind) {
+        return kind.name().toLowerCase(Locale.ROOT);
+    }
+}
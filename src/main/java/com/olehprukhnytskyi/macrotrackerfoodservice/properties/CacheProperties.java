@@ -0,0 +1,98 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.properties;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+    @Valid
+    @NotNull
+    private Lease lease = new Lease();
+
+    @Valid
+    @NotNull
+    private Stale stale = new Stale();
+
+    @Valid
+    @NotNull
+    private Serialization serialization = new Serialization();
+
+    @Valid
+    @NotNull
+    private KeyIndex keyIndex = new KeyIndex();
+
+    @Valid
+    @NotNull
+    private Expiry expiry = new Expiry();
+
+    @Getter
+    @Setter
+    public static class Lease {
+        private boolean enabled;
+
+        @NotNull
+        private Duration ttl = Duration.ofSeconds(3);
+
+        @NotNull
+        private Duration pollInterval = Duration.ofMillis(25);
+    }
+
+    @Getter
+    @Setter
+    public static class Stale {
+        @NotNull
+        private Duration grace = Duration.ofHours(6);
+    }
+
+    @Getter
+    @Setter
+    public static class Serialization {
+        /**
+         * Format new entries are written in. Both formats are always read, so switching is a
+         * two-phase rollout: deploy every node with JSON, then flip to BINARY once no node
+         * that predates the binary reader is left, as such a node cannot read binary entries.
+         */
+        @NotNull
+        private Format format = Format.JSON;
+
+        @NotNull
+        private DataSize compressionThreshold = DataSize.ofKilobytes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class KeyIndex {
+        private boolean enabled = true;
+
+        @Min(1)
+        private int maxKeysPerFood = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Expiry {
+        @DecimalMin("0.0")
+        @DecimalMax("0.5")
+        private double jitter = 0.1;
+
+        @DecimalMin("0.0")
+        private double earlyRefreshBeta = 1.0;
+    }
+
+    public enum Format {
+        JSON,
+        BINARY
+    }
+}
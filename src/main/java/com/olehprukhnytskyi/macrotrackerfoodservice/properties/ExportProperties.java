@@ -0,0 +1,22 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.properties;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+    @Min(1)
+    private int cursorBatchSize = 1000;
+
+    /**
+     * Rows written between flushes of the response, so clients see steady progress.
+     */
+    @Min(1)
+    private int flushInterval = 1000;
+}
@@ -0,0 +1,35 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.properties;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.food-filter")
+public class FoodFilterProperties {
+    private boolean enabled = true;
+
+    @Min(1)
+    private long expectedInsertions = 1_000_000;
+
+    @DecimalMin("0.0001")
+    @DecimalMax("0.5")
+    private double falsePositiveRate = 0.01;
+
+    @NotNull
+    private Duration rebuildInterval = Duration.ofHours(6);
+
+    @NotNull
+    private Duration negativeTtl = Duration.ofMinutes(1);
+
+    @Min(1)
+    private long negativeMaxSize = 100_000;
+}
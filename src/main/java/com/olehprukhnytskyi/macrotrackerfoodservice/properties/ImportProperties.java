@@ -0,0 +1,39 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+    @Min(1)
+    private int batchSize = 1000;
+
+    @Min(1)
+    private int parallelism = 4;
+
+    @Min(0)
+    private int maxPendingBatches = 8;
+
+    @Min(1)
+    private int maxRetries = 3;
+
+    @NotNull
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    @Min(0)
+    private int maxRejectSamples = 100;
+
+    /**
+     * Directory server side dumps may be imported from. File imports are disabled when unset.
+     */
+    private Path directory;
+}
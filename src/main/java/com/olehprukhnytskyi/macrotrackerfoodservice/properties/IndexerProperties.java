@@ -0,0 +1,42 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.indexer")
+public class IndexerProperties {
+    private boolean enabled;
+
+    @NotBlank
+    private String checkpointId = "foods";
+
+    @Min(1)
+    private int batchSize = 500;
+
+    @NotNull
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    @Min(1)
+    private int queueCapacity = 10_000;
+
+    @NotNull
+    private Duration maxAwaitTime = Duration.ofSeconds(1);
+
+    @NotNull
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    @NotNull
+    private Duration leaseDuration = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration leaseRenewInterval = Duration.ofSeconds(10);
+}
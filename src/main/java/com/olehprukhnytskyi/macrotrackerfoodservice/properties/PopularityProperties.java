@@ -0,0 +1,45 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.popularity")
+public class PopularityProperties {
+    @Min(1)
+    private int sketchDepth = 4;
+
+    @Min(16)
+    private int sketchWidth = 4096;
+
+    @Min(1)
+    private int topK = 100;
+
+    @Min(1)
+    private int sharedSize = 1000;
+
+    @NotNull
+    private Duration decayInterval = Duration.ofHours(1);
+
+    @NotNull
+    private Warm warm = new Warm();
+
+    @Getter
+    @Setter
+    public static class Warm {
+        private boolean enabled = true;
+
+        @Min(1)
+        private int queries = 50;
+
+        @Min(1)
+        private int pageSize = 25;
+    }
+}
@@ -0,0 +1,37 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.reindex")
+public class ReindexProperties {
+    @Min(1)
+    private int partitions = 16;
+
+    @Min(1)
+    private int parallelism = 4;
+
+    @Min(1)
+    private int batchSize = 1000;
+
+    @Min(1)
+    private int maxRetries = 5;
+
+    @NotNull
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Optional create-index body with the mappings and settings of the new index. When absent
+     * the mappings and analysis settings of the live index are copied.
+     */
+    private Resource indexDefinition;
+}
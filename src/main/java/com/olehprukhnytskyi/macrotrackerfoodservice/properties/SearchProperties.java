@@ -0,0 +1,92 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.properties;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+    @Min(1)
+    private int windowSize = 200;
+
+    @Min(1)
+    private int maxWindowSize = 1000;
+
+    /**
+     * Results up to this position are ranked exact tier first, then fuzzy. Deeper pages use one
+     * combined query with from and size, so they cost a single page of hits.
+     */
+    @Min(1)
+    private int tieredWindow = 200;
+
+    /**
+     * Must not exceed the index {@code max_result_window}. Deeper offsets are rejected; the
+     * cursor endpoint pages past it.
+     */
+    @Min(1)
+    private int maxResultWindow = 10_000;
+
+    @Valid
+    @NotNull
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Valid
+    @NotNull
+    private Hedge hedge = new Hedge();
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        @Min(1)
+        private int windowSize = 50;
+
+        @Min(1)
+        private int minimumCalls = 20;
+
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double failureRateThreshold = 0.5;
+
+        @NotNull
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+
+        @NotNull
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        @Min(1)
+        private int halfOpenCalls = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class Hedge {
+        private boolean enabled = false;
+
+        @DecimalMin("0.5")
+        @DecimalMax("0.999")
+        private double percentile = 0.95;
+
+        @NotNull
+        private Duration minDelay = Duration.ofMillis(20);
+
+        @NotNull
+        private Duration maxDelay = Duration.ofSeconds(1);
+
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double budget = 0.05;
+
+        @Min(64)
+        private int window = 1000;
+    }
+}
@@ -1,14 +1,25 @@
 package com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo;
 
 import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface FoodRepository extends MongoRepository<Food, String> {
     void deleteByIdAndUserId(String id, Long userId);
 
-    Page<Food> findAllByUserId(Long userId, Pageable pageable);
+    long countByUserId(Long userId);
+
+    @Query(value = "{ 'user_id': ?0 }", fields = "{ '_keywords': 0 }", sort = "{ '_id': 1 }")
+    Slice<Food> findSliceByUserId(Long userId, Pageable pageable);
+
+    @Query(
+            value = "{ 'user_id': ?0, '_id': { '$gt': ?1 } }",
+            fields = "{ '_keywords': 0 }",
+            sort = "{ '_id': 1 }"
+    )
+    Slice<Food> findSliceByUserIdAfter(Long userId, String afterId, Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.IndexerCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IndexerCheckpointRepository extends MongoRepository<IndexerCheckpoint, String> {
+}
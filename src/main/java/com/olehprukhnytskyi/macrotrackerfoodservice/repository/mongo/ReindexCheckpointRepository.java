@@ -0,0 +1,15 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.ReindexCheckpoint;
+import java.util.Collection;
+import java.util.Optional;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReindexCheckpointRepository extends MongoRepository<ReindexCheckpoint, String> {
+    Optional<ReindexCheckpoint> findFirstByStatusInOrderByStartedAtDesc(
+            Collection<ReindexCheckpoint.Status> statuses);
+
+    Optional<ReindexCheckpoint> findFirstByOrderByStartedAtDesc();
+}
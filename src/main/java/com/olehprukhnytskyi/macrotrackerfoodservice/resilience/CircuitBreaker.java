@@ -0,0 +1,160 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count-based circuit breaker. Outcomes of the last {@code windowSize} calls are kept in a
+ * ring; calls that fail or run longer than {@code slowCallDuration} count as failures. Once
+ * the failure rate reaches the threshold the breaker opens and rejects calls immediately for
+ * {@code openDuration}, then lets {@code halfOpenCalls} trial calls through to decide whether
+ * to close again.
+ */
+@Slf4j
+public class CircuitBreaker {
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final Predicate<Throwable> recordFailure;
+    private final LongSupplier nanoTime;
+    private final boolean[] outcomes;
+    private final Counter successes;
+    private final Counter failures;
+    private final Counter rejections;
+    private int position;
+    private int recorded;
+    private int failed;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(String name, Settings settings, Predicate<Throwable> recordFailure,
+                          MeterRegistry meterRegistry) {
+        this(name, settings, recordFailure, meterRegistry, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, Settings settings, Predicate<Throwable> recordFailure,
+                   MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.name = name;
+        this.windowSize = settings.windowSize();
+        this.minimumCalls = Math.min(settings.minimumCalls(), settings.windowSize());
+        this.failureRateThreshold = settings.failureRateThreshold();
+        this.slowCallNanos = settings.slowCallDuration().toNanos();
+        this.openNanos = settings.openDuration().toNanos();
+        this.halfOpenCalls = settings.halfOpenCalls();
+        this.recordFailure = recordFailure;
+        this.nanoTime = nanoTime;
+        this.outcomes = new boolean[windowSize];
+        this.successes = outcome(meterRegistry, "success");
+        this.failures = outcome(meterRegistry, "failure");
+        this.rejections = outcome(meterRegistry, "rejected");
+        Gauge.builder("circuit.breaker.state", this, breaker -> breaker.getState().ordinal())
+                .description("0 closed, 1 open, 2 half open")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Callable<T> call) throws Exception {
+        acquirePermission();
+        long start = nanoTime.getAsLong();
+        try {
+            T result = call.call();
+            onResult(nanoTime.getAsLong() - start > slowCallNanos);
+            return result;
+        } catch (Exception e) {
+            onResult(recordFailure.test(e));
+            throw e;
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoTime.getAsLong() - openedAt < openNanos) {
+                rejections.increment();
+                throw new CircuitBreakerOpenException(name);
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                rejections.increment();
+                throw new CircuitBreakerOpenException(name);
+            }
+            trialsStarted++;
+        }
+    }
+
+    private synchronized void onResult(boolean failure) {
+        (failure ? failures : successes).increment();
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                transition(State.OPEN);
+            } else if (++trialsSucceeded >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        if (recorded == windowSize && outcomes[position]) {
+            failed--;
+        }
+        outcomes[position] = failure;
+        if (failure) {
+            failed++;
+        }
+        position = (position + 1) % windowSize;
+        recorded = Math.min(recorded + 1, windowSize);
+        if (recorded >= minimumCalls && (double) failed / recorded >= failureRateThreshold) {
+            transition(State.OPEN);
+        }
+    }
+
+    private void transition(State next) {
+        log.warn("Circuit breaker '{}' changed from {} to {}", name, state, next);
+        state = next;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (next == State.OPEN) {
+            openedAt = nanoTime.getAsLong();
+        } else if (next == State.CLOSED) {
+            position = 0;
+            recorded = 0;
+            failed = 0;
+        }
+    }
+
+    private Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("circuit.breaker.calls")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public record Settings(int windowSize, int minimumCalls, double failureRateThreshold,
+                           Duration slowCallDuration, Duration openDuration, int halfOpenCalls) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.resilience;
+
+public class CircuitBreakerOpenException extends RuntimeException {
+    public CircuitBreakerOpenException(String name) {
+        super("Circuit breaker '" + name + "' is open");
+    }
+}
@@ -0,0 +1,181 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Sends a duplicate request when the first one has not answered within a delay taken from a
+ * percentile of recent latencies, and returns whichever answers first. The loser is cancelled.
+ * Hedges draw from a token budget refilled by a fixed fraction of every request, so they never
+ * exceed that fraction of traffic even when the backend is slow as a whole.
+ */
+public class RequestHedger {
+    private static final String HEDGE_ROUTING_PREFIX = "hedge-";
+    private static final int RECOMPUTE_EVERY = 64;
+    private static final double MAX_TOKENS = 10;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final double budget;
+    private final long[] latencies;
+    private final AtomicLong routing = new AtomicLong();
+    private final Counter requests;
+    private final Counter hedges;
+    private final Counter wins;
+    private final Counter budgetExhausted;
+    private int position;
+    private int recorded;
+    private long samples;
+    private double tokens = MAX_TOKENS;
+    private volatile long delayNanos;
+
+    public RequestHedger(Settings settings, MeterRegistry meterRegistry) {
+        this.percentile = settings.percentile();
+        this.minDelayNanos = settings.minDelay().toNanos();
+        this.maxDelayNanos = settings.maxDelay().toNanos();
+        this.budget = settings.budget();
+        this.latencies = new long[settings.window()];
+        this.delayNanos = maxDelayNanos;
+        this.requests = Counter.builder("search.hedge.requests")
+                .description("Requests eligible for hedging")
+                .register(meterRegistry);
+        this.hedges = Counter.builder("search.hedge.sent")
+                .description("Duplicate requests sent after the hedge delay")
+                .register(meterRegistry);
+        this.wins = Counter.builder("search.hedge.wins")
+                .description("Hedged requests that answered before the original")
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("search.hedge.budget.exhausted")
+                .description("Slow requests not hedged because the budget was spent")
+                .register(meterRegistry);
+        Gauge.builder("search.hedge.delay", this,
+                        hedger -> hedger.getDelay().toNanos() / 1_000_000.0)
+                .description("Current hedge delay in milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the request and hedges it if needed. The function receives {@code null} for the
+     * original request and a distinct routing key for the hedge, to be sent as the search
+     * preference so the duplicate is likely served by other shard copies.
+     */
+    public <T> T execute(Function<String, CompletableFuture<T>> request) throws Exception {
+        requests.increment();
+        refill();
+        long start = System.nanoTime();
+        CompletableFuture<T> primary = request.apply(null);
+        try {
+            T result = primary.get(delayNanos, TimeUnit.NANOSECONDS);
+            record(System.nanoTime() - start);
+            return result;
+        } catch (TimeoutException e) {
+            if (!tryAcquire()) {
+                budgetExhausted.increment();
+                T result = await(primary);
+                record(System.nanoTime() - start);
+                return result;
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+        hedges.increment();
+        CompletableFuture<T> hedge;
+        try {
+            hedge = request.apply(HEDGE_ROUTING_PREFIX + routing.incrementAndGet());
+        } catch (RuntimeException e) {
+            return await(primary);
+        }
+        CompletableFuture<T> first = firstSuccessful(primary, hedge);
+        try {
+            T result = await(first);
+            record(System.nanoTime() - start);
+            return result;
+        } finally {
+            primary.cancel(true);
+            hedge.cancel(true);
+        }
+    }
+
+    public Duration getDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private synchronized void record(long latencyNanos) {
+        latencies[position] = latencyNanos;
+        position = (position + 1) % latencies.length;
+        recorded = Math.min(recorded + 1, latencies.length);
+        if (++samples % RECOMPUTE_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(latencies, recorded);
+            Arrays.sort(sorted);
+            int rank = Math.max(0, (int) Math.ceil(percentile * recorded) - 1);
+            long value = sorted[Math.min(recorded - 1, rank)];
+            delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+        }
+    }
+
+    private synchronized void refill() {
+        tokens = Math.min(MAX_TOKENS, tokens + budget);
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    private <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> primary,
+                                                     CompletableFuture<T> hedge) {
+        CompletableFuture<T> first = new CompletableFuture<>();
+        primary.whenComplete((result, error) -> {
+            if (error == null) {
+                first.complete(result);
+            } else if (hedge.isCompletedExceptionally()) {
+                first.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((result, error) -> {
+            if (error == null) {
+                if (first.complete(result)) {
+                    wins.increment();
+                }
+            } else if (primary.isCompletedExceptionally()) {
+                first.completeExceptionally(error);
+            }
+        });
+        return first;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception exception) {
+            return exception;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return e;
+    }
+
+    public record Settings(double percentile, Duration minDelay, Duration maxDelay,
+                           double budget, int window) {
+    }
+}
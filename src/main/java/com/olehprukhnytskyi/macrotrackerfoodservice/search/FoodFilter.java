@@ -0,0 +1,134 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import com.olehprukhnytskyi.exception.BadRequestException;
+import com.olehprukhnytskyi.exception.error.CommonErrorCode;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodSearchFilterDto;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Structured restrictions on search results: nutriment ranges per 100g, brand and image
+ * presence. Values are canonicalized on construction, so equivalent filters produce the same
+ * {@link #cacheKey()}.
+ */
+public final class FoodFilter {
+    public static final FoodFilter NONE = new FoodFilter(Map.of(), null, null);
+
+    private final Map<Nutrient, Range> ranges;
+    private final String brand;
+    private final Boolean hasImage;
+
+    private FoodFilter(Map<Nutrient, Range> ranges, String brand, Boolean hasImage) {
+        this.ranges = ranges;
+        this.brand = brand;
+        this.hasImage = hasImage;
+    }
+
+    public Map<Nutrient, Range> getRanges() {
+        return ranges;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public Boolean getHasImage() {
+        return hasImage;
+    }
+
+    public boolean isEmpty() {
+        return ranges.isEmpty() && brand == null && hasImage == null;
+    }
+
+    public String cacheKey() {
+        StringJoiner key = new StringJoiner(";");
+        ranges.forEach((nutrient, range) -> key.add(nutrient.name().toLowerCase(Locale.ROOT)
+                + ':' + range));
+        if (brand != null) {
+            key.add("brand:" + brand);
+        }
+        if (hasImage != null) {
+            key.add("image:" + hasImage);
+        }
+        return key.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof FoodFilter other && cacheKey().equals(other.cacheKey());
+    }
+
+    @Override
+    public int hashCode() {
+        return cacheKey().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return cacheKey();
+    }
+
+    public static FoodFilter from(FoodSearchFilterDto dto) {
+        if (dto == null) {
+            return NONE;
+        }
+        Map<Nutrient, Range> ranges = new EnumMap<>(Nutrient.class);
+        putRange(ranges, Nutrient.CALORIES, dto.getMinCalories(), dto.getMaxCalories());
+        putRange(ranges, Nutrient.PROTEIN, dto.getMinProtein(), dto.getMaxProtein());
+        putRange(ranges, Nutrient.FAT, dto.getMinFat(), dto.getMaxFat());
+        putRange(ranges, Nutrient.CARBOHYDRATES, dto.getMinCarbohydrates(),
+                dto.getMaxCarbohydrates());
+        String brand = dto.getBrand() != null
+                ? dto.getBrand().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT)
+                : "";
+        FoodFilter filter = new FoodFilter(Collections.unmodifiableMap(ranges),
+                brand.isEmpty() ? null : brand, dto.getHasImage());
+        return filter.isEmpty() ? NONE : filter;
+    }
+
+    private static void putRange(Map<Nutrient, Range> ranges, Nutrient nutrient,
+                                 BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return;
+        }
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
+                    "Minimum " + nutrient.name().toLowerCase(Locale.ROOT)
+                            + " must not exceed maximum");
+        }
+        ranges.put(nutrient, new Range(canonical(min), canonical(max)));
+    }
+
+    private static BigDecimal canonical(BigDecimal value) {
+        return value != null ? new BigDecimal(value.stripTrailingZeros().toPlainString()) : null;
+    }
+
+    public enum Nutrient {
+        CALORIES("nutriments.energy-kcal"),
+        PROTEIN("nutriments.proteins"),
+        FAT("nutriments.fat"),
+        CARBOHYDRATES("nutriments.carbohydrates");
+
+        private final String field;
+
+        Nutrient(String field) {
+            this.field = field;
+        }
+
+        public String getField() {
+            return field;
+        }
+    }
+
+    public record Range(BigDecimal min, BigDecimal max) {
+        @Override
+        public String toString() {
+            return (min != null ? min.toPlainString() : "") + ".."
+                    + (max != null ? max.toPlainString() : "");
+        }
+    }
+}
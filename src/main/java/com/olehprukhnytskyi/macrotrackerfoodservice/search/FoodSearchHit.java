@@ -0,0 +1,25 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Nutriments;
+import lombok.Builder;
+
+@Builder(toBuilder = true)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record FoodSearchHit(
+        @JsonProperty("_id") String id,
+        String code,
+        @JsonProperty("product_name") String productName,
+        @JsonProperty("generic_name") String genericName,
+        @JsonProperty("image_url") String imageUrl,
+        String brands,
+        Nutriments nutriments,
+        @JsonProperty("user_id") Long userId) {
+    public static final String[] SOURCE_FIELDS = {"code", "product_name", "generic_name",
+            "image_url", "brands", "nutriments", "user_id"};
+
+    public FoodSearchHit withId(String hitId) {
+        return hitId == null || hitId.equals(id) ? this : toBuilder().id(hitId).build();
+    }
+}
@@ -0,0 +1,6 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import java.util.List;
+
+public record FoodSearchPage(List<FoodSearchHit> hits, SearchCursor next) {
+}
@@ -0,0 +1,85 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * GS1 trade item number normalized to GTIN-13 (or GTIN-14 / raw form for longer codes).
+ * Stored codes may use any legacy padding, see {@link #lookupKeys()}.
+ */
+public record Gtin(String canonical) {
+    private static final int[] STORED_LENGTHS = {8, 12, 24};
+
+    public static Optional<Gtin> parse(String raw) {
+        if (raw == null) {
+            return Optional.empty();
+        }
+        String code = raw.strip();
+        if (!isSupportedLength(code.length()) || !isDigits(code) || !hasValidCheckDigit(code)) {
+            return Optional.empty();
+        }
+        String significant = stripLeadingZeros(code);
+        if (significant.length() <= 13) {
+            return Optional.of(new Gtin(pad(significant, 13)));
+        }
+        if (significant.length() <= 14) {
+            return Optional.of(new Gtin(pad(significant, 14)));
+        }
+        return Optional.of(new Gtin(code));
+    }
+
+    public static boolean isGtin(String raw) {
+        return parse(raw).isPresent();
+    }
+
+    public static boolean hasValidCheckDigit(String digits) {
+        int sum = 0;
+        int weight = 3;
+        for (int i = digits.length() - 2; i >= 0; i--) {
+            sum += (digits.charAt(i) - '0') * weight;
+            weight = 4 - weight;
+        }
+        int expected = (10 - sum % 10) % 10;
+        return digits.charAt(digits.length() - 1) - '0' == expected;
+    }
+
+    public List<String> lookupKeys() {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(canonical);
+        String significant = stripLeadingZeros(canonical);
+        for (int length : STORED_LENGTHS) {
+            if (significant.length() <= length) {
+                keys.add(pad(significant, length));
+            }
+        }
+        return List.copyOf(keys);
+    }
+
+    private static boolean isSupportedLength(int length) {
+        return length == 8 || length == 12 || length == 13 || length == 14 || length == 24;
+    }
+
+    private static boolean isDigits(String code) {
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String stripLeadingZeros(String code) {
+        int start = 0;
+        while (start < code.length() - 1 && code.charAt(start) == '0') {
+            start++;
+        }
+        return code.substring(start);
+    }
+
+    private static String pad(String code, int length) {
+        return code.length() >= length ? code : "0".repeat(length - code.length()) + code;
+    }
+}
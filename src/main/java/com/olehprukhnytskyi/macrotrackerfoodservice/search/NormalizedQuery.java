@@ -0,0 +1,99 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.StringJoiner;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Canonical form of a user query produced by {@link QueryNormalizer}: lowercased letter and
+ * number runs joined by single spaces. Equality and cache keys are based on {@link #getText()}.
+ */
+public final class NormalizedQuery {
+    static final NormalizedQuery EMPTY = new NormalizedQuery("", List.of(), List.of(), List.of(),
+            List.of());
+
+    private final String text;
+    private final List<String> tokens;
+    private final List<String> terms;
+    private final List<Gtin> barcodes;
+    private final List<String> codes;
+    private String hash;
+
+    NormalizedQuery(String text, List<String> tokens, List<String> terms, List<Gtin> barcodes,
+                    List<String> codes) {
+        this.text = text;
+        this.tokens = tokens;
+        this.terms = terms;
+        this.barcodes = barcodes;
+        this.codes = codes;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public List<String> getTerms() {
+        return terms;
+    }
+
+    public List<Gtin> getBarcodes() {
+        return barcodes;
+    }
+
+    /**
+     * Digit-only terms of barcode length that fail the GTIN check, such as generated in-store
+     * codes. They are searched as text and matched exactly on the stored code.
+     */
+    public List<String> getCodes() {
+        return codes;
+    }
+
+    public boolean isEmpty() {
+        return tokens.isEmpty();
+    }
+
+    public boolean isBarcode() {
+        return tokens.size() == 1 && barcodes.size() == 1;
+    }
+
+    public String getHash() {
+        String current = hash;
+        if (current == null) {
+            current = DigestUtils.md5DigestAsHex(text.getBytes(StandardCharsets.UTF_8));
+            hash = current;
+        }
+        return current;
+    }
+
+    public String cacheKey(Object... qualifiers) {
+        if (qualifiers.length == 0) {
+            return getHash();
+        }
+        StringJoiner key = new StringJoiner("-");
+        key.add(text);
+        for (Object qualifier : qualifiers) {
+            key.add(String.valueOf(qualifier));
+        }
+        return DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof NormalizedQuery other && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,88 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass query normalizer shared by search, suggestions and cache keys. Letters and
+ * numbers are lowercased, every other character separates tokens.
+ */
+public final class QueryNormalizer {
+    private static final int MIN_BARCODE_LENGTH = 8;
+    private static final int MAX_BARCODE_LENGTH = 24;
+
+    private QueryNormalizer() {
+    }
+
+    public static NormalizedQuery normalize(String query) {
+        if (query == null || query.isEmpty()) {
+            return NormalizedQuery.EMPTY;
+        }
+        int length = query.length();
+        StringBuilder text = new StringBuilder(length);
+        List<String> tokens = new ArrayList<>(4);
+        List<String> terms = new ArrayList<>(4);
+        List<Gtin> barcodes = null;
+        List<String> codes = null;
+        int tokenStart = 0;
+        boolean digitsOnly = true;
+        int i = 0;
+        while (i <= length) {
+            int codePoint = i < length ? query.codePointAt(i) : ' ';
+            i += i < length ? Character.charCount(codePoint) : 1;
+            if (isLetterOrNumber(codePoint)) {
+                text.appendCodePoint(Character.toLowerCase(codePoint));
+                digitsOnly &= codePoint >= '0' && codePoint <= '9';
+                continue;
+            }
+            if (text.length() == tokenStart) {
+                continue;
+            }
+            String token = text.substring(tokenStart);
+            tokens.add(token);
+            Gtin gtin = digitsOnly ? parseBarcode(token) : null;
+            if (gtin != null) {
+                barcodes = barcodes == null ? new ArrayList<>(1) : barcodes;
+                barcodes.add(gtin);
+            } else {
+                terms.add(token);
+                if (digitsOnly && isBarcodeLength(token)) {
+                    codes = codes == null ? new ArrayList<>(1) : codes;
+                    codes.add(token);
+                }
+            }
+            text.append(' ');
+            tokenStart = text.length();
+            digitsOnly = true;
+        }
+        if (tokens.isEmpty()) {
+            return NormalizedQuery.EMPTY;
+        }
+        text.setLength(text.length() - 1);
+        return new NormalizedQuery(text.toString(), tokens, terms,
+                barcodes == null ? List.of() : barcodes, codes == null ? List.of() : codes);
+    }
+
+    private static boolean isLetterOrNumber(int codePoint) {
+        if (codePoint < 0x80) {
+            return (codePoint >= 'a' && codePoint <= 'z')
+                    || (codePoint >= 'A' && codePoint <= 'Z')
+                    || (codePoint >= '0' && codePoint <= '9');
+        }
+        return switch (Character.getType(codePoint)) {
+            case Character.UPPERCASE_LETTER, Character.LOWERCASE_LETTER,
+                 Character.TITLECASE_LETTER, Character.MODIFIER_LETTER,
+                 Character.OTHER_LETTER, Character.DECIMAL_DIGIT_NUMBER,
+                 Character.LETTER_NUMBER, Character.OTHER_NUMBER -> true;
+            default -> false;
+        };
+    }
+
+    private static Gtin parseBarcode(String token) {
+        return isBarcodeLength(token) ? Gtin.parse(token).orElse(null) : null;
+    }
+
+    private static boolean isBarcodeLength(String token) {
+        return token.length() >= MIN_BARCODE_LENGTH && token.length() <= MAX_BARCODE_LENGTH;
+    }
+}
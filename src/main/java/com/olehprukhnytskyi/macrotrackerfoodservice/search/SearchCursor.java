@@ -0,0 +1,30 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last returned hit in a point-in-time search, sorted by score then code.
+ * Encoded as an opaque URL-safe token for clients.
+ */
+public record SearchCursor(String pitId, double score, String code) {
+    private static final char SEPARATOR = '\n';
+
+    public String encode() {
+        String raw = pitId + SEPARATOR + score + SEPARATOR + code;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int first = raw.indexOf(SEPARATOR);
+        int second = raw.indexOf(SEPARATOR, first + 1);
+        if (first <= 0 || second < 0 || second == raw.length() - 1) {
+            throw new IllegalArgumentException("Malformed search cursor");
+        }
+        return new SearchCursor(raw.substring(0, first),
+                Double.parseDouble(raw.substring(first + 1, second)),
+                raw.substring(second + 1));
+    }
+}
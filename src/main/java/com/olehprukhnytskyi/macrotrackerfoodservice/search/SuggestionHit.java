@@ -0,0 +1,9 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SuggestionHit(@JsonProperty("product_name") String productName) {
+    public static final String[] SOURCE_FIELDS = {"product_name"};
+}
@@ -0,0 +1,405 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix trie over product names, indexed by full name and by the suffixes starting at its
+ * first words. Only large subtrees keep a precomputed top list; small ones are ranked on read.
+ */
+public class SuggestionIndex {
+    private static final int TOP_K = 32;
+    private static final int MATERIALIZE_THRESHOLD = 64;
+    private static final int MAX_INDEXED_WORDS = 4;
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt((Entry entry) -> entry.weight).reversed()
+            .thenComparingInt(entry -> entry.display.length())
+            .thenComparing(entry -> entry.display);
+
+    private final Node root = new Node(new char[0]);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean loading;
+    private int entryCount;
+
+    public static SuggestionIndex loading() {
+        SuggestionIndex index = new SuggestionIndex();
+        index.loading = true;
+        return index;
+    }
+
+    public void add(String productName) {
+        String normalized = normalize(productName);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        String display = productName.trim();
+        lock.writeLock().lock();
+        try {
+            for (String key : keysOf(normalized)) {
+                insert(key, display);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productName) {
+        String normalized = normalize(productName);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        String display = productName.trim();
+        lock.writeLock().lock();
+        try {
+            for (String key : keysOf(normalized)) {
+                delete(key, display);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishLoading() {
+        lock.writeLock().lock();
+        try {
+            loading = false;
+            recomputeSubtree(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = findPrefixNode(normalized);
+            if (node == null) {
+                return List.of();
+            }
+            Entry[] ranked = node.top != null ? node.top : rank(node);
+            Set<String> result = new LinkedHashSet<>();
+            for (Entry entry : ranked) {
+                result.add(entry.display);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+            return List.copyOf(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entryCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && !builder.isEmpty()) {
+                    builder.append(' ');
+                }
+                pendingSpace = false;
+                builder.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static List<String> keysOf(String normalized) {
+        List<String> keys = new ArrayList<>(MAX_INDEXED_WORDS);
+        keys.add(normalized);
+        int from = 0;
+        while (keys.size() < MAX_INDEXED_WORDS) {
+            int space = normalized.indexOf(' ', from);
+            if (space < 0) {
+                break;
+            }
+            keys.add(normalized.substring(space + 1));
+            from = space + 1;
+        }
+        return keys;
+    }
+
+    private void insert(String key, String display) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            int index = childIndex(node, key.charAt(position));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(position).toCharArray());
+                node.insertChild(-index - 1, leaf);
+                node = leaf;
+                path.add(leaf);
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length) {
+                child = split(node, index, common);
+            }
+            node = child;
+            position += common;
+            path.add(node);
+        }
+        Entry entry = node.find(display);
+        if (entry != null) {
+            entry.weight++;
+        } else {
+            node.addEntry(new Entry(display));
+            entryCount++;
+            for (Node onPath : path) {
+                onPath.size++;
+            }
+        }
+        recomputePath(path);
+    }
+
+    private void delete(String key, String display) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            int index = childIndex(node, key.charAt(position));
+            if (index < 0) {
+                return;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length) {
+                return;
+            }
+            node = child;
+            position += common;
+            path.add(node);
+        }
+        Entry entry = node.find(display);
+        if (entry == null) {
+            return;
+        }
+        if (--entry.weight <= 0) {
+            node.removeEntry(entry);
+            entryCount--;
+            for (Node onPath : path) {
+                onPath.size--;
+            }
+            prune(path);
+        }
+        recomputePath(path);
+    }
+
+    private Node findPrefixNode(String prefix) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            int index = childIndex(node, prefix.charAt(position));
+            if (index < 0) {
+                return null;
+            }
+            Node child = node.children[index];
+            int length = Math.min(child.label.length, prefix.length() - position);
+            for (int i = 0; i < length; i++) {
+                if (child.label[i] != prefix.charAt(position + i)) {
+                    return null;
+                }
+            }
+            node = child;
+            position += length;
+        }
+        return node;
+    }
+
+    private Node split(Node parent, int index, int at) {
+        Node child = parent.children[index];
+        Node middle = new Node(Arrays.copyOfRange(child.label, 0, at));
+        child.label = Arrays.copyOfRange(child.label, at, child.label.length);
+        middle.children = new Node[]{child};
+        middle.size = child.size;
+        parent.children[index] = middle;
+        return middle;
+    }
+
+    private void prune(List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (node.entries != null || node.children.length > 0) {
+                return;
+            }
+            Node parent = path.get(i - 1);
+            parent.removeChild(node);
+            path.remove(i);
+        }
+    }
+
+    private void recomputePath(List<Node> path) {
+        if (loading) {
+            return;
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            node.top = node.size > MATERIALIZE_THRESHOLD ? rank(node) : null;
+        }
+    }
+
+    private void recomputeSubtree(Node node) {
+        for (Node child : node.children) {
+            recomputeSubtree(child);
+        }
+        node.top = node.size > MATERIALIZE_THRESHOLD ? rank(node) : null;
+    }
+
+    private Entry[] rank(Node node) {
+        List<Entry> candidates = new ArrayList<>();
+        collectCandidates(node, candidates, true);
+        candidates.sort(RANKING);
+        int size = Math.min(TOP_K, candidates.size());
+        return candidates.subList(0, size).toArray(new Entry[0]);
+    }
+
+    private void collectCandidates(Node node, List<Entry> candidates, boolean start) {
+        if (!start && node.top != null) {
+            candidates.addAll(Arrays.asList(node.top));
+            return;
+        }
+        if (node.entries != null) {
+            candidates.addAll(Arrays.asList(node.entries));
+        }
+        for (Node child : node.children) {
+            collectCandidates(child, candidates, false);
+        }
+    }
+
+    private static int childIndex(Node node, char c) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = node.children[mid].label[0];
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int commonPrefix(char[] label, String key, int offset) {
+        int length = Math.min(label.length, key.length() - offset);
+        int i = 0;
+        while (i < length && label[i] == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Entry {
+        private final String display;
+        private int weight = 1;
+
+        private Entry(String display) {
+            this.display = display;
+        }
+    }
+
+    private static final class Node {
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] entries;
+        private Entry[] top;
+        private int size;
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+
+        private Entry find(String display) {
+            if (entries == null) {
+                return null;
+            }
+            for (Entry entry : entries) {
+                if (entry.display.equals(display)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        private void addEntry(Entry entry) {
+            if (entries == null) {
+                entries = new Entry[]{entry};
+                return;
+            }
+            entries = Arrays.copyOf(entries, entries.length + 1);
+            entries[entries.length - 1] = entry;
+        }
+
+        private void removeEntry(Entry entry) {
+            if (entries.length == 1) {
+                entries = null;
+                return;
+            }
+            Entry[] remaining = new Entry[entries.length - 1];
+            int i = 0;
+            for (Entry existing : entries) {
+                if (existing != entry) {
+                    remaining[i++] = existing;
+                }
+            }
+            entries = remaining;
+        }
+
+        private void insertChild(int index, Node child) {
+            Node[] updated = new Node[children.length + 1];
+            System.arraycopy(children, 0, updated, 0, index);
+            updated[index] = child;
+            System.arraycopy(children, index, updated, index + 1, children.length - index);
+            children = updated;
+        }
+
+        private void removeChild(Node child) {
+            if (children.length == 1) {
+                children = NO_CHILDREN;
+                return;
+            }
+            Node[] remaining = new Node[children.length - 1];
+            int i = 0;
+            for (Node existing : children) {
+                if (existing != child) {
+                    remaining[i++] = existing;
+                }
+            }
+            children = remaining;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import java.util.List;
+
+public record TypeaheadHits(List<String> suggestions, List<FoodSearchHit> hits) {
+}
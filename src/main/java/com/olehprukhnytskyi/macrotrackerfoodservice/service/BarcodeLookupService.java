@@ -0,0 +1,125 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.TwoLevelCache;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo.FoodRepository;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.Gtin;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves a barcode through every stored form it may have. The cache is read like a batch
+ * lookup: the local tier for all forms, then one {@code MGET} for the rest, so a miss costs a
+ * single Redis round trip before the existence filter and the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BarcodeLookupService {
+    private static final String KEY_SEPARATOR = "::";
+    private final CacheManager cacheManager;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final FoodRepository foodRepository;
+    private final FoodMapper foodMapper;
+    private final FoodExistenceFilter foodExistenceFilter;
+
+    public Optional<FoodResponseDto> find(Gtin gtin) {
+        return find(gtin.lookupKeys());
+    }
+
+    /**
+     * Resolves a stored code that is not a valid GTIN, such as a generated in-store code or a
+     * legacy code with a wrong check digit. Only the exact id is looked up.
+     */
+    public Optional<FoodResponseDto> findCode(String code) {
+        return find(List.of(code));
+    }
+
+    private Optional<FoodResponseDto> find(List<String> keys) {
+        Cache cache = cacheManager.getCache(CacheConstants.FOOD_DATA);
+        Optional<FoodResponseDto> cached = cache instanceof TwoLevelCache twoLevelCache
+                ? findCached(keys, twoLevelCache)
+                : findCached(keys, cache);
+        if (cached.isPresent()) {
+            log.trace("Barcode resolved from cache id={}", cached.get().getId());
+            return cached;
+        }
+        List<String> candidates = keys.stream()
+                .filter(foodExistenceFilter::mightExist)
+                .toList();
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, Food> found = foodRepository.findAllById(candidates).stream()
+                .collect(Collectors.toMap(Food::getId, Function.identity(), (a, b) -> a));
+        candidates.stream()
+                .filter(key -> !found.containsKey(key))
+                .forEach(foodExistenceFilter::recordMissing);
+        return candidates.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(food -> {
+                    FoodResponseDto dto = foodMapper.toDto(food);
+                    if (cache != null) {
+                        cache.put(food.getId(), dto);
+                    }
+                    return dto;
+                });
+    }
+
+    private Optional<FoodResponseDto> findCached(List<String> keys, TwoLevelCache cache) {
+        Map<Object, Object> local = cache.getAllLocal(keys);
+        for (String key : keys) {
+            if (local.get(key) instanceof FoodResponseDto dto) {
+                return Optional.of(dto);
+            }
+        }
+        List<Object> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(keys.stream()
+                    .map(BarcodeLookupService::redisKey)
+                    .toList());
+        } catch (RuntimeException e) {
+            log.warn("Failed to read barcode forms from cache: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (values == null) {
+            return Optional.empty();
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            if (values.get(i) instanceof FoodResponseDto dto) {
+                cache.putLocal(keys.get(i), dto);
+                return Optional.of(dto);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<FoodResponseDto> findCached(List<String> keys, Cache cache) {
+        if (cache == null) {
+            return Optional.empty();
+        }
+        return keys.stream()
+                .map(key -> cache.get(key, FoodResponseDto.class))
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    private static String redisKey(String id) {
+        return CacheConstants.FOOD_DATA + KEY_SEPARATOR + id;
+    }
+}
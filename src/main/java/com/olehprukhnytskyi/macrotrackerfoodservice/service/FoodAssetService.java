@@ -17,9 +17,13 @@ public class FoodAssetService {
     private final S3StorageService s3StorageService;
     private final ImageService imageService;
 
-    public void processAndUploadImage(Food food, MultipartFile image) {
+    /**
+     * Uploads the resized image and sets the food's image url. Returns the uploaded key, or
+     * {@code null} when there is no image.
+     */
+    public String processAndUploadImage(Food food, MultipartFile image) {
         if (image == null) {
-            return;
+            return null;
         }
         log.debug("Processing image for food id={}", food.getId());
         try {
@@ -32,10 +36,25 @@ public class FoodAssetService {
                     resizedStream.available(), imageKey, image.getContentType());
             food.setImageUrl(imageUrl);
             log.trace("Image uploaded successfully key={}", imageKey);
+            return imageKey;
         } catch (Exception e) {
             log.error("Error processing image for food id={}", food.getId(), e);
             throw new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
                     "Error processing image", e);
         }
     }
+
+    /**
+     * Deletes an image uploaded for a food that was not stored.
+     */
+    public void discardImage(String imageKey) {
+        if (imageKey == null) {
+            return;
+        }
+        try {
+            s3StorageService.deleteFile(imageKey);
+        } catch (Exception e) {
+            log.warn("Failed to discard unused image key={}", imageKey, e);
+        }
+    }
 }
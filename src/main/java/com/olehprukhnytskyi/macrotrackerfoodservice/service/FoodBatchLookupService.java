@@ -0,0 +1,178 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.JitteredTtl;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.TwoLevelCache;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.CacheProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo.FoodRepository;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves a batch of foods through the same cache as single lookups: the local tier first,
+ * then one {@code MGET} for the rest, then one {@code $in} query for what Redis does not have.
+ * Loaded foods are written back in a single pipeline.
+ */
+@Slf4j
+@Service
+public class FoodBatchLookupService {
+    private static final String KEY_SEPARATOR = "::";
+    private final CacheManager cacheManager;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final FoodRepository foodRepository;
+    private final FoodMapper foodMapper;
+    private final CacheProperties cacheProperties;
+    private final DistributionSummary cacheHits;
+    private final DistributionSummary cacheMisses;
+
+    public FoodBatchLookupService(CacheManager cacheManager,
+                                  RedisTemplate<String, Object> redisTemplate,
+                                  FoodRepository foodRepository, FoodMapper foodMapper,
+                                  MeterRegistry meterRegistry, CacheProperties cacheProperties) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.foodRepository = foodRepository;
+        this.foodMapper = foodMapper;
+        this.cacheProperties = cacheProperties;
+        this.cacheHits = DistributionSummary.builder("food.batch.cache.hits")
+                .description("Foods of one batch lookup served from cache")
+                .register(meterRegistry);
+        this.cacheMisses = DistributionSummary.builder("food.batch.cache.misses")
+                .description("Foods of one batch lookup loaded from the database")
+                .register(meterRegistry);
+    }
+
+    public List<FoodResponseDto> findAll(List<String> ids) {
+        List<String> requested = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (requested.isEmpty()) {
+            return List.of();
+        }
+        Cache cache = cacheManager.getCache(CacheConstants.FOOD_DATA);
+        TwoLevelCache twoLevelCache = cache instanceof TwoLevelCache tlc ? tlc : null;
+        Map<String, FoodResponseDto> found = new HashMap<>();
+        if (twoLevelCache != null) {
+            twoLevelCache.getAllLocal(requested).forEach((key, value) -> {
+                if (value instanceof FoodResponseDto dto) {
+                    found.put(key.toString(), dto);
+                }
+            });
+        }
+        int localHits = found.size();
+        List<String> remaining = missing(requested, found);
+        if (!remaining.isEmpty()) {
+            fetchRemote(remaining, found, twoLevelCache);
+        }
+        int remoteHits = found.size() - localHits;
+        List<String> misses = missing(requested, found);
+        if (!misses.isEmpty()) {
+            Map<String, FoodResponseDto> loaded = new LinkedHashMap<>();
+            for (Food food : foodRepository.findAllById(misses)) {
+                loaded.put(food.getId(), foodMapper.toDto(food));
+            }
+            found.putAll(loaded);
+            writeBack(loaded, twoLevelCache);
+        }
+        cacheHits.record(localHits + remoteHits);
+        cacheMisses.record(misses.size());
+        log.debug("Batch lookup of {} foods: local={} remote={} database={}",
+                requested.size(), localHits, remoteHits, misses.size());
+        return requested.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void fetchRemote(List<String> ids, Map<String, FoodResponseDto> found,
+                             TwoLevelCache twoLevelCache) {
+        List<Object> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(ids.stream()
+                    .map(FoodBatchLookupService::redisKey)
+                    .toList());
+        } catch (RuntimeException e) {
+            log.warn("Failed to read {} foods from cache: {}", ids.size(), e.getMessage());
+            return;
+        }
+        if (values == null) {
+            return;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (values.get(i) instanceof FoodResponseDto dto) {
+                found.put(ids.get(i), dto);
+                if (twoLevelCache != null) {
+                    twoLevelCache.putLocal(ids.get(i), dto);
+                }
+            }
+        }
+    }
+
+    private void writeBack(Map<String, FoodResponseDto> loaded, TwoLevelCache twoLevelCache) {
+        if (loaded.isEmpty()) {
+            return;
+        }
+        JitteredTtl ttl = new JitteredTtl(CacheConstants.FOOD_DATA_TTL,
+                cacheProperties.getExpiry().getJitter(), Duration.ZERO);
+        List<String> ids = List.copyOf(loaded.keySet());
+        List<Object> written;
+        try {
+            written = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> commands =
+                            (RedisOperations<String, Object>) operations;
+                    // NX keeps an entry written by an update since the database read
+                    ids.forEach(id -> commands.opsForValue().setIfAbsent(redisKey(id),
+                            loaded.get(id), ttl.getTimeToLive(id, loaded.get(id))));
+                    return null;
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to cache {} foods: {}", loaded.size(), e.getMessage());
+            return;
+        }
+        if (twoLevelCache == null || written == null) {
+            return;
+        }
+        // a lost NX means Redis holds a newer entry, so the database copy must not shadow it
+        for (int i = 0; i < ids.size() && i < written.size(); i++) {
+            if (Boolean.TRUE.equals(written.get(i))) {
+                twoLevelCache.putLocal(ids.get(i), loaded.get(ids.get(i)));
+            }
+        }
+    }
+
+    private static List<String> missing(List<String> ids, Map<String, FoodResponseDto> found) {
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    private static String redisKey(String id) {
+        return CacheConstants.FOOD_DATA + KEY_SEPARATOR + id;
+    }
+}
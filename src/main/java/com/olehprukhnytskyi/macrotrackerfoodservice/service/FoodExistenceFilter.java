@@ -0,0 +1,247 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.ScalableBloomFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodCreatedEvent;
+import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodDeletedEvent;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.FoodFilterProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Answers "can this food id exist" without a database round trip. A Bloom filter over every
+ * stored id is built once the node subscribes to the filter channels and rebuilt periodically,
+ * because ids of deleted foods can not be removed from it. Ids created or deleted on any node
+ * are broadcast so every filter sees them. Pub/sub drops messages while a subscriber is
+ * disconnected, so every (re)subscription rebuilds the filter from the database; until the
+ * first one the filter passes every id. Recently deleted ids, and ids the filter let through
+ * but the database did not have, are kept in a short lived negative cache. The observed false positive rate is
+ * {@code food.filter.false.positives} over {@code food.filter.checks{result=passed}}.
+ */
+@Slf4j
+@Service
+public class FoodExistenceFilter {
+    private static final int STREAM_BATCH_SIZE = 5000;
+    private static final String ID_SEPARATOR = "\n";
+    private final MongoTemplate mongoTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final FoodFilterProperties properties;
+    private final Cache<String, Boolean> recentlyMissing;
+    private final Counter rejected;
+    private final Counter passed;
+    private final Counter negativeHits;
+    private final Counter falsePositives;
+    private volatile ScalableBloomFilter filter;
+    private volatile ScalableBloomFilter pending;
+
+    public FoodExistenceFilter(MongoTemplate mongoTemplate, StringRedisTemplate redisTemplate,
+                               FoodFilterProperties properties, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.recentlyMissing = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getNegativeTtl())
+                .maximumSize(properties.getNegativeMaxSize())
+                .build();
+        this.rejected = Counter.builder("food.filter.checks")
+                .description("Food lookups checked against the existence filter")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        this.passed = Counter.builder("food.filter.checks")
+                .description("Food lookups checked against the existence filter")
+                .tag("result", "passed")
+                .register(meterRegistry);
+        this.negativeHits = Counter.builder("food.filter.negative.hits")
+                .description("Food lookups rejected by the recently missing cache")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("food.filter.false.positives")
+                .description("Food lookups passed by the filter but missing in the database")
+                .register(meterRegistry);
+        Gauge.builder("food.filter.expected.false.positive.rate", this,
+                        service -> service.filter != null
+                                ? service.filter.expectedFalsePositiveRate()
+                                : Double.NaN)
+                .description("False positive rate estimated from the filter fill")
+                .register(meterRegistry);
+        Gauge.builder("food.filter.size", this,
+                        service -> service.filter != null ? service.filter.size() : 0)
+                .description("Food ids in the existence filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Called whenever the filter channels are (re)subscribed. Ids broadcast while the node was
+     * not subscribed are lost, so the filter is rebuilt from the database.
+     */
+    @Async
+    public void onSubscribed() {
+        rebuild();
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.food-filter.rebuild-interval:PT6H}",
+            fixedDelayString = "${app.food-filter.rebuild-interval:PT6H}"
+    )
+    public synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long expected = Math.max(properties.getExpectedInsertions(),
+                mongoTemplate.estimatedCount("foods"));
+        ScalableBloomFilter building = new ScalableBloomFilter(expected,
+                properties.getFalsePositiveRate());
+        pending = building;
+        try {
+            Query query = new Query().cursorBatchSize(STREAM_BATCH_SIZE);
+            query.fields().include("_id");
+            try (Stream<Document> ids = mongoTemplate.stream(query, Document.class, "foods")) {
+                ids.map(document -> String.valueOf(document.get("_id")))
+                        .forEach(building::add);
+            }
+            filter = building;
+            log.info("Food existence filter built with {} ids, {} KB in {} ms", building.size(),
+                    building.bitSize() / 8 / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Failed to build food existence filter", e);
+        } finally {
+            pending = null;
+        }
+    }
+
+    /**
+     * Returns {@code false} only if the food certainly does not exist. Until the filter is
+     * built every id passes.
+     */
+    public boolean mightExist(String id) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        if (recentlyMissing.getIfPresent(id) != null) {
+            negativeHits.increment();
+            return false;
+        }
+        ScalableBloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(id)) {
+            passed.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Records that the database did not have a food the filter let through.
+     */
+    public void recordMissing(String id) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (filter != null) {
+            falsePositives.increment();
+        }
+        recentlyMissing.put(id, Boolean.TRUE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleFoodCreated(FoodCreatedEvent event) {
+        add(event.getFoodId());
+        try {
+            redisTemplate.convertAndSend(CacheConstants.FOOD_FILTER_CHANNEL, event.getFoodId());
+        } catch (Exception e) {
+            log.warn("Failed to broadcast created food id={}", event.getFoodId(), e);
+        }
+    }
+
+    /**
+     * Adds ids written outside the create path, e.g. by an import, on every node.
+     */
+    public void addAll(Collection<String> ids) {
+        if (!properties.isEnabled() || ids.isEmpty()) {
+            return;
+        }
+        ids.forEach(this::add);
+        try {
+            redisTemplate.convertAndSend(CacheConstants.FOOD_FILTER_CHANNEL,
+                    String.join(ID_SEPARATOR, ids));
+        } catch (Exception e) {
+            log.warn("Failed to broadcast {} imported food ids", ids.size(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleFoodDeleted(FoodDeletedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        remove(event.getFoodId());
+        try {
+            redisTemplate.convertAndSend(CacheConstants.FOOD_FILTER_DELETED_CHANNEL,
+                    event.getFoodId());
+        } catch (Exception e) {
+            log.warn("Failed to broadcast deleted food id={}", event.getFoodId(), e);
+        }
+    }
+
+    /**
+     * Applies a message from {@link CacheConstants#FOOD_FILTER_CHANNEL}.
+     */
+    public void applyCreated(String ids) {
+        for (String id : ids.split(ID_SEPARATOR)) {
+            add(id);
+        }
+    }
+
+    /**
+     * Applies a message from {@link CacheConstants#FOOD_FILTER_DELETED_CHANNEL}.
+     */
+    public void applyDeleted(String ids) {
+        for (String id : ids.split(ID_SEPARATOR)) {
+            remove(id);
+        }
+    }
+
+    private void add(String id) {
+        if (!properties.isEnabled() || id == null) {
+            return;
+        }
+        recentlyMissing.invalidate(id);
+        apply(target -> target.add(id));
+    }
+
+    private void remove(String id) {
+        if (!properties.isEnabled() || id == null) {
+            return;
+        }
+        recentlyMissing.put(id, Boolean.TRUE);
+    }
+
+    private void apply(Consumer<ScalableBloomFilter> mutation) {
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            mutation.accept(current);
+        }
+        ScalableBloomFilter building = pending;
+        if (building != null && building != current) {
+            mutation.accept(building);
+        }
+    }
+}
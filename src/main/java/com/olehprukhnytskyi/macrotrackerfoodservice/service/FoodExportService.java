@@ -0,0 +1,97 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.ExportProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes foods as NDJSON straight from a Mongo cursor, one {@link FoodResponseDto} per line in
+ * {@code _id} order. Memory use does not depend on the number of foods. An interrupted export
+ * is resumed by passing the id on its last complete line as {@code after}.
+ */
+@Slf4j
+@Service
+public class FoodExportService {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private final MongoTemplate mongoTemplate;
+    private final FoodMapper foodMapper;
+    private final ObjectWriter writer;
+    private final ExportProperties properties;
+    private final Counter exportedRows;
+
+    public FoodExportService(MongoTemplate mongoTemplate, FoodMapper foodMapper,
+                             ObjectMapper objectMapper, ExportProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.foodMapper = foodMapper;
+        this.writer = objectMapper.writerFor(FoodResponseDto.class)
+                .withRootValueSeparator((String) null)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.properties = properties;
+        this.exportedRows = Counter.builder("food.export.rows")
+                .description("Foods written by exports")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Exports the foods of a user, or the whole catalog when {@code userId} is {@code null},
+     * with ids greater than {@code after}. Returns the number of foods written.
+     */
+    public long exportFoods(Long userId, String after, boolean gzip, OutputStream output)
+            throws IOException {
+        log.info("Exporting foods userId={} after={} gzip={}", userId, after, gzip);
+        long start = System.nanoTime();
+        long rows = 0;
+        OutputStream target = gzip ? new GZIPOutputStream(output, GZIP_BUFFER_SIZE) : output;
+        try (Stream<Food> foods = mongoTemplate.stream(query(userId, after), Food.class);
+             JsonGenerator generator = writer.createGenerator(target)) {
+            Iterator<Food> iterator = foods.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, foodMapper.toDto(iterator.next()));
+                generator.writeRaw('\n');
+                if (++rows % properties.getFlushInterval() == 0) {
+                    generator.flush();
+                    exportedRows.increment(properties.getFlushInterval());
+                }
+            }
+        } finally {
+            exportedRows.increment(rows % properties.getFlushInterval());
+        }
+        log.info("Exported {} foods userId={} in {} ms", rows, userId,
+                (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private Query query(Long userId, String after) {
+        Criteria criteria = new Criteria();
+        if (userId != null) {
+            criteria.and("user_id").is(userId);
+        }
+        if (after != null && !after.isBlank()) {
+            criteria.and("_id").gt(after);
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(properties.getCursorBatchSize());
+        query.fields().exclude("_keywords");
+        return query;
+    }
+}
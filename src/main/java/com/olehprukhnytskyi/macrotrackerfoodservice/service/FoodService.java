@@ -7,29 +7,51 @@ import com.olehprukhnytskyi.exception.NotFoundException;
 import com.olehprukhnytskyi.exception.error.CommonErrorCode;
 import com.olehprukhnytskyi.exception.error.FoodErrorCode;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dao.FoodSearchDao;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodCursorPage;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodListCacheWrapper;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodPatchRequestDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodRequestDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.TypeaheadResponseDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodCreatedEvent;
+import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodDeletedEvent;
+import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodUpdatedEvent;
 import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
 import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.NutrimentsMapper;
 import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.popularity.QueryKind;
+import com.olehprukhnytskyi.macrotrackerfoodservice.popularity.QueryPopularityService;
 import com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo.FoodRepository;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchPage;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.Gtin;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.NormalizedQuery;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.SearchCursor;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.TypeaheadHits;
 import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
 import com.olehprukhnytskyi.model.OutboxEvent;
 import com.olehprukhnytskyi.repository.jpa.OutboxRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.retry.support.RetryTemplate;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -38,6 +60,8 @@ import org.springframework.web.multipart.MultipartFile;
 @Service
 @RequiredArgsConstructor
 public class FoodService {
+    private static final int SUGGESTIONS_LIMIT = 16;
+    private static final int MAX_CODE_ATTEMPTS = 3;
     private final NutrimentsMapper nutrimentsMapper;
     private final FoodRepository foodRepository;
     private final FoodMapper foodMapper;
@@ -46,25 +70,53 @@ public class FoodService {
     private final FoodSearchDao foodSearchDao;
     private final FoodCodeGenerator foodCodeGenerator;
     private final ApplicationEventPublisher eventPublisher;
-    private final RetryTemplate retryTemplate;
+    private final SuggestionIndexService suggestionIndexService;
+    private final BarcodeLookupService barcodeLookupService;
+    private final SearchWindowService searchWindowService;
+    private final QueryPopularityService popularityService;
+    private final FoodBatchLookupService foodBatchLookupService;
+    private final FoodExistenceFilter foodExistenceFilter;
+    private final MongoTemplate mongoTemplate;
 
-    @Transactional
     @CachePut(value = CacheConstants.FOOD_DATA, key = "#result.id")
     public FoodResponseDto createFoodWithImages(FoodRequestDto dto,
                                                 MultipartFile image, Long userId) {
         log.info("Creating new food item for userId={}", userId);
         try {
-            Optional<Food> existingSameProduct = tryFindExistingSameProduct(dto);
-            if (existingSameProduct.isPresent()) {
-                log.info("Returning existing food id={}", existingSameProduct.get().getId());
-                return foodMapper.toDto(existingSameProduct.get());
+            for (int attempt = 1; ; attempt++) {
+                Food food = prepareNewFood(dto, userId);
+                boolean generatedCode = !food.getId().equals(dto.getCode());
+                String imageKey = foodAssetService.processAndUploadImage(food, image);
+                Food existing;
+                try {
+                    existing = insertIfAbsent(food);
+                } catch (RuntimeException e) {
+                    foodAssetService.discardImage(imageKey);
+                    throw e;
+                }
+                if (existing == null) {
+                    eventPublisher.publishEvent(new FoodCreatedEvent(food.getId(), userId,
+                            food.getProductName()));
+                    log.info("Food created successfully userId={} foodId={}", userId,
+                            food.getId());
+                    return foodMapper.toDto(food);
+                }
+                foodAssetService.discardImage(imageKey);
+                if (generatedCode) {
+                    if (attempt >= MAX_CODE_ATTEMPTS) {
+                        throw new IllegalStateException("No free food code after "
+                                + attempt + " attempts");
+                    }
+                    log.warn("Generated food code {} is taken, retrying", food.getId());
+                    continue;
+                }
+                if (!isSameProduct(existing, dto)) {
+                    throw new ConflictException(FoodErrorCode.FOOD_ALREADY_EXISTS,
+                            "Food with this code already exists with different data");
+                }
+                log.info("Returning existing food id={}", existing.getId());
+                return foodMapper.toDto(existing);
             }
-            Food food = prepareNewFood(dto, userId);
-            foodAssetService.processAndUploadImage(food, image);
-            Food saved = retryTemplate.execute(context -> foodRepository.save(food));
-            eventPublisher.publishEvent(new FoodCreatedEvent(saved.getId(), userId));
-            log.info("Food created successfully userId={} foodId={}", userId, saved.getId());
-            return foodMapper.toDto(saved);
         } catch (ConflictException | BadRequestException e) {
             throw e;
         } catch (Exception e) {
@@ -75,45 +127,138 @@ public class FoodService {
     }
 
     public List<FoodResponseDto> findAllByUserId(Long userId, int offset, int limit) {
-        Pageable pageable = PageRequest.of(offset / limit, limit);
-        return foodRepository.findAllByUserId(userId, pageable)
+        Query query = new Query(Criteria.where("user_id").is(userId))
+                .with(Sort.by("_id"))
+                .skip(offset)
+                .limit(limit);
+        query.fields().exclude("_keywords");
+        return mongoTemplate.find(query, Food.class)
                 .stream()
                 .map(foodMapper::toDto)
                 .toList();
     }
 
-    @Cacheable(
-            value = CacheConstants.SEARCH_RESULTS,
-            key = "T(org.springframework.util.DigestUtils).md5DigestAsHex((#query"
-                    + ".trim().toLowerCase() + '-' + #offset + '-' + #limit).getBytes())",
-            unless = "#result == null || #result.items.isEmpty()"
-    )
-    public FoodListCacheWrapper findByQuery(String query, int offset, int limit) {
-        log.debug("Searching foods query='{}' offset={} limit={}", query, offset, limit);
-        List<Food> foods = foodSearchDao.search(query, offset, limit);
-        return new FoodListCacheWrapper(foodMapper.toDto(foods));
+    public FoodCursorPage findAllByUserIdAfter(Long userId, String cursor, int limit) {
+        log.debug("Fetching foods userId={} cursor={} limit={}", userId, cursor, limit);
+        Pageable pageable = PageRequest.of(0, limit);
+        Slice<Food> slice = cursor == null
+                ? foodRepository.findSliceByUserId(userId, pageable)
+                : foodRepository.findSliceByUserIdAfter(userId, decodeIdCursor(cursor), pageable);
+        List<Food> foods = slice.getContent();
+        String next = slice.hasNext() ? encodeIdCursor(foods.getLast().getId()) : null;
+        return new FoodCursorPage(foods.stream().map(foodMapper::toDto).toList(), next);
+    }
+
+    public long countByUserId(Long userId) {
+        return foodRepository.countByUserId(userId);
+    }
+
+    public FoodListCacheWrapper findByQuery(NormalizedQuery query, FoodFilter filter,
+                                            int offset, int limit) {
+        log.debug("Searching foods query='{}' filter='{}' offset={} limit={}",
+                query, filter, offset, limit);
+        if (query.isBarcode()) {
+            List<FoodResponseDto> items = offset == 0
+                    ? barcodeLookupService.find(query.getBarcodes().getFirst()).stream().toList()
+                    : List.of();
+            return new FoodListCacheWrapper(items);
+        }
+        popularityService.record(QueryKind.SEARCH, query);
+        return new FoodListCacheWrapper(searchWindowService.search(query, filter, offset,
+                limit));
     }
 
-    @Cacheable(value = CacheConstants.FOOD_DATA, key = "#id")
+    /**
+     * Not cached: every page except the last carries a point in time that expires within
+     * minutes, so a cached page would hand out dead cursors.
+     */
+    public FoodCursorPage findByQueryAfter(NormalizedQuery query, FoodFilter filter,
+                                           String cursor, int limit) {
+        log.debug("Searching foods query='{}' filter='{}' cursor={} limit={}",
+                query, filter, cursor, limit);
+        if (query.isBarcode()) {
+            List<FoodResponseDto> items = cursor == null
+                    ? barcodeLookupService.find(query.getBarcodes().getFirst()).stream().toList()
+                    : List.of();
+            return new FoodCursorPage(items, null);
+        }
+        FoodSearchPage page = foodSearchDao.searchAfter(query, filter, decodeCursor(cursor),
+                limit);
+        return new FoodCursorPage(foodMapper.fromSearchHits(page.hits()),
+                page.next() != null ? page.next().encode() : null);
+    }
+
+    @Cacheable(value = CacheConstants.FOOD_DATA, key = "#id", sync = true)
     public FoodResponseDto findById(String id) {
         log.debug("Fetching food by id={}", id);
+        if (!foodExistenceFilter.mightExist(id)) {
+            throw new NotFoundException(FoodErrorCode.FOOD_NOT_FOUND,
+                    "Food not found with id: " + id);
+        }
         Food food = foodRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException(FoodErrorCode.FOOD_NOT_FOUND,
-                        "Food not found with id: " + id));
+                .orElseThrow(() -> {
+                    foodExistenceFilter.recordMissing(id);
+                    return new NotFoundException(FoodErrorCode.FOOD_NOT_FOUND,
+                            "Food not found with id: " + id);
+                });
         return foodMapper.toDto(food);
     }
 
-    @Cacheable(
-            value = CacheConstants.SEARCH_SUGGESTIONS,
-            key = "T(org.springframework.util.DigestUtils)"
-                    + ".md5DigestAsHex(#query.trim().toLowerCase().getBytes())",
-            unless = "#result == null || #result.isEmpty()"
-    )
-    public List<String> getSearchSuggestions(String query) {
+    public FoodResponseDto findByBarcode(String code) {
+        log.debug("Resolving food by barcode={}", code);
+        String stripped = code.strip();
+        Optional<Gtin> gtin = Gtin.parse(stripped);
+        if (gtin.isEmpty() && !foodCodeGenerator.isValidCode(stripped)) {
+            throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
+                    "Invalid barcode: " + code);
+        }
+        Optional<FoodResponseDto> food = gtin.isPresent()
+                ? barcodeLookupService.find(gtin.get())
+                : barcodeLookupService.findCode(stripped);
+        return food.orElseThrow(() -> new NotFoundException(FoodErrorCode.FOOD_NOT_FOUND,
+                        "Food not found with barcode: " + code));
+    }
+
+    public List<String> getSearchSuggestions(NormalizedQuery query) {
         log.trace("Fetching search suggestions query='{}'", query);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        popularityService.record(QueryKind.SUGGESTIONS, query);
+        Optional<List<String>> indexed = suggestionIndexService.suggest(query.getText(),
+                SUGGESTIONS_LIMIT);
+        if (indexed.isPresent() && !indexed.get().isEmpty()) {
+            return indexed.get();
+        }
         return foodSearchDao.getSuggestions(query);
     }
 
+    @Cacheable(
+            value = CacheConstants.SEARCH_RESULTS,
+            key = "#query.cacheKey('typeahead', #limit)",
+            condition = "!#query.empty && !#query.barcode",
+            sync = true
+    )
+    public TypeaheadResponseDto typeahead(NormalizedQuery query, int limit) {
+        log.debug("Fetching typeahead query='{}' limit={}", query, limit);
+        if (query.isEmpty()) {
+            return new TypeaheadResponseDto(List.of(), List.of());
+        }
+        if (query.isBarcode()) {
+            return new TypeaheadResponseDto(List.of(),
+                    barcodeLookupService.find(query.getBarcodes().getFirst()).stream().toList());
+        }
+        Optional<List<String>> indexed = suggestionIndexService.suggest(query.getText(),
+                SUGGESTIONS_LIMIT);
+        if (indexed.isPresent() && !indexed.get().isEmpty()) {
+            return new TypeaheadResponseDto(indexed.get(),
+                    foodMapper.fromSearchHits(foodSearchDao.typeaheadHits(query, limit)));
+        }
+        TypeaheadHits hits = foodSearchDao.typeahead(query, limit);
+        return new TypeaheadResponseDto(hits.suggestions(),
+                foodMapper.fromSearchHits(hits.hits()));
+    }
+
     @CachePut(value = CacheConstants.FOOD_DATA, key = "#id")
     public FoodResponseDto patch(String id, FoodPatchRequestDto dto) {
         log.info("Updating food id={}", id);
@@ -121,8 +266,11 @@ public class FoodService {
             Food existing = foodRepository.findById(id)
                     .orElseThrow(() -> new NotFoundException(FoodErrorCode.FOOD_NOT_FOUND,
                             "Food not found with id: " + id));
+            String previousProductName = existing.getProductName();
             foodMapper.updateFoodFromPatchDto(dto, existing);
             Food saved = foodRepository.save(existing);
+            eventPublisher.publishEvent(new FoodUpdatedEvent(id, previousProductName,
+                    saved.getProductName()));
             return foodMapper.toDto(saved);
         } catch (NotFoundException e) {
             throw e;
@@ -136,7 +284,11 @@ public class FoodService {
     @Transactional
     public void deleteByIdAndUserId(String id, Long userId) {
         log.info("Deleting food id={} userId={}", id, userId);
+        Optional<Food> existing = foodRepository.findById(id)
+                .filter(food -> userId.equals(food.getUserId()));
         foodRepository.deleteByIdAndUserId(id, userId);
+        existing.ifPresent(food -> eventPublisher.publishEvent(
+                new FoodDeletedEvent(id, food.getProductName())));
         outboxRepository.save(OutboxEvent.builder()
                 .aggregateType("FOOD")
                 .aggregateId(id)
@@ -146,9 +298,31 @@ public class FoodService {
     }
 
     public List<FoodResponseDto> findAllByIds(List<String> foodIds) {
-        return foodRepository.findAllById(foodIds).stream()
-                .map(foodMapper::toDto)
-                .toList();
+        return foodBatchLookupService.findAll(foodIds);
+    }
+
+    private SearchCursor decodeCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return SearchCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(CommonErrorCode.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private String decodeIdCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(CommonErrorCode.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private String encodeIdCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.getBytes(StandardCharsets.UTF_8));
     }
 
     private Food prepareNewFood(FoodRequestDto request, Long userId) {
@@ -160,27 +334,28 @@ public class FoodService {
         return food;
     }
 
-    private boolean isSameProduct(Food existingFood, FoodRequestDto newRequest) {
-        return existingFood.getProductName().equals(newRequest.getProductName())
-                && existingFood.getBrands().equals(newRequest.getBrands())
-                && existingFood.getGenericName().equals(newRequest.getGenericName())
-                && existingFood.getNutriments().equals(
-                        nutrimentsMapper.toModel(newRequest.getNutriments()));
+    /**
+     * Inserts the food unless one with its id exists, in a single round trip. Returns the
+     * existing food on conflict and {@code null} when the food was inserted. The document,
+     * image url included, is complete when it becomes visible. Concurrent upserts of the same
+     * {@code _id} are retried by the server, so no client retry is needed.
+     */
+    private Food insertIfAbsent(Food food) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(food, document);
+        document.remove("_id");
+        Update update = new Update();
+        document.forEach(update::setOnInsert);
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(food.getId())),
+                update, FindAndModifyOptions.options().upsert(true).returnNew(false),
+                Food.class);
     }
 
-    private Optional<Food> tryFindExistingSameProduct(FoodRequestDto dto) {
-        if (dto.getCode() != null) {
-            Optional<Food> existing = foodRepository.findById(dto.getCode());
-            if (existing.isPresent()) {
-                if (isSameProduct(existing.get(), dto)) {
-                    log.debug("Duplicate food detected with same data, "
-                            + "returning existing id={}", existing.get().getId());
-                    return existing;
-                }
-                throw new ConflictException(FoodErrorCode.FOOD_ALREADY_EXISTS,
-                        "Food with this code already exists with different data");
-            }
-        }
-        return Optional.empty();
+    private boolean isSameProduct(Food existingFood, FoodRequestDto newRequest) {
+        return Objects.equals(existingFood.getProductName(), newRequest.getProductName())
+                && Objects.equals(existingFood.getBrands(), newRequest.getBrands())
+                && Objects.equals(existingFood.getGenericName(), newRequest.getGenericName())
+                && Objects.equals(existingFood.getNutriments(),
+                        nutrimentsMapper.toModel(newRequest.getNutriments()));
     }
 }
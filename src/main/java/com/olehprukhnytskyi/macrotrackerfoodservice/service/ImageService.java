@@ -10,6 +10,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
@@ -78,9 +79,14 @@ public class ImageService {
         }
     }
 
+    /**
+     * Returns a key under the food's folder that is unique per upload, so an upload for a
+     * food that turns out to exist already never overwrites that food's image.
+     */
     public String generateImageKey(MultipartFile file, String foodId, int imageWidth) {
         String format = detectImageFormat(file);
-        String key = "images/products/" + foodId + "/" + imageWidth + "." + format;
+        String key = "images/products/" + foodId + "/" + imageWidth + "-" + UUID.randomUUID()
+                + "." + format;
         log.trace("Generated image key={}", key);
         return key;
     }
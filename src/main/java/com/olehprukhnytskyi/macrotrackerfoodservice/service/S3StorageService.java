@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
@@ -37,6 +38,14 @@ public class S3StorageService {
         return url;
     }
 
+    public void deleteFile(String key) {
+        log.info("Deleting file from S3 bucket={} key={}", s3Properties.getS3Bucket(), key);
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(s3Properties.getS3Bucket())
+                .key(key)
+                .build());
+    }
+
     public void deleteFolder(String prefix) {
         log.info("Deleting S3 folder with prefix={}", prefix);
         String continuationToken = null;
@@ -0,0 +1,45 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.TwoLevelCache;
+import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodDeletedEvent;
+import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodUpdatedEvent;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchCacheEvictionService {
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleFoodUpdated(FoodUpdatedEvent event) {
+        evict(event.getFoodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleFoodDeleted(FoodDeletedEvent event) {
+        evict(event.getFoodId());
+    }
+
+    private void evict(String foodId) {
+        Cache cache = cacheManager.getCache(CacheConstants.SEARCH_RESULTS);
+        if (!(cache instanceof TwoLevelCache twoLevelCache)) {
+            return;
+        }
+        try {
+            Set<String> keys = twoLevelCache.evictFoods(List.of(foodId));
+            log.debug("Evicted {} search cache entries containing foodId={}", keys.size(), foodId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict search cache entries for foodId={}: {}",
+                    foodId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.dao.FoodSearchDao;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodSearchWindow;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.popularity.QueryKind;
+import com.olehprukhnytskyi.macrotrackerfoodservice.popularity.QueryPopularityService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.SearchProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchHit;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.NormalizedQuery;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchWindowService {
+    private static final String WINDOW_QUALIFIER = "window";
+    private final CacheManager cacheManager;
+    private final FoodSearchDao foodSearchDao;
+    private final FoodMapper foodMapper;
+    private final SearchProperties searchProperties;
+    private final QueryPopularityService popularityService;
+
+    public List<FoodResponseDto> search(NormalizedQuery query, int offset, int limit) {
+        return search(query, FoodFilter.NONE, offset, limit);
+    }
+
+    public List<FoodResponseDto> search(NormalizedQuery query, FoodFilter filter,
+                                        int offset, int limit) {
+        int end = offset + limit;
+        if (end > searchProperties.getMaxWindowSize()) {
+            log.debug("Page beyond cached window query='{}' filter='{}' offset={} limit={}",
+                    query, filter, offset, limit);
+            return foodMapper.fromSearchHits(foodSearchDao.search(query, filter, offset, limit));
+        }
+        Cache cache = cacheManager.getCache(CacheConstants.SEARCH_RESULTS);
+        if (cache == null) {
+            return slice(extend(query, filter, null, end).getItems(), offset, end);
+        }
+        String key = windowKey(query, filter);
+        FoodSearchWindow window = cache.get(key, FoodSearchWindow.class);
+        if (window == null) {
+            popularityService.recordMiss(QueryKind.SEARCH, query);
+            window = extend(query, filter, null, end);
+            if (window.getItems().isEmpty()) {
+                // Empty results are not kept, so a food created or imported later shows up on
+                // the next search rather than after the window expires.
+                return List.of();
+            }
+            cache.put(key, window);
+        } else if (!covers(window, end)) {
+            window = extend(query, filter, window, end);
+            cache.put(key, window);
+        }
+        return slice(window.getItems(), offset, end);
+    }
+
+    public void refresh(NormalizedQuery query) {
+        Cache cache = cacheManager.getCache(CacheConstants.SEARCH_RESULTS);
+        if (cache == null) {
+            return;
+        }
+        FoodSearchWindow window = extend(query, FoodFilter.NONE, null, 1);
+        if (!window.getItems().isEmpty()) {
+            cache.put(windowKey(query, FoodFilter.NONE), window);
+        }
+    }
+
+    private FoodSearchWindow extend(NormalizedQuery query, FoodFilter filter,
+                                    FoodSearchWindow window, int end) {
+        List<FoodResponseDto> items = window != null ? window.getItems() : List.of();
+        int from = items.size();
+        int windowSize = searchProperties.getWindowSize();
+        int target = Math.min(searchProperties.getMaxWindowSize(),
+                (end + windowSize - 1) / windowSize * windowSize);
+        int size = target - from;
+        log.debug("Extending search window query='{}' from={} size={}", query, from, size);
+        List<FoodSearchHit> hits = foodSearchDao.search(query, filter, from, size);
+        List<FoodResponseDto> extended = new ArrayList<>(from + hits.size());
+        extended.addAll(items);
+        extended.addAll(foodMapper.fromSearchHits(hits));
+        return new FoodSearchWindow(extended, hits.size() < size);
+    }
+
+    private static String windowKey(NormalizedQuery query, FoodFilter filter) {
+        return filter.isEmpty()
+                ? query.cacheKey(WINDOW_QUALIFIER)
+                : query.cacheKey(WINDOW_QUALIFIER, filter.cacheKey());
+    }
+
+    private static boolean covers(FoodSearchWindow window, int end) {
+        return window.isComplete() || window.getItems().size() >= end;
+    }
+
+    private static List<FoodResponseDto> slice(List<FoodResponseDto> items, int offset, int end) {
+        int size = items.size();
+        return List.copyOf(items.subList(Math.min(offset, size), Math.min(end, size)));
+    }
+}
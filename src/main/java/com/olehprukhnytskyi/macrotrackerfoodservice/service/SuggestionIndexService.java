@@ -0,0 +1,105 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodCreatedEvent;
+import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodDeletedEvent;
+import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodUpdatedEvent;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.SuggestionIndex;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SuggestionIndexService {
+    private static final int STREAM_BATCH_SIZE = 5000;
+    private final MongoTemplate mongoTemplate;
+    private volatile SuggestionIndex index;
+    private volatile SuggestionIndex pending;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.suggestions.rebuild-interval:PT6H}",
+            fixedDelayString = "${app.suggestions.rebuild-interval:PT6H}"
+    )
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        SuggestionIndex building = SuggestionIndex.loading();
+        pending = building;
+        try {
+            Query query = new Query().cursorBatchSize(STREAM_BATCH_SIZE);
+            query.fields().include("product_name").exclude("_id");
+            try (Stream<Document> names = mongoTemplate.stream(query, Document.class, "foods")) {
+                names.map(document -> document.getString("product_name"))
+                        .filter(Objects::nonNull)
+                        .forEach(building::add);
+            }
+            building.finishLoading();
+            index = building;
+            log.info("Suggestion index built with {} entries in {} ms", building.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Failed to build suggestion index", e);
+        } finally {
+            pending = null;
+        }
+    }
+
+    public Optional<List<String>> suggest(String query, int limit) {
+        SuggestionIndex current = index;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.suggest(query, limit));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleFoodCreated(FoodCreatedEvent event) {
+        apply(target -> target.add(event.getProductName()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleFoodUpdated(FoodUpdatedEvent event) {
+        if (Objects.equals(event.getPreviousProductName(), event.getProductName())) {
+            return;
+        }
+        apply(target -> {
+            target.remove(event.getPreviousProductName());
+            target.add(event.getProductName());
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleFoodDeleted(FoodDeletedEvent event) {
+        apply(target -> target.remove(event.getProductName()));
+    }
+
+    private void apply(Consumer<SuggestionIndex> mutation) {
+        SuggestionIndex current = index;
+        if (current != null) {
+            mutation.accept(current);
+        }
+        SuggestionIndex building = pending;
+        if (building != null && building != current) {
+            mutation.accept(building);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.olehprukhnytskyi.macrotrackerfoodservice.util;
 
+import java.time.Duration;
+
 public final class CacheConstants {
     public static final String FOOD_DATA = "food:data";
     public static final String SEARCH_RESULTS = "search:results";
     public static final String SEARCH_SUGGESTIONS = "search:suggestions";
+    public static final String INVALIDATION_CHANNEL = "cache:invalidation";
+    public static final String FOOD_FILTER_CHANNEL = "food:filter:created";
+    public static final String FOOD_FILTER_DELETED_CHANNEL = "food:filter:deleted";
+    public static final Duration FOOD_DATA_TTL = Duration.ofHours(24);
 
     private CacheConstants() {
     }
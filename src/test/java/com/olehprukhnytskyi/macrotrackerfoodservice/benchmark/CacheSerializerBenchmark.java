@@ -0,0 +1,115 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.benchmark;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.BinaryCacheSerializer;
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.FoodCacheCodecs;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodListCacheWrapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.NutrimentsDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Compares the JSON serializer the caches used before against the binary one on a single
+ * food and on a 25 item search page. Encode and decode are reported in nanoseconds per entry;
+ * the {@code bytes} secondary result is the size of one encoded entry.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheSerializerBenchmark {
+    @Param({"json", "binary"})
+    private String format;
+
+    @Param({"1", "25"})
+    private int items;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        serializer = "json".equals(format)
+                ? json
+                : new BinaryCacheSerializer(FoodCacheCodecs.all(), true, 1024, json,
+                        new SimpleMeterRegistry());
+        value = items == 1
+                ? food(0)
+                : new FoodListCacheWrapper(IntStream.range(0, items)
+                        .mapToObj(CacheSerializerBenchmark::food)
+                        .toList());
+        encoded = serializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] encode(EntrySize size) {
+        byte[] bytes = serializer.serialize(value);
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static FoodResponseDto food(int i) {
+        NutrimentsDto nutriments = new NutrimentsDto();
+        nutriments.setCalories(new BigDecimal("165.0"));
+        nutriments.setFat(new BigDecimal("3.6"));
+        nutriments.setProtein(new BigDecimal("31.0"));
+        nutriments.setCarbohydrates(new BigDecimal("0.0"));
+        String code = String.format("%013d", 5_901_234_123_457L + i);
+        return FoodResponseDto.builder()
+                .id(String.format("6650f1c2a1b2c3d4e5%06d", i))
+                .code(code)
+                .userId(i % 3 == 0 ? 12_345L : null)
+                .productName("Organic chicken breast fillet " + i)
+                .genericName("Chicken breast")
+                .imageUrl("https://cdn.example.com/images/products/" + code + "/main.jpg")
+                .brands("Farm Fresh")
+                .nutriments(nutriments)
+                .build();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EntrySize {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CacheSerializerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,151 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import com.olehprukhnytskyi.macrotrackerfoodservice.importer.FoodImportFormat;
+import com.olehprukhnytskyi.macrotrackerfoodservice.importer.FoodImportReport;
+import com.olehprukhnytskyi.macrotrackerfoodservice.importer.FoodImportService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.impl.FoodMapperImpl;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.impl.NutrimentsMapperImpl;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.ImportProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodCodeGenerator;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExistenceFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * Pushes a gzipped synthetic dump through {@link FoodImportService}: decompression, parsing,
+ * validation, batching and conversion of every row into an upsert. Mongo is a sink that
+ * acknowledges each bulk write, so catalog size divided by the score is the ceiling the
+ * service can feed a database with.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FoodImportBenchmark {
+    @Param({"ndjson", "csv"})
+    private String format;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private FoodImportService service;
+    private byte[] dump;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        dump = "csv".equals(format) ? csv(rows) : ndjson(rows);
+        MongoTemplate mongoTemplate = stub(MongoTemplate.class);
+        BulkOperations bulk = stub(BulkOperations.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter());
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class)))
+                .thenReturn(bulk);
+        when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(),
+                List.of()));
+        service = new FoodImportService(mongoTemplate,
+                new FoodMapperImpl(new NutrimentsMapperImpl()), new FoodCodeGenerator(null),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                stub(CacheManager.class), stub(RedisTemplate.class),
+                stub(FoodExistenceFilter.class), new ImportProperties(),
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public FoodImportReport importCatalog() {
+        return service.importFoods(new ByteArrayInputStream(dump),
+                FoodImportFormat.detect(format), 0);
+    }
+
+    private static byte[] ndjson(int rows) throws IOException {
+        return gzip(rows, null, i -> String.format("{\"code\":\"%013d\",\"product_name\":"
+                + "\"Organic chicken breast %d\",\"brands\":\"Farm Fresh\",\"nutriments\":"
+                + "{\"energy-kcal_100g\":165.0,\"fat_100g\":3.6,\"proteins_100g\":31.0,"
+                + "\"carbohydrates_100g\":0.0}}", i, i));
+    }
+
+    private static byte[] csv(int rows) throws IOException {
+        return gzip(rows, "code\tproduct_name\tbrands\tenergy-kcal_100g\tfat_100g"
+                + "\tproteins_100g\tcarbohydrates_100g", i -> String.format(
+                        "%013d\tOrganic chicken breast %d\tFarm Fresh\t165.0\t3.6\t31.0\t0.0",
+                        i, i));
+    }
+
+    private static byte[] gzip(int rows, String header, IntFunction<String> row)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer out = new OutputStreamWriter(new GZIPOutputStream(bytes),
+                StandardCharsets.UTF_8)) {
+            if (header != null) {
+                out.write(header);
+                out.write('\n');
+            }
+            for (int i = 0; i < rows; i++) {
+                out.write(row.apply(10_000_000 + i));
+                out.write('\n');
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE,
+                context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FoodImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,65 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.benchmark;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.NormalizedQuery;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.QueryNormalizer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.DigestUtils;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class QueryNormalizerBenchmark {
+    private static final int OFFSET = 0;
+    private static final int LIMIT = 25;
+
+    @Param({"rice", "  Organic Chicken-Breast, 500g ", "4006381333931", "greek yogurt 0% fat"})
+    private String query;
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        String key = DigestUtils.md5DigestAsHex(
+                (query.trim().toLowerCase() + '-' + OFFSET + '-' + LIMIT).getBytes());
+        blackhole.consume(key);
+        String normalizedQuery = query.trim().toLowerCase()
+                .replaceAll("[^\\p{L}\\p{N}\\s]", "");
+        for (String token : normalizedQuery.split("\\s+")) {
+            blackhole.consume(token);
+            blackhole.consume(token.matches("\\d{8}|\\d{12}|\\d{13}|\\d{24}"));
+        }
+    }
+
+    @Benchmark
+    public void normalizer(Blackhole blackhole) {
+        NormalizedQuery normalized = QueryNormalizer.normalize(query);
+        blackhole.consume(normalized.cacheKey(OFFSET, LIMIT));
+        for (String term : normalized.getTerms()) {
+            blackhole.consume(term);
+        }
+        blackhole.consume(normalized.getBarcodes());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QueryNormalizerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,174 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.benchmark;
+
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.NdJsonpSerializable;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.indexer.FoodChange;
+import jakarta.json.stream.JsonGenerator;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the client side of a reindex: turning scanned food documents into {@code _bulk}
+ * bodies. {@code encodeBatch} reports documents per second for one worker. {@code
+ * copyCatalog} pushes a whole synthetic catalog through partitioned parallel workers into a
+ * counting sink standing in for Elasticsearch, so catalog size divided by its score is the
+ * ceiling this service can feed a cluster with.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReindexBenchmark {
+    private static final int BATCH_SIZE = 1000;
+    private static final int PARTITIONS = 16;
+    private static final int PARALLELISM = 4;
+    private static final String TARGET = "macro_tracker.foods_v1";
+
+    @Param({"1000000", "5000000"})
+    private int catalogSize;
+
+    private JsonpMapper mapper;
+    private List<Document> batch;
+
+    @Setup
+    public void setUp() {
+        mapper = new JacksonJsonpMapper();
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(food(i));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long encodeBatch() {
+        return encode(batch);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public long copyCatalog() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM,
+                Thread.ofVirtual().factory());
+        try {
+            int partitionSize = catalogSize / PARTITIONS;
+            List<Future<Long>> workers = new ArrayList<>();
+            for (int p = 0; p < PARTITIONS; p++) {
+                int from = p * partitionSize;
+                int to = p == PARTITIONS - 1 ? catalogSize : from + partitionSize;
+                workers.add(executor.submit(() -> copyPartition(from, to)));
+            }
+            long bytes = 0;
+            for (Future<Long> worker : workers) {
+                bytes += worker.get();
+            }
+            return bytes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long copyPartition(int from, int to) {
+        long bytes = 0;
+        List<Document> documents = new ArrayList<>(BATCH_SIZE);
+        for (int i = from; i < to; i++) {
+            documents.add(food(i));
+            if (documents.size() == BATCH_SIZE) {
+                bytes += encode(documents);
+                documents.clear();
+            }
+        }
+        return documents.isEmpty() ? bytes : bytes + encode(documents);
+    }
+
+    private long encode(List<Document> documents) {
+        BulkRequest.Builder builder = new BulkRequest.Builder().index(TARGET);
+        for (Document document : documents) {
+            String id = document.getString("_id");
+            Map<String, Object> source = FoodChange.indexSource(document);
+            builder.operations(op -> op.create(c -> c.id(id).document(source)));
+        }
+        CountingOutputStream out = new CountingOutputStream();
+        writeNdJson(builder.build(), out);
+        return out.count;
+    }
+
+    private void writeNdJson(NdJsonpSerializable value, CountingOutputStream out) {
+        Iterator<?> items = value._serializables();
+        while (items.hasNext()) {
+            Object item = items.next();
+            if (item instanceof NdJsonpSerializable nested && item != value) {
+                writeNdJson(nested, out);
+            } else {
+                JsonGenerator generator = mapper.jsonProvider().createGenerator(out);
+                mapper.serialize(item, generator);
+                generator.close();
+                out.write('\n');
+            }
+        }
+    }
+
+    private static Document food(int i) {
+        String code = String.format("%013d", i);
+        return new Document("_id", code)
+                .append("code", code)
+                .append("product_name", "Organic chicken breast " + i)
+                .append("generic_name", "Chicken breast fillet")
+                .append("brands", "Farm Fresh")
+                .append("image_url", "https://cdn.example.com/images/products/" + code
+                        + "/main.jpg")
+                .append("_keywords", List.of("chicken", "breast", "poultry", "protein"))
+                .append("nutriments", new Document("energy-kcal", 165.0)
+                        .append("fat", 3.6)
+                        .append("proteins", 31.0)
+                        .append("carbohydrates", 0.0))
+                .append("user_id", (long) (i % 1000));
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReindexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.benchmark;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.SuggestionIndex;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SuggestionIndexBenchmark {
+    private static final String[] WORDS = {
+            "organic", "chicken", "breast", "milk", "chocolate", "dark", "whole", "grain",
+            "bread", "rice", "brown", "basmati", "greek", "yogurt", "natural", "protein",
+            "bar", "peanut", "butter", "almond", "oat", "drink", "apple", "juice", "orange",
+            "tomato", "sauce", "pasta", "spaghetti", "cheese", "cheddar", "mozzarella",
+            "salmon", "smoked", "tuna", "beef", "pork", "sausage", "cereal", "granola"
+    };
+    private static final int PREFIX_COUNT = 4096;
+
+    @Param({"1000000"})
+    private int entries;
+
+    private List<String> names;
+    private String[] prefixes;
+    private SuggestionIndex index;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        names = random.ints(entries, 0, Integer.MAX_VALUE)
+                .mapToObj(seed -> syntheticName(new SplittableRandom(seed)))
+                .toList();
+        prefixes = new String[PREFIX_COUNT];
+        for (int i = 0; i < PREFIX_COUNT; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            prefixes[i] = word.substring(0, 1 + random.nextInt(word.length()));
+        }
+        long before = usedHeap();
+        index = buildIndex();
+        long after = usedHeap();
+        System.out.printf("%nSuggestion index: %d names, %d entries, ~%d bytes/entry%n",
+                entries, index.size(), (after - before) / Math.max(1, index.size()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SuggestionIndex build() {
+        return buildIndex();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> lookup() {
+        String prefix = prefixes[cursor++ & (PREFIX_COUNT - 1)];
+        return index.suggest(prefix, 16);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SuggestionIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private SuggestionIndex buildIndex() {
+        SuggestionIndex built = SuggestionIndex.loading();
+        names.forEach(built::add);
+        built.finishLoading();
+        return built;
+    }
+
+    private static String syntheticName(SplittableRandom random) {
+        int words = 2 + random.nextInt(3);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                name.append(' ');
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            name.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        return name.append(' ').append(random.nextInt(100_000)).toString();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
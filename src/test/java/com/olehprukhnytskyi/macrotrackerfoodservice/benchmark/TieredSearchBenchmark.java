@@ -0,0 +1,211 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.benchmark;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.NormalizedQuery;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.QueryNormalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares fuzzy-only search against the exact/prefix first strategy on an in-memory inverted
+ * index over a synthetic catalog. Like a Lucene fuzzy query, fuzzy expansion walks the term
+ * dictionary for every token, while exact and prefix lookups only touch matching terms. Run in
+ * sample-time mode, so JMH reports the p50 and p99 of both strategies on the same query mix.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TieredSearchBenchmark {
+    private static final String[] WORDS = {
+            "organic", "chicken", "breast", "milk", "chocolate", "dark", "whole", "grain",
+            "bread", "rice", "brown", "basmati", "greek", "yogurt", "natural", "protein",
+            "bar", "peanut", "butter", "almond", "oat", "drink", "apple", "juice", "orange",
+            "tomato", "sauce", "pasta", "spaghetti", "cheese", "cheddar", "mozzarella",
+            "salmon", "smoked", "tuna", "beef", "pork", "sausage", "cereal", "granola"
+    };
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final int QUERY_COUNT = 4096;
+    private static final int WINDOW = 50;
+
+    @Param({"200000"})
+    private int catalogSize;
+
+    @Param({"30000"})
+    private int vocabularySize;
+
+    @Param({"0.1"})
+    private double typoRate;
+
+    private NavigableMap<String, int[]> postings;
+    private String[] terms;
+    private NormalizedQuery[] queries;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<String> vocabulary = new ArrayList<>(List.of(WORDS));
+        while (vocabulary.size() < vocabularySize) {
+            vocabulary.add(randomWord(random));
+        }
+        Map<String, List<Integer>> building = new HashMap<>();
+        for (int doc = 0; doc < catalogSize; doc++) {
+            int length = 2 + random.nextInt(4);
+            for (int i = 0; i < length; i++) {
+                String term = random.nextInt(3) == 0
+                        ? WORDS[random.nextInt(WORDS.length)]
+                        : vocabulary.get(random.nextInt(vocabulary.size()));
+                building.computeIfAbsent(term, t -> new ArrayList<>()).add(doc);
+            }
+        }
+        postings = new TreeMap<>();
+        building.forEach((term, docs) -> postings.put(term,
+                docs.stream().mapToInt(Integer::intValue).distinct().toArray()));
+        terms = postings.keySet().toArray(String[]::new);
+        queries = new NormalizedQuery[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            String first = WORDS[random.nextInt(WORDS.length)];
+            String text = random.nextBoolean()
+                    ? first
+                    : first + " " + vocabulary.get(random.nextInt(vocabulary.size()));
+            queries[i] = QueryNormalizer.normalize(random.nextDouble() < typoRate
+                    ? typo(text, random)
+                    : text);
+        }
+    }
+
+    @Benchmark
+    public int fuzzyOnly() {
+        return fuzzy(nextQuery()).size();
+    }
+
+    @Benchmark
+    public int tiered() {
+        NormalizedQuery query = nextQuery();
+        Set<Integer> hits = exact(query);
+        if (hits.size() < WINDOW) {
+            hits.addAll(fuzzy(query));
+        }
+        return hits.size();
+    }
+
+    private NormalizedQuery nextQuery() {
+        NormalizedQuery query = queries[cursor];
+        cursor = (cursor + 1) & (QUERY_COUNT - 1);
+        return query;
+    }
+
+    private Set<Integer> exact(NormalizedQuery query) {
+        Set<Integer> hits = new LinkedHashSet<>();
+        for (String token : query.getTerms()) {
+            collect(postings.get(token), hits);
+        }
+        String text = query.getText();
+        String last = text.substring(text.lastIndexOf(' ') + 1);
+        for (int[] docs : postings.subMap(last, true, last + Character.MAX_VALUE, false)
+                .values()) {
+            if (hits.size() >= WINDOW) {
+                break;
+            }
+            collect(docs, hits);
+        }
+        return hits;
+    }
+
+    private Set<Integer> fuzzy(NormalizedQuery query) {
+        Set<Integer> hits = new LinkedHashSet<>();
+        for (String token : query.getTerms()) {
+            int maxEdits = token.length() > 5 ? 2 : token.length() > 3 ? 1 : 2;
+            for (String term : terms) {
+                if (Math.abs(term.length() - token.length()) <= maxEdits
+                        && editDistance(token, term, maxEdits) <= maxEdits) {
+                    collect(postings.get(term), hits);
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static void collect(int[] docs, Set<Integer> hits) {
+        if (docs != null) {
+            for (int i = 0; i < docs.length && hits.size() < WINDOW * 4; i++) {
+                hits.add(docs[i]);
+            }
+        }
+    }
+
+    private static int editDistance(String a, String b, int limit) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1),
+                        previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return rowMin;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static String randomWord(SplittableRandom random) {
+        int length = 3 + random.nextInt(8);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return word.toString();
+    }
+
+    private static String typo(String text, SplittableRandom random) {
+        int position = random.nextInt(text.length());
+        if (text.charAt(position) == ' ') {
+            return text;
+        }
+        return text.substring(0, position)
+                + LETTERS.charAt(random.nextInt(LETTERS.length()))
+                + text.substring(position + 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TieredSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
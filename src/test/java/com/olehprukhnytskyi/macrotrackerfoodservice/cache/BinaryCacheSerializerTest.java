@@ -0,0 +1,148 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodCursorPage;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodListCacheWrapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodSearchWindow;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.NutrimentsDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.TypeaheadResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+class BinaryCacheSerializerTest {
+    private final GenericJackson2JsonRedisSerializer json =
+            new GenericJackson2JsonRedisSerializer();
+    private SimpleMeterRegistry meterRegistry;
+    private BinaryCacheSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        serializer = new BinaryCacheSerializer(FoodCacheCodecs.all(), true, 1024, json,
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("When caching food values, should read back equal values")
+    void serialize_whenFoodValues_shouldRoundTrip() {
+        List<FoodResponseDto> foods = foods(3);
+        List<Object> values = List.of(
+                foods.getFirst(),
+                new FoodListCacheWrapper(foods),
+                new FoodSearchWindow(foods, true),
+                new FoodCursorPage(foods, null),
+                new TypeaheadResponseDto(List.of("rice", "rice cakes"), foods),
+                List.of("rice", "ricotta"),
+                FoodResponseDto.builder().id("1").build());
+
+        for (Object value : values) {
+            byte[] bytes = serializer.serialize(value);
+            assertEquals(BinaryCacheSerializer.MAGIC, bytes[0]);
+            assertEquals(value, serializer.deserialize(bytes));
+        }
+    }
+
+    @Test
+    @DisplayName("When a search page is large, should compress it below the JSON size")
+    void serialize_whenAboveThreshold_shouldCompress() {
+        // Given
+        FoodListCacheWrapper page = new FoodListCacheWrapper(foods(25));
+
+        // When
+        byte[] bytes = serializer.serialize(page);
+
+        // Then
+        assertEquals(1, bytes[2]);
+        assertTrue(bytes.length * 4 < json.serialize(page).length);
+        assertEquals(page, serializer.deserialize(bytes));
+    }
+
+    @Test
+    @DisplayName("When an entry was written as JSON, should still read it")
+    void deserialize_whenLegacyJson_shouldReadThroughFallback() {
+        // Given
+        FoodListCacheWrapper page = new FoodListCacheWrapper(foods(2));
+
+        // When
+        Object result = serializer.deserialize(json.serialize(page));
+
+        // Then
+        assertEquals(page, result);
+        assertEquals(1.0, meterRegistry.get("cache.serializer.legacy.reads").counter().count());
+    }
+
+    @Test
+    @DisplayName("When writing JSON during a rollout, should still read binary entries")
+    void serialize_whenJsonFormat_shouldWriteJsonAndReadBoth() {
+        // Given
+        BinaryCacheSerializer jsonWriter = new BinaryCacheSerializer(FoodCacheCodecs.all(),
+                false, 1024, json, meterRegistry);
+        FoodResponseDto food = foods(1).getFirst();
+
+        // When
+        byte[] written = jsonWriter.serialize(food);
+
+        // Then
+        assertEquals('{', written[0]);
+        assertEquals(food, jsonWriter.deserialize(serializer.serialize(food)));
+    }
+
+    @Test
+    @DisplayName("When an entry has an unknown format version, should treat it as a miss")
+    void deserialize_whenUnknownVersion_shouldReturnNull() {
+        // Given
+        byte[] bytes = serializer.serialize(foods(1).getFirst());
+        bytes[1] = 99;
+
+        // When & Then
+        assertNull(serializer.deserialize(bytes));
+        assertEquals(1.0, meterRegistry.get("cache.serializer.unknown.versions").counter()
+                .count());
+    }
+
+    @Test
+    @DisplayName("When a value has no codec, should fall back to JSON")
+    void serialize_whenNoCodec_shouldUseFallback() {
+        Map<String, Object> value = new HashMap<>(Map.of("count", 3));
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertEquals('{', bytes[0]);
+        assertEquals(value, serializer.deserialize(bytes));
+    }
+
+    private static List<FoodResponseDto> foods(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    NutrimentsDto nutriments = new NutrimentsDto();
+                    nutriments.setCalories(new BigDecimal("165.0"));
+                    nutriments.setFat(new BigDecimal("3.6"));
+                    nutriments.setProtein(BigDecimal.valueOf(31));
+                    nutriments.setCarbohydrates(new BigDecimal("12345678901234567890.5"));
+                    nutriments.setProteinPerPiece(new BigDecimal("-0.25"));
+                    return FoodResponseDto.builder()
+                            .id("6650f1c2a1b2c3d4e5f6" + String.format("%04d", i))
+                            .code("590123412345" + i % 10)
+                            .userId(i % 2 == 0 ? 42L : null)
+                            .productName("Organic chicken breast " + i)
+                            .genericName("Poultry")
+                            .imageUrl("https://cdn.example.com/images/" + i + "/main.jpg")
+                            .brands("Farm Fresh, Зелена долина")
+                            .nutriments(nutriments)
+                            .build();
+                })
+                .toList();
+    }
+}
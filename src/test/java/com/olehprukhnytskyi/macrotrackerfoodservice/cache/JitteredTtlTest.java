@@ -0,0 +1,39 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class JitteredTtlTest {
+    @Test
+    @DisplayName("When jitter is set, should spread TTLs below the base TTL plus grace")
+    void getTimeToLive_whenJittered_shouldStayWithinBounds() {
+        // Given
+        JitteredTtl ttl = new JitteredTtl(Duration.ofMinutes(30), 0.1, Duration.ofHours(6));
+        Set<Duration> seen = new HashSet<>();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            seen.add(ttl.getTimeToLive("key", "value"));
+        }
+
+        // Then
+        Duration max = Duration.ofMinutes(30).plus(Duration.ofHours(6));
+        Duration min = Duration.ofMinutes(27).plus(Duration.ofHours(6));
+        assertTrue(seen.size() > 1);
+        assertTrue(seen.stream().allMatch(d -> d.compareTo(min) >= 0 && d.compareTo(max) <= 0));
+    }
+
+    @Test
+    @DisplayName("When jitter is zero, should return the exact TTL")
+    void getTimeToLive_whenNoJitter_shouldReturnBase() {
+        JitteredTtl ttl = new JitteredTtl(Duration.ofHours(24), 0, Duration.ZERO);
+
+        assertEquals(Duration.ofHours(24), ttl.getTimeToLive("key", "value"));
+    }
+}
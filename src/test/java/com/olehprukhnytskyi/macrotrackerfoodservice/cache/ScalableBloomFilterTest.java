@@ -0,0 +1,63 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ScalableBloomFilterTest {
+    @Test
+    @DisplayName("When items were added, should never report them as absent")
+    void mightContain_whenAdded_shouldReturnTrue() {
+        // Given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+
+        // When
+        for (int i = 0; i < 5000; i++) {
+            filter.add("food-" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(filter.mightContain("food-" + i));
+        }
+        assertTrue(filter.stageCount() > 1);
+    }
+
+    @Test
+    @DisplayName("When grown past its capacity, should keep the false positive rate bounded")
+    void mightContain_whenGrown_shouldStayNearTargetRate() {
+        // Given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add(String.format("%013d", i));
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 20_000; i < 120_000; i++) {
+            if (filter.mightContain(String.format("%013d", i))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives / 100_000.0 < 0.02, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    @DisplayName("When an item is added twice, should count it once")
+    void add_whenDuplicate_shouldNotGrow() {
+        // Given
+        ScalableBloomFilter filter = new ScalableBloomFilter(10, 0.01);
+
+        // When
+        filter.add("4006381333931");
+        filter.add("4006381333931");
+
+        // Then
+        assertEquals(1, filter.size());
+    }
+}
@@ -0,0 +1,305 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+    @Mock
+    private CacheInvalidationPublisher publisher;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private FoodCacheKeyIndex keyIndex;
+
+    private ConcurrentMapCache remote;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = spy(new ConcurrentMapCache("food:data", false));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TwoLevelCache("food:data", Caffeine.newBuilder()
+                .maximumWeight(1024 * 1024)
+                .weigher(new CacheEntryWeigher())
+                .build(), remote, publisher, new SingleFlight("food:data", meterRegistry),
+                null, null, null);
+    }
+
+    @Test
+    @DisplayName("When value is in remote cache, should serve repeated reads from local cache")
+    void get_whenRemoteHit_shouldPopulateLocalCache() {
+        // Given
+        remote.put("1", "Apple");
+
+        // When
+        Object first = cache.get("1").get();
+        Object second = cache.get("1").get();
+
+        // Then
+        assertEquals("Apple", first);
+        assertEquals("Apple", second);
+        verify(remote, times(1)).get("1");
+    }
+
+    @Test
+    @DisplayName("When value is put, should write both levels and broadcast invalidation")
+    void put_shouldWriteBothLevelsAndPublish() {
+        // When
+        cache.put("1", "Apple");
+
+        // Then
+        assertEquals("Apple", cache.get("1").get());
+        verify(remote, never()).get(any());
+        verify(publisher).publish("food:data", "1");
+        assertEquals("Apple", remote.get("1").get());
+    }
+
+    @Test
+    @DisplayName("When value is evicted, should drop both levels and broadcast invalidation")
+    void evict_shouldDropBothLevelsAndPublish() {
+        // Given
+        cache.put("1", "Apple");
+
+        // When
+        cache.evict("1");
+
+        // Then
+        assertNull(remote.get("1"));
+        assertNull(cache.get("1"));
+        verify(publisher, times(2)).publish("food:data", "1");
+    }
+
+    @Test
+    @DisplayName("When local eviction is received, should keep remote value")
+    void evictLocal_shouldKeepRemoteValue() {
+        // Given
+        cache.put("1", "Apple");
+        remote.put("1", "Green apple");
+
+        // When
+        cache.evictLocal("1");
+
+        // Then
+        assertEquals("Green apple", cache.get("1").get());
+    }
+
+    @Test
+    @DisplayName("When concurrent misses hit the same key, should load it only once")
+    void getWithLoader_whenConcurrentMisses_shouldCoalesceLoads() throws Exception {
+        // Given
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "Apple";
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> cache.get("1", loader)));
+        }
+        while (meterRegistry.counter("cache.single.flight.coalesced", "cache", "food:data")
+                .count() < callers - 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("Apple", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, loads.get());
+        assertEquals("Apple", remote.get("1").get());
+        verify(publisher, never()).publish(any(), any());
+    }
+
+    @Test
+    @DisplayName("When loader fails, should wrap the cause and cache nothing")
+    void getWithLoader_whenLoaderFails_shouldThrowValueRetrievalException() {
+        // Given
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        // When
+        Cache.ValueRetrievalException exception = assertThrows(
+                Cache.ValueRetrievalException.class,
+                () -> cache.get("1", () -> {
+                    throw failure;
+                }));
+
+        // Then
+        assertSame(failure, exception.getCause());
+        assertNull(cache.get("1"));
+    }
+
+    @Test
+    @DisplayName("When remote entry is in its grace period, should serve it and refresh once")
+    void getWithLoader_whenRemoteEntryIsStale_shouldServeStaleAndRefresh() {
+        // Given
+        TwoLevelCache revalidated = revalidatedCache();
+        givenRemote("Apple", Duration.ofMinutes(5).toMillis());
+
+        // When
+        String served = revalidated.get("1", () -> "Green apple");
+
+        // Then
+        assertEquals("Apple", served);
+        assertEquals("Green apple", remote.get("1").get());
+        assertEquals(1.0, meterRegistry.get("cache.stale.refreshes").counter().count());
+    }
+
+    @Test
+    @DisplayName("When remote entry is in its grace period, should be a miss without a loader")
+    void get_whenRemoteEntryIsStale_shouldReturnMiss() {
+        // Given
+        TwoLevelCache revalidated = revalidatedCache();
+        givenRemote("Apple", Duration.ofMinutes(5).toMillis());
+
+        // When
+        Cache.ValueWrapper served = revalidated.get("1");
+
+        // Then
+        assertNull(served);
+        assertNull(revalidated.getAllLocal(List.of("1")).get("1"));
+    }
+
+    @Test
+    @DisplayName("When remote entry is fresh, should serve it without calling the loader")
+    void getWithLoader_whenRemoteEntryIsFresh_shouldNotRefresh() {
+        // Given
+        TwoLevelCache revalidated = revalidatedCache();
+        givenRemote("Apple", Duration.ofHours(2).toMillis());
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        String served = revalidated.get("1", () -> {
+            loads.incrementAndGet();
+            return "Green apple";
+        });
+
+        // Then
+        assertEquals("Apple", served);
+        assertEquals(0, loads.get());
+        verify(remote, never()).get("1");
+    }
+
+    @Test
+    @DisplayName("When a fresh entry nears expiry after slow loads, should refresh it early")
+    void getWithLoader_whenEntryNearsExpiry_shouldRefreshEarly() {
+        // Given
+        StaleRevalidator revalidator = new StaleRevalidator("food:data", redisTemplate,
+                RedisSerializer.java(), Duration.ZERO, 1.0, Runnable::run, meterRegistry);
+        revalidator.recordLoad(Duration.ofMillis(200).toNanos());
+        TwoLevelCache revalidated = revalidatedCache(revalidator);
+        givenRemote("Apple", 0L);
+
+        // When
+        String served = revalidated.get("1", () -> "Green apple");
+
+        // Then
+        assertEquals("Apple", served);
+        assertEquals("Green apple", remote.get("1").get());
+        assertEquals(1.0, meterRegistry.get("cache.early.refreshes").counter().count());
+    }
+
+    @Test
+    @DisplayName("When a page is cached, should record it in the key index")
+    void put_whenKeyIndexed_shouldRecordKey() {
+        // Given
+        TwoLevelCache indexed = indexedCache();
+        List<String> page = List.of("1", "2");
+
+        // When
+        indexed.put("window:rice", page);
+
+        // Then
+        verify(keyIndex).record("search:results", "window:rice", page);
+    }
+
+    @Test
+    @DisplayName("When a food changes, should evict the pages containing it everywhere")
+    void evictFoods_whenPagesIndexed_shouldEvictLocallyAndBroadcast() {
+        // Given
+        TwoLevelCache indexed = indexedCache();
+        indexed.put("window:rice", "page");
+        given(keyIndex.evict("search:results", List.of("1")))
+                .willReturn(Set.of("window:rice"));
+        remote.clear();
+
+        // When
+        Set<String> evicted = indexed.evictFoods(List.of("1"));
+
+        // Then
+        assertEquals(Set.of("window:rice"), evicted);
+        assertNull(indexed.get("window:rice"));
+        verify(publisher).publishAll("search:results", Set.of("window:rice"));
+    }
+
+    private TwoLevelCache indexedCache() {
+        return new TwoLevelCache("search:results", Caffeine.newBuilder()
+                .maximumWeight(1024 * 1024)
+                .weigher(new CacheEntryWeigher())
+                .build(), remote, publisher, new SingleFlight("search:results", meterRegistry),
+                null, null, keyIndex);
+    }
+
+    private TwoLevelCache revalidatedCache() {
+        return revalidatedCache(new StaleRevalidator("food:data", redisTemplate,
+                RedisSerializer.java(), Duration.ofHours(1), 1.0, Runnable::run, meterRegistry));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenRemote(String value, long remainingMillis) {
+        given(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of("food:data::1"))))
+                .willReturn(List.of(value, remainingMillis));
+    }
+
+    private TwoLevelCache revalidatedCache(StaleRevalidator revalidator) {
+        return new TwoLevelCache("food:data", Caffeine.newBuilder()
+                .maximumWeight(1024 * 1024)
+                .weigher(new CacheEntryWeigher())
+                .build(), remote, publisher, new SingleFlight("food:data", meterRegistry),
+                null, revalidator, null);
+    }
+}
@@ -0,0 +1,133 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.config.AdminAccessInterceptor;
+import com.olehprukhnytskyi.macrotrackerfoodservice.importer.FoodImportFormat;
+import com.olehprukhnytskyi.macrotrackerfoodservice.importer.FoodImportReport;
+import com.olehprukhnytskyi.macrotrackerfoodservice.importer.FoodImportService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExportService;
+import com.olehprukhnytskyi.util.CustomHeaders;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+class FoodAdminControllerTest {
+    @Mock
+    private FoodImportService foodImportService;
+    @Mock
+    private FoodExportService foodExportService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        new FoodAdminController(foodImportService, foodExportService))
+                .addMappedInterceptors(new String[] {AdminAccessInterceptor.ADMIN_PATHS},
+                        new AdminAccessInterceptor())
+                .build();
+    }
+
+    @Test
+    @DisplayName("When a non-admin imports foods, should return 403")
+    void importFoods_whenNotAdmin_shouldReturnForbidden() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/admin/foods/import")
+                        .header(CustomHeaders.X_USER_ID, 1L)
+                        .header(AdminAccessInterceptor.X_USER_ROLES, "USER")
+                        .contentType("application/x-ndjson")
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(foodImportService);
+    }
+
+    @Test
+    @DisplayName("When the caller sends no roles, should return 403")
+    void importFoods_whenRolesMissing_shouldReturnForbidden() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/admin/foods/import")
+                        .header(CustomHeaders.X_USER_ID, 1L)
+                        .param("file", "dump.csv"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(foodImportService);
+    }
+
+    @Test
+    @DisplayName("When an admin imports foods, should run the import")
+    void importFoods_whenAdmin_shouldImport() throws Exception {
+        // Given
+        given(foodImportService.importFoods(any(InputStream.class),
+                eq(FoodImportFormat.NDJSON), anyLong()))
+                .willReturn(new FoodImportReport(1, 1, 0, 0, 0, 0, 1, 1, 1.0, List.of()));
+
+        // When & Then
+        mockMvc.perform(post("/api/admin/foods/import")
+                        .header(CustomHeaders.X_USER_ID, 1L)
+                        .header(AdminAccessInterceptor.X_USER_ROLES, "USER, ADMIN")
+                        .contentType("application/x-ndjson")
+                        .content("{}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("When a non-admin exports the catalog, should return 403")
+    void exportFoods_whenNotAdmin_shouldReturnForbidden() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/admin/foods/export")
+                        .header(CustomHeaders.X_USER_ID, 1L)
+                        .header(AdminAccessInterceptor.X_USER_ROLES, "USER"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(foodExportService);
+    }
+
+    @Test
+    @DisplayName("When the caller sends no roles, should not export the catalog")
+    void exportFoods_whenRolesMissing_shouldReturnForbidden() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/admin/foods/export")
+                        .header(CustomHeaders.X_USER_ID, 1L))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(foodExportService);
+    }
+
+    @Test
+    @DisplayName("When the caller sends no user id, should not export the catalog")
+    void exportFoods_whenUserIdMissing_shouldReject() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/admin/foods/export")
+                        .header(AdminAccessInterceptor.X_USER_ROLES, "ADMIN"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(foodExportService);
+    }
+
+    @Test
+    @DisplayName("When an admin exports the catalog, should stream every food")
+    void exportFoods_whenAdmin_shouldExport() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/admin/foods/export")
+                        .header(CustomHeaders.X_USER_ID, 1L)
+                        .header(AdminAccessInterceptor.X_USER_ROLES, "admin"))
+                .andExpect(status().isOk());
+        verify(foodExportService).exportFoods(isNull(), isNull(), eq(false),
+                any(OutputStream.class));
+    }
+}
@@ -38,6 +38,8 @@ import com.olehprukhnytskyi.macrotrackerfoodservice.dto.NutrimentsPatchDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.NutrimentsMapper;
 import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
 import com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo.FoodRepository;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchHit;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.SuggestionHit;
 import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodService;
 import com.olehprukhnytskyi.macrotrackerfoodservice.service.GeminiService;
 import com.olehprukhnytskyi.macrotrackerfoodservice.service.ImageService;
@@ -199,11 +201,50 @@ class FoodControllerTest extends AbstractIntegrationTest {
         assertEquals(expected, mvcResult.getResponse().getContentAsString());
     }
 
+    @Test
+    @DisplayName("When barcode matches a stored code, should return 200 OK and DTO")
+    void findByBarcode_whenFoodExist_shouldReturn200AndDto() throws Exception {
+        // Given
+        foodRepository.save(Food.builder()
+                .id("96385074")
+                .code("96385074")
+                .userId(1L)
+                .productName("Oat drink")
+                .build());
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(
+                get("/api/foods/barcode/0000096385074"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        FoodResponseDto actual = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(), FoodResponseDto.class);
+        assertEquals("96385074", actual.getId());
+        assertEquals("Oat drink", actual.getProductName());
+    }
+
+    @Test
+    @DisplayName("When barcode check digit is invalid, should return 400 Bad Request")
+    void findByBarcode_whenCheckDigitIsInvalid_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/foods/barcode/96385075"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("When food exist, should return 200 OK and DTO")
     void findByQuery_whenFoodExist_shouldReturn200AndDto() throws Exception {
         // Given
-        SearchResponse<Food> elasticResponse = generateSearchResponse(List.of(food));
+        FoodSearchHit hit = FoodSearchHit.builder()
+                .code(food.getCode())
+                .productName(food.getProductName())
+                .genericName(food.getGenericName())
+                .brands(food.getBrands())
+                .imageUrl(food.getImageUrl())
+                .nutriments(food.getNutriments())
+                .build();
+        SearchResponse<FoodSearchHit> elasticResponse = generateSearchResponse(List.of(hit));
 
         Pagination pagination = new Pagination(0, 10, 1);
         PagedResponse<FoodResponseDto> pagedResponse = new PagedResponse<>(
@@ -211,9 +252,8 @@ class FoodControllerTest extends AbstractIntegrationTest {
         String expected = objectMapper.writeValueAsString(pagedResponse);
 
         when(elasticsearchClient.search(
-                ArgumentMatchers.<Function<SearchRequest.Builder,
-                        ObjectBuilder<SearchRequest>>>any(),
-                eq(Food.class)
+                any(SearchRequest.class),
+                eq(FoodSearchHit.class)
         )).thenReturn(elasticResponse);
 
         // When
@@ -240,12 +280,11 @@ class FoodControllerTest extends AbstractIntegrationTest {
                 Collections.emptyList(), pagination);
         String expected = objectMapper.writeValueAsString(pagedResponse);
 
-        SearchResponse<Food> elasticResponse = generateSearchResponse(List.of());
+        SearchResponse<FoodSearchHit> elasticResponse = generateSearchResponse(List.of());
 
         when(elasticsearchClient.search(
-                ArgumentMatchers.<Function<SearchRequest.Builder,
-                        ObjectBuilder<SearchRequest>>>any(),
-                eq(Food.class)
+                any(SearchRequest.class),
+                eq(FoodSearchHit.class)
         )).thenReturn(elasticResponse);
 
         // When
@@ -338,7 +377,8 @@ class FoodControllerTest extends AbstractIntegrationTest {
     void getSearchSuggestions_whenSuggestionsExist_shouldReturnOkAndList()
             throws Exception {
         // Given
-        SearchResponse<Food> searchResponse = generateSearchResponse(List.of(food));
+        SearchResponse<SuggestionHit> searchResponse = generateSearchResponse(
+                List.of(new SuggestionHit(food.getProductName())));
 
         List<String> mockSuggestions = List.of("Product name");
         String expected = objectMapper.writeValueAsString(mockSuggestions);
@@ -346,7 +386,7 @@ class FoodControllerTest extends AbstractIntegrationTest {
         when(elasticsearchClient.search(
                 ArgumentMatchers.<Function<SearchRequest.Builder,
                         ObjectBuilder<SearchRequest>>>any(),
-                eq(Food.class)
+                eq(SuggestionHit.class)
         )).thenReturn(searchResponse);
 
         // When & Then
@@ -363,12 +403,12 @@ class FoodControllerTest extends AbstractIntegrationTest {
     void getSearchSuggestions_whenNoSuggestions_shouldReturnNoContent()
             throws Exception {
         // Given
-        SearchResponse<Food> searchResponse = generateSearchResponse(List.of());
+        SearchResponse<SuggestionHit> searchResponse = generateSearchResponse(List.of());
 
         when(elasticsearchClient.search(
                 ArgumentMatchers.<Function<SearchRequest.Builder,
                         ObjectBuilder<SearchRequest>>>any(),
-                eq(Food.class)
+                eq(SuggestionHit.class)
         )).thenReturn(searchResponse);
 
         // When & Then
@@ -0,0 +1,260 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.dao;
+
+import static com.olehprukhnytskyi.macrotrackerfoodservice.search.QueryNormalizer.normalize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.olehprukhnytskyi.exception.BadRequestException;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodSearchFilterDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.popularity.QueryPopularityService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.SearchProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.resilience.CircuitBreaker;
+import com.olehprukhnytskyi.macrotrackerfoodservice.resilience.RequestHedger;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchHit;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchPage;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.SearchCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FoodSearchDaoTest {
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+    @Mock
+    private ElasticsearchAsyncClient elasticsearchAsyncClient;
+    @Mock
+    private QueryPopularityService popularityService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SearchProperties searchProperties;
+    private FoodSearchDao foodSearchDao;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("elasticsearch",
+                new CircuitBreaker.Settings(10, 5, 0.5, Duration.ofSeconds(1),
+                        Duration.ofSeconds(30), 1), e -> true, meterRegistry);
+        RequestHedger requestHedger = new RequestHedger(new RequestHedger.Settings(0.95,
+                Duration.ofMillis(20), Duration.ofSeconds(1), 0.05, 100), meterRegistry);
+        searchProperties = new SearchProperties();
+        foodSearchDao = new FoodSearchDao(elasticsearchClient, popularityService, meterRegistry,
+                circuitBreaker, elasticsearchAsyncClient, requestHedger, searchProperties);
+    }
+
+    @Test
+    @DisplayName("When the exact tier fills the window, should skip the fuzzy tier")
+    void search_whenExactTierFillsWindow_shouldSkipFuzzyTier() throws IOException {
+        // Given
+        given(elasticsearchClient.search(anySearch(), eq(FoodSearchHit.class)))
+                .willReturn(response(hits(0, 20)));
+
+        // When
+        List<FoodSearchHit> result = foodSearchDao.search(normalize("chicken"),
+                FoodFilter.NONE, 10, 10);
+
+        // Then
+        assertEquals("10", result.getFirst().id());
+        assertEquals(10, result.size());
+        verify(elasticsearchClient, times(1)).search(anySearch(), eq(FoodSearchHit.class));
+        assertEquals(20.0, meterRegistry.get("search.tier.hits").tag("tier", "exact")
+                .summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("When the exact tier is short, should append unseen fuzzy hits")
+    void search_whenExactTierIsShort_shouldMergeFuzzyTier() throws IOException {
+        // Given
+        given(elasticsearchClient.search(anySearch(), eq(FoodSearchHit.class)))
+                .willReturn(response(hits(0, 3)), response(hits(1, 6)));
+
+        // When
+        List<FoodSearchHit> result = foodSearchDao.search(normalize("chiken"),
+                FoodFilter.NONE, 0, 10);
+
+        // Then
+        assertEquals(List.of("0", "1", "2", "3", "4", "5", "6"),
+                result.stream().map(FoodSearchHit::id).toList());
+        assertEquals(1, meterRegistry.get("search.tier.latency").tag("tier", "fuzzy")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("When the page is past the tiered window, should fetch only that page")
+    void search_whenPagePastTieredWindow_shouldUseFromAndSize() throws IOException {
+        // Given
+        given(elasticsearchClient.search(anySearch(), eq(FoodSearchHit.class)))
+                .willReturn(response(hits(500, 10)));
+
+        // When
+        List<FoodSearchHit> result = foodSearchDao.search(normalize("chicken"),
+                FoodFilter.NONE, 500, 10);
+
+        // Then
+        assertEquals("500", result.getFirst().id());
+        ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient).search(request.capture(), eq(FoodSearchHit.class));
+        assertEquals(500, request.getValue().from());
+        assertEquals(10, request.getValue().size());
+        assertEquals(1, meterRegistry.get("search.tier.latency").tag("tier", "combined")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("When the page is past the max result window, should throw BadRequestException")
+    void search_whenPagePastMaxResultWindow_shouldThrowException() {
+        // When & Then
+        assertThrows(BadRequestException.class, () -> foodSearchDao.search(
+                normalize("chicken"), FoodFilter.NONE, 9995, 10));
+        verifyNoInteractions(elasticsearchClient);
+    }
+
+    @Test
+    @DisplayName("When hedging is enabled, should search through the async client")
+    void search_whenHedgingEnabled_shouldUseAsyncClient() throws IOException {
+        // Given
+        searchProperties.getHedge().setEnabled(true);
+        given(elasticsearchAsyncClient.search(anySearch(), eq(FoodSearchHit.class)))
+                .willReturn(CompletableFuture.completedFuture(response(hits(0, 10))));
+
+        // When
+        List<FoodSearchHit> result = foodSearchDao.search(normalize("chicken"),
+                FoodFilter.NONE, 0, 10);
+
+        // Then
+        assertEquals(10, result.size());
+        verifyNoInteractions(elasticsearchClient);
+        assertEquals(1.0, meterRegistry.get("search.hedge.requests").counter().count());
+    }
+
+    @Test
+    @DisplayName("When the query mixes text and barcodes, should match every barcode on code")
+    void search_whenQueryHasBarcodes_shouldAddCodeTermsPerBarcode() throws IOException {
+        // Given
+        given(elasticsearchClient.search(anySearch(), eq(FoodSearchHit.class)))
+                .willReturn(response(hits(0, 10)));
+
+        // When
+        foodSearchDao.search(normalize("milk 4006381333931 5901234123457"),
+                FoodFilter.NONE, 0, 10);
+
+        // Then
+        ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient).search(request.capture(), eq(FoodSearchHit.class));
+        List<String> codes = request.getValue().query().bool().should().stream()
+                .filter(Query::isTerms)
+                .map(query -> query.terms().terms().value().getFirst().stringValue())
+                .toList();
+        assertEquals(List.of("4006381333931", "5901234123457"), codes);
+    }
+
+    @Test
+    @DisplayName("When a code fails the GTIN check, should still match it exactly on code")
+    void search_whenCodeFailsChecksum_shouldAddCodeTerm() throws IOException {
+        // Given
+        given(elasticsearchClient.search(anySearch(), eq(FoodSearchHit.class)))
+                .willReturn(response(hits(0, 10)));
+
+        // When
+        foodSearchDao.search(normalize("2000000000012"), FoodFilter.NONE, 0, 10);
+
+        // Then
+        ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient).search(request.capture(), eq(FoodSearchHit.class));
+        List<String> codes = request.getValue().query().bool().should().stream()
+                .filter(Query::isTerm)
+                .map(query -> query.term().value().stringValue())
+                .toList();
+        assertEquals(List.of("2000000000012"), codes);
+    }
+
+    @Test
+    @DisplayName("When paging with a cursor, should apply the filter and both tiers")
+    void searchAfter_whenFilterGiven_shouldFilterTieredQuery() throws IOException {
+        // Given
+        FoodSearchFilterDto filterDto = new FoodSearchFilterDto();
+        filterDto.setBrand("Farm Fresh");
+        given(elasticsearchClient.search(anySearch(), eq(FoodSearchHit.class)))
+                .willReturn(response(hits(0, 2)));
+
+        // When
+        FoodSearchPage page = foodSearchDao.searchAfter(normalize("chicken"),
+                FoodFilter.from(filterDto), new SearchCursor("pit-1", 1.5d, "11111111"), 10);
+
+        // Then
+        assertNull(page.next());
+        ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient).search(request.capture(), eq(FoodSearchHit.class));
+        BoolQuery bool = request.getValue().query().bool();
+        assertEquals(2, bool.should().size());
+        assertEquals("farm fresh", bool.filter().getFirst().match().query().stringValue());
+        assertEquals("pit-1", request.getValue().pit().id());
+    }
+
+    @Test
+    @DisplayName("When typeahead already has suggestions, should rank items with both tiers")
+    void typeaheadHits_shouldUseCombinedTierQuery() throws IOException {
+        // Given
+        given(elasticsearchClient.search(anySearch(), eq(FoodSearchHit.class)))
+                .willReturn(response(hits(0, 3)));
+
+        // When
+        List<FoodSearchHit> result = foodSearchDao.typeaheadHits(normalize("ap"), 10);
+
+        // Then
+        assertEquals(3, result.size());
+        ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient).search(request.capture(), eq(FoodSearchHit.class));
+        assertEquals(2, request.getValue().query().bool().should().size());
+        assertEquals(10, request.getValue().size());
+    }
+
+    private static SearchRequest anySearch() {
+        return ArgumentMatchers.any(SearchRequest.class);
+    }
+
+    private static List<FoodSearchHit> hits(int from, int count) {
+        return IntStream.range(from, from + count)
+                .mapToObj(i -> FoodSearchHit.builder().id(String.valueOf(i)).build())
+                .toList();
+    }
+
+    private static SearchResponse<FoodSearchHit> response(List<FoodSearchHit> sources) {
+        List<Hit<FoodSearchHit>> hits = sources.stream()
+                .map(source -> Hit.<FoodSearchHit>of(h -> h.index(FoodSearchDao.INDEX)
+                        .id(source.id())
+                        .source(source)))
+                .toList();
+        return SearchResponse.of(r -> r
+                .hits(h -> h.hits(hits))
+                .took(1)
+                .timedOut(false)
+                .shards(s -> s.successful(1).failed(0).total(1)));
+    }
+}
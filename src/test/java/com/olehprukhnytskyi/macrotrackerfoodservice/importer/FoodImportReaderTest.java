@@ -0,0 +1,111 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FoodImportReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("When NDJSON uses OpenFoodFacts names, should map nested nutriments")
+    void next_whenOpenFoodFactsNdjson_shouldMapFields() throws IOException {
+        // Given
+        String dump = """
+                {"code":"40063813","product_name":"Oats","nutriments":{"energy-kcal_100g":372}}
+
+                {"code":"96385074","productName":"Milk","calories":"64"}
+                """;
+
+        // When
+        try (FoodImportReader reader = reader(dump.getBytes(StandardCharsets.UTF_8),
+                FoodImportFormat.NDJSON)) {
+            FoodImportRow first = reader.next();
+            FoodImportRow second = reader.next();
+
+            // Then
+            assertEquals("Oats", first.request().getProductName());
+            assertEquals(new BigDecimal("372"), first.request().getNutriments().getCalories());
+            assertEquals(3, second.line());
+            assertEquals("Milk", second.request().getProductName());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("When a gzipped tab separated dump is read, should split on tabs")
+    void next_whenGzippedTsv_shouldDecompressAndSplit() throws IOException {
+        // Given
+        String dump = "code\tproduct_name\tbrands\tfat_100g\n"
+                + "4006381333931\tRye bread\t\t1.2\n";
+
+        // When
+        try (FoodImportReader reader = reader(gzip(dump), FoodImportFormat.CSV)) {
+            FoodImportRow row = reader.next();
+
+            // Then
+            assertEquals("4006381333931", row.request().getCode());
+            assertEquals("Rye bread", row.request().getProductName());
+            assertNull(row.request().getBrands());
+            assertEquals(new BigDecimal("1.2"), row.request().getNutriments().getFat());
+        }
+    }
+
+    @Test
+    @DisplayName("When a quoted CSV field spans lines, should keep it in one row")
+    void next_whenQuotedFieldSpansLines_shouldReadOneRow() throws IOException {
+        // Given
+        String dump = "code,product_name,calories\n"
+                + "96385074,\"Milk, \"\"whole\"\"\n3.5%\",64\n"
+                + "40063813,Tea,1\n";
+
+        // When
+        try (FoodImportReader reader = reader(dump.getBytes(StandardCharsets.UTF_8),
+                FoodImportFormat.CSV)) {
+            FoodImportRow first = reader.next();
+            FoodImportRow second = reader.next();
+
+            // Then
+            assertEquals("Milk, \"whole\"\n3.5%", first.request().getProductName());
+            assertEquals(4, second.line());
+        }
+    }
+
+    @Test
+    @DisplayName("When a row is malformed, should return it with an error and keep reading")
+    void next_whenRowIsMalformed_shouldReturnError() throws IOException {
+        // Given
+        String dump = "{\"code\":\"96385074\",\"calories\":\"abc\"}\n{oops\n{\"code\":\"1\"}\n";
+
+        // When
+        try (FoodImportReader reader = reader(dump.getBytes(StandardCharsets.UTF_8),
+                FoodImportFormat.NDJSON)) {
+            // Then
+            assertEquals("Invalid number for calories: abc", reader.next().error());
+            assertNotNull(reader.next().error());
+            assertEquals("1", reader.next().request().getCode());
+        }
+    }
+
+    private FoodImportReader reader(byte[] dump, FoodImportFormat format) throws IOException {
+        return new FoodImportReader(new ByteArrayInputStream(dump), format, objectMapper);
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
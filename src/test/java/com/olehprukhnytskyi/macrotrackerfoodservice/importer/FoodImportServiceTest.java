@@ -0,0 +1,138 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.olehprukhnytskyi.exception.BadRequestException;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodRequestDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.ImportProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodCodeGenerator;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExistenceFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.core.RedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class FoodImportServiceTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations bulkOperations;
+    @Mock
+    private FoodMapper foodMapper;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private FoodExistenceFilter foodExistenceFilter;
+
+    private ImportProperties properties;
+    private FoodImportService foodImportService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ImportProperties();
+        foodImportService = new FoodImportService(mongoTemplate, foodMapper,
+                new FoodCodeGenerator(null),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                cacheManager, redisTemplate, foodExistenceFilter, properties,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("When a dump is imported, should dedupe, reject invalid rows and report")
+    void importFoods_whenMixedRows_shouldUpsertValidRowsOnce() {
+        // Given
+        String dump = """
+                {"code":"40063813","product_name":"Tea","calories":1}
+                {"code":"40063813","product_name":"Green tea","calories":1}
+                {"code":"96385074","calories":64}
+                {"code":"123","product_name":"Short code","calories":1}
+                {"code":"96385074","product_name":"Milk","calories":64}
+                """;
+        given(foodMapper.toModel(any(FoodRequestDto.class))).willAnswer(invocation -> {
+            FoodRequestDto request = invocation.getArgument(0);
+            return Food.builder()
+                    .code(request.getCode())
+                    .productName(request.getProductName())
+                    .build();
+        });
+        given(mongoTemplate.getConverter()).willReturn(converter());
+        given(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Food.class))
+                .willReturn(bulkOperations);
+        given(bulkOperations.execute()).willReturn(BulkWriteResult.acknowledged(0, 1, 0, 1,
+                List.of(new BulkWriteUpsert(0, new BsonString("40063813"))), List.of()));
+
+        // When
+        FoodImportReport report = foodImportService.importFoods(
+                new ByteArrayInputStream(dump.getBytes(StandardCharsets.UTF_8)),
+                FoodImportFormat.NDJSON, 0);
+
+        // Then
+        assertEquals(5, report.rowsRead());
+        assertEquals(1, report.inserted());
+        assertEquals(1, report.updated());
+        assertEquals(1, report.duplicates());
+        assertEquals(2, report.rejected());
+        assertEquals(5, report.checkpoint());
+        assertEquals(List.of(3L, 4L), report.rejects().stream()
+                .map(FoodImportReject::line)
+                .toList());
+        verify(bulkOperations, times(2)).upsert(any(Query.class), any(Update.class));
+        verify(foodExistenceFilter).addAll(List.of("40063813"));
+        verify(redisTemplate).delete(List.of("food:data::96385074"));
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE,
+                context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    @Test
+    @DisplayName("When a file outside the import directory is requested, should reject it")
+    void importFile_whenPathEscapesDirectory_shouldThrowException(@TempDir Path directory) {
+        // Given
+        properties.setDirectory(directory);
+
+        // When & Then
+        assertThrows(BadRequestException.class,
+                () -> foodImportService.importFile("../foods.ndjson", null, 0));
+    }
+}
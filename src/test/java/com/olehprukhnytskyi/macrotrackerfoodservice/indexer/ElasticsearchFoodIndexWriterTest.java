@@ -0,0 +1,116 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ElasticsearchFoodIndexWriterTest {
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+    @Mock
+    private FoodReindexService reindexService;
+
+    @InjectMocks
+    private ElasticsearchFoodIndexWriter indexWriter;
+
+    @Test
+    @DisplayName("When a batch changes the same food twice, should only send the latest change")
+    void write_whenSameFoodChangesTwice_shouldSendLatestChange() throws IOException {
+        // Given
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willReturn(BulkResponse.of(r -> r
+                .errors(false).took(1).items(List.of())));
+        List<FoodChange> changes = List.of(
+                new FoodChange("1", Map.of("product_name", "Apple"), "t1", Instant.now()),
+                new FoodChange("2", Map.of("product_name", "Pear"), "t2", Instant.now()),
+                new FoodChange("1", null, "t3", Instant.now()));
+
+        // When
+        int rejected = indexWriter.write(changes);
+
+        // Then
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(elasticsearchClient).bulk(captor.capture());
+        List<BulkOperation> operations = captor.getValue().operations();
+        assertEquals(0, rejected);
+        assertEquals(2, operations.size());
+        assertEquals("2", operations.get(0).index().id());
+        assertEquals("1", operations.get(1).delete().id());
+    }
+
+    @Test
+    @DisplayName("When a reindex is running, should mirror changes into the new index")
+    void write_whenReindexIsRunning_shouldMirrorChanges() throws IOException {
+        // Given
+        given(reindexService.activeTarget()).willReturn(Optional.of("macro_tracker.foods_v2"));
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willReturn(BulkResponse.of(r -> r
+                .errors(false).took(1).items(List.of())));
+
+        // When
+        indexWriter.write(List.of(
+                new FoodChange("1", Map.of("product_name", "Apple"), "t1", Instant.now())));
+
+        // Then
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(elasticsearchClient).bulk(captor.capture());
+        List<BulkOperation> operations = captor.getValue().operations();
+        assertEquals(2, operations.size());
+        assertEquals("macro_tracker.foods", operations.get(0).index().index());
+        assertEquals("macro_tracker.foods_v2", operations.get(1).index().index());
+    }
+
+    @Test
+    @DisplayName("When a reindex is running, should record deletes for it to replay")
+    void write_whenReindexIsRunning_shouldRecordDeletes() throws IOException {
+        // Given
+        given(reindexService.activeTarget()).willReturn(Optional.of("macro_tracker.foods_v2"));
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willReturn(BulkResponse.of(r -> r
+                .errors(false).took(1).items(List.of())));
+
+        // When
+        indexWriter.write(List.of(
+                new FoodChange("1", Map.of("product_name", "Apple"), "t1", Instant.now()),
+                new FoodChange("2", null, "t2", Instant.now())));
+
+        // Then
+        verify(reindexService).recordDeletes("macro_tracker.foods_v2", List.of("2"));
+    }
+
+    @Test
+    @DisplayName("When Elasticsearch throttles an item, should fail the batch for a retry")
+    void write_whenItemIsThrottled_shouldThrowException() throws IOException {
+        // Given
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willReturn(BulkResponse.of(r -> r
+                .errors(true).took(1).items(i -> i
+                        .operationType(OperationType.Index)
+                        .index("macro_tracker.foods")
+                        .id("1")
+                        .status(429)
+                        .error(e -> e.type("es_rejected_execution_exception")
+                                .reason("queue full")))));
+
+        // When & Then
+        assertThrows(IOException.class, () -> indexWriter.write(List.of(
+                new FoodChange("1", Map.of("product_name", "Apple"), "t1", Instant.now()))));
+    }
+}
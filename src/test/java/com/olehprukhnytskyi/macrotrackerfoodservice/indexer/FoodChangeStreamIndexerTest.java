@@ -0,0 +1,308 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.IndexerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FoodChangeStreamIndexerTest {
+    private InMemoryChangeSource changeSource;
+    private RecordingIndexWriter indexWriter;
+    private InMemoryResumeTokenStore tokenStore;
+    private InMemoryLockProvider lockProvider;
+    private IndexerProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private FoodChangeStreamIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        changeSource = new InMemoryChangeSource();
+        indexWriter = new RecordingIndexWriter();
+        tokenStore = new InMemoryResumeTokenStore();
+        lockProvider = new InMemoryLockProvider();
+        properties = new IndexerProperties();
+        properties.setBatchSize(2);
+        properties.setFlushInterval(Duration.ofMillis(50));
+        properties.setRetryBackoff(Duration.ofMillis(10));
+        properties.setLeaseRenewInterval(Duration.ofMillis(20));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (indexer != null && indexer.isRunning()) {
+            indexer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("When changes arrive, should write them in batches and persist the last token")
+    void start_whenChangesArrive_shouldWriteBatchesAndCheckpoint() throws Exception {
+        // Given
+        properties.setFlushInterval(Duration.ofMillis(500));
+        changeSource.emit(change("1", "t1"), change("2", "t2"), delete("3", "t3"));
+        indexer = newIndexer();
+
+        // When
+        indexer.start();
+        awaitCheckpoint("t3");
+        indexer.stop();
+
+        // Then
+        assertEquals(List.of("1", "2", "3"), indexWriter.writtenIds());
+        assertEquals(2, indexWriter.batches.getFirst().size());
+        assertEquals(2.0, meterRegistry.get("indexer.changes")
+                .tag("operation", "index").counter().count());
+        assertEquals(1.0, meterRegistry.get("indexer.changes")
+                .tag("operation", "delete").counter().count());
+    }
+
+    @Test
+    @DisplayName("When a checkpoint exists, should resume the change stream after it")
+    void start_whenCheckpointExists_shouldResumeAfterIt() throws Exception {
+        // Given
+        tokenStore.save(properties.getCheckpointId(), "t7");
+        indexer = newIndexer();
+
+        // When
+        indexer.start();
+        awaitCondition(() -> !changeSource.openedWith.isEmpty());
+        indexer.stop();
+
+        // Then
+        assertEquals("t7", changeSource.openedWith.getFirst());
+    }
+
+    @Test
+    @DisplayName("When the bulk write fails, should retry without advancing the checkpoint")
+    void start_whenWriteFails_shouldRetryBeforeCheckpoint() throws Exception {
+        // Given
+        indexWriter.failures.set(2);
+        properties.setFlushInterval(Duration.ofSeconds(2));
+        changeSource.emit(change("1", "t1"), change("2", "t2"));
+        indexer = newIndexer();
+
+        // When
+        indexer.start();
+        awaitCheckpoint("t2");
+        indexer.stop();
+
+        // Then
+        assertEquals(3, indexWriter.attempts.get());
+        assertEquals(2.0, meterRegistry.get("indexer.bulk.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("When the batch is not full, should flush it after the flush interval")
+    void start_whenBatchIsNotFull_shouldFlushOnInterval() throws Exception {
+        // Given
+        properties.setBatchSize(100);
+        changeSource.emit(change("1", "t1"));
+        indexer = newIndexer();
+
+        // When
+        indexer.start();
+        awaitCheckpoint("t1");
+
+        // Then
+        assertEquals(List.of("1"), indexWriter.writtenIds());
+        assertTrue(indexer.isRunning());
+    }
+
+    @Test
+    @DisplayName("When another node holds the lease, should not tail the change stream")
+    void start_whenLeaseHeldElsewhere_shouldStandBy() throws Exception {
+        // Given
+        lockProvider.holder.set("other-node");
+        changeSource.emit(change("1", "t1"));
+        indexer = newIndexer();
+
+        // When
+        indexer.start();
+        Thread.sleep(100);
+
+        // Then
+        assertTrue(changeSource.openedWith.isEmpty());
+        assertTrue(indexWriter.batches.isEmpty());
+    }
+
+    @Test
+    @DisplayName("When the lease is released elsewhere, should take over from the checkpoint")
+    void start_whenLeaseFreed_shouldResumeFromSharedCheckpoint() throws Exception {
+        // Given
+        lockProvider.holder.set("other-node");
+        indexer = newIndexer();
+        indexer.start();
+        Thread.sleep(50);
+        tokenStore.save(properties.getCheckpointId(), "t9");
+
+        // When
+        lockProvider.holder.set(null);
+        awaitCondition(() -> !changeSource.openedWith.isEmpty());
+
+        // Then
+        assertEquals("t9", changeSource.openedWith.getFirst());
+    }
+
+    @Test
+    @DisplayName("When the lease cannot be renewed, should stop writing to the index")
+    void start_whenLeaseLost_shouldStopWriting() throws Exception {
+        // Given
+        properties.setBatchSize(100);
+        changeSource.emit(change("1", "t1"));
+        indexer = newIndexer();
+        indexer.start();
+        awaitCheckpoint("t1");
+
+        // When
+        lockProvider.holder.set("other-node");
+        Thread.sleep(100);
+        changeSource.emit(change("2", "t2"));
+        Thread.sleep(100);
+
+        // Then
+        assertEquals(List.of("1"), indexWriter.writtenIds());
+        assertEquals("t1", tokenStore.tokens.get(properties.getCheckpointId()));
+    }
+
+    private FoodChangeStreamIndexer newIndexer() {
+        return new FoodChangeStreamIndexer(changeSource, indexWriter, tokenStore, properties,
+                lockProvider, meterRegistry);
+    }
+
+    private void awaitCheckpoint(String token) throws InterruptedException {
+        awaitCondition(() -> token.equals(tokenStore.tokens.get(properties.getCheckpointId())));
+    }
+
+    private void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static FoodChange change(String id, String token) {
+        return new FoodChange(id, Map.of("product_name", "Food " + id), token, Instant.now());
+    }
+
+    private static FoodChange delete(String id, String token) {
+        return new FoodChange(id, null, token, Instant.now());
+    }
+
+    private static class InMemoryChangeSource implements FoodChangeSource {
+        private final ConcurrentLinkedQueue<FoodChange> pending = new ConcurrentLinkedQueue<>();
+        private final List<String> openedWith = new CopyOnWriteArrayList<>();
+
+        void emit(FoodChange... changes) {
+            pending.addAll(List.of(changes));
+        }
+
+        @Override
+        public Cursor open(String resumeToken) {
+            openedWith.add(String.valueOf(resumeToken));
+            return new Cursor() {
+                @Override
+                public FoodChange tryNext() {
+                    FoodChange change = pending.poll();
+                    if (change == null) {
+                        try {
+                            Thread.sleep(5);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                    return change;
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+
+    private static class RecordingIndexWriter implements FoodIndexWriter {
+        private final List<List<FoodChange>> batches = new CopyOnWriteArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        @Override
+        public int write(List<FoodChange> changes) throws IOException {
+            attempts.incrementAndGet();
+            if (failures.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+                throw new IOException("Elasticsearch unavailable");
+            }
+            batches.add(List.copyOf(changes));
+            return 0;
+        }
+
+        List<String> writtenIds() {
+            List<String> ids = new ArrayList<>();
+            batches.forEach(batch -> batch.forEach(change -> ids.add(change.id())));
+            return ids;
+        }
+    }
+
+    private static class InMemoryLockProvider implements LockProvider {
+        private final AtomicReference<String> holder = new AtomicReference<>();
+
+        @Override
+        public Optional<SimpleLock> lock(LockConfiguration configuration) {
+            String owner = "node-" + System.identityHashCode(configuration);
+            if (!holder.compareAndSet(null, owner)) {
+                return Optional.empty();
+            }
+            return Optional.of(new SimpleLock() {
+                @Override
+                public void unlock() {
+                    holder.compareAndSet(owner, null);
+                }
+
+                @Override
+                public Optional<SimpleLock> extend(Duration lockAtMostFor,
+                                                   Duration lockAtLeastFor) {
+                    return owner.equals(holder.get()) ? Optional.of(this) : Optional.empty();
+                }
+            });
+        }
+    }
+
+    private static class InMemoryResumeTokenStore implements ResumeTokenStore {
+        private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<String> load(String checkpointId) {
+            return Optional.ofNullable(tokens.get(checkpointId));
+        }
+
+        @Override
+        public void save(String checkpointId, String resumeToken) {
+            tokens.put(checkpointId, resumeToken);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.indexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.GetAliasResponse;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import com.olehprukhnytskyi.exception.ConflictException;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.ReindexCheckpoint;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.IndexerProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.ReindexProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo.ReindexCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+@ExtendWith(MockitoExtension.class)
+class FoodReindexServiceTest {
+    private static final String TARGET = "macro_tracker.foods_v2";
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+    @Mock
+    private ElasticsearchIndicesClient indicesClient;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private ReindexCheckpointRepository checkpointRepository;
+
+    private IndexerProperties indexerProperties;
+    private FoodReindexService reindexService;
+
+    @BeforeEach
+    void setUp() {
+        indexerProperties = new IndexerProperties();
+        indexerProperties.setEnabled(true);
+        reindexService = new FoodReindexService(elasticsearchClient, mongoTemplate,
+                checkpointRepository, new ReindexProperties(), indexerProperties,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("When the change-stream indexer is disabled, should refuse to start")
+    void start_whenIndexerDisabled_shouldThrowException() {
+        // Given
+        indexerProperties.setEnabled(false);
+
+        // When & Then
+        assertThrows(ConflictException.class, () -> reindexService.start());
+        verifyNoInteractions(checkpointRepository, elasticsearchClient);
+    }
+
+    @Test
+    @DisplayName("When an unfinished reindex exists, should expose its index as the target")
+    void activeTarget_whenReindexUnfinished_shouldReturnCheckpointIndex() {
+        // Given
+        given(checkpointRepository.findFirstByStatusInOrderByStartedAtDesc(any()))
+                .willReturn(Optional.of(checkpoint(List.of())));
+
+        // When
+        Optional<String> target = reindexService.activeTarget();
+
+        // Then
+        assertEquals(Optional.of(TARGET), target);
+    }
+
+    @Test
+    @DisplayName("When foods were deleted during the copy, should delete them before the swap")
+    @SuppressWarnings("unchecked")
+    void start_whenFoodsDeletedDuringCopy_shouldReplayDeletesBeforeSwap() throws IOException {
+        // Given
+        ReindexCheckpoint checkpoint = checkpoint(List.of("1", "2"));
+        given(checkpointRepository.findFirstByStatusInOrderByStartedAtDesc(any()))
+                .willReturn(Optional.of(checkpoint));
+        given(checkpointRepository.findById(TARGET)).willReturn(Optional.of(checkpoint));
+        given(mongoTemplate.find(any(Query.class), eq(Document.class), any()))
+                .willReturn(List.of(new Document("_id", "2")));
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willReturn(BulkResponse.of(r -> r
+                .errors(false).took(1).items(List.of())));
+        given(elasticsearchClient.indices()).willReturn(indicesClient);
+        given(indicesClient.existsAlias(any(Function.class))).willReturn(new BooleanResponse(true));
+        given(indicesClient.getAlias(any(Function.class))).willReturn(
+                GetAliasResponse.of(a -> a));
+
+        // When
+        reindexService.start();
+
+        // Then
+        verify(indicesClient, timeout(2000)).updateAliases(any(Function.class));
+        ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(elasticsearchClient).bulk(request.capture());
+        List<BulkOperation> operations = request.getValue().operations();
+        assertEquals(1, operations.size());
+        assertEquals("1", operations.getFirst().delete().id());
+        assertEquals(TARGET, request.getValue().index());
+    }
+
+    private static ReindexCheckpoint checkpoint(List<String> deletedIds) {
+        return ReindexCheckpoint.builder()
+                .id(TARGET)
+                .status(ReindexCheckpoint.Status.RUNNING)
+                .numberOfReplicas("1")
+                .refreshInterval("1s")
+                .partitions(List.of(new ReindexCheckpoint.Partition(null, null, "9", 9, true)))
+                .deletedIds(deletedIds)
+                .startedAt(Instant.now())
+                .build();
+    }
+}
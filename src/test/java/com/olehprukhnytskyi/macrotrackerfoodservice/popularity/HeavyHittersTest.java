@@ -0,0 +1,89 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.popularity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HeavyHittersTest {
+    @Test
+    @DisplayName("Sketch estimates should never undercount a query")
+    void estimate_shouldNeverUndercount() {
+        // Given
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        for (int i = 0; i < 5000; i++) {
+            sketch.add("query-" + (i % 1000));
+        }
+
+        // When & Then
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(sketch.estimate("query-" + i) >= 5);
+        }
+    }
+
+    @Test
+    @DisplayName("When traffic is skewed, should report the heavy queries first")
+    void top_whenTrafficIsSkewed_shouldReportHeavyQueries() {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters(3, 4, 1024);
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            heavyHitters.record("tail-" + random.nextInt(5000));
+            if (i % 4 == 0) {
+                heavyHitters.record("chicken");
+            }
+            if (i % 8 == 0) {
+                heavyHitters.record("rice");
+            }
+            if (i % 16 == 0) {
+                heavyHitters.record("oats");
+            }
+        }
+
+        // When
+        List<HeavyHitter> top = heavyHitters.top();
+
+        // Then
+        assertEquals(List.of("chicken", "rice", "oats"),
+                top.stream().map(HeavyHitter::query).toList());
+    }
+
+    @Test
+    @DisplayName("When misses are recorded, should derive the hit ratio from them")
+    void top_whenMissesRecorded_shouldComputeHitRatio() {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters(10, 4, 1024);
+        for (int i = 0; i < 10; i++) {
+            heavyHitters.record("chicken");
+        }
+        heavyHitters.recordMiss("chicken");
+        heavyHitters.recordMiss("chicken");
+
+        // When
+        HeavyHitter hitter = heavyHitters.top().getFirst();
+
+        // Then
+        assertEquals(10, hitter.requests());
+        assertEquals(2, hitter.misses());
+        assertEquals(0.8, hitter.hitRatio(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("When counts decay, should halve every estimate")
+    void decay_shouldHalveEstimates() {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters(10, 4, 1024);
+        for (int i = 0; i < 8; i++) {
+            heavyHitters.record("rice");
+        }
+
+        // When
+        heavyHitters.decay();
+
+        // Then
+        assertEquals(4, heavyHitters.top().getFirst().requests());
+    }
+}
@@ -0,0 +1,152 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.popularity;
+
+import static com.olehprukhnytskyi.macrotrackerfoodservice.search.QueryNormalizer.normalize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.PopularityProperties;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+@ExtendWith(MockitoExtension.class)
+class QueryPopularityServiceTest {
+    private static final String SEARCH_KEY = "popularity:search";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private StringRedisConnection connection;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private QueryPopularityService popularityService;
+
+    @BeforeEach
+    void setUp() {
+        PopularityProperties properties = new PopularityProperties();
+        properties.setTopK(1);
+        properties.setSketchWidth(1024);
+        popularityService = new QueryPopularityService(redisTemplate, properties);
+    }
+
+    @Test
+    @DisplayName("When nothing was recorded since the last sync, should not push again")
+    void sync_whenNoNewTraffic_shouldNotPushAgain() {
+        // Given
+        pipelineRunsAgainstConnection();
+        record("chicken", 3);
+        popularityService.sync();
+
+        // When
+        popularityService.sync();
+
+        // Then
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(connection).zIncrBy(SEARCH_KEY, 3.0, "chicken");
+    }
+
+    @Test
+    @DisplayName("When a query returns to the local top, should only push its growth")
+    void sync_whenQueryReturnsToTop_shouldPushOnlyGrowth() {
+        // Given
+        pipelineRunsAgainstConnection();
+        record("apple", 5);
+        popularityService.sync();
+        record("bread", 10);
+        popularityService.sync();
+        record("apple", 6);
+
+        // When
+        popularityService.sync();
+
+        // Then
+        verify(connection).zIncrBy(SEARCH_KEY, 5.0, "apple");
+        verify(connection).zIncrBy(SEARCH_KEY, 10.0, "bread");
+        verify(connection).zIncrBy(SEARCH_KEY, 6.0, "apple");
+        verify(connection, never()).zIncrBy(SEARCH_KEY, 11.0, "apple");
+    }
+
+    @Test
+    @DisplayName("When the local counts decay, should halve the pushed baseline with them")
+    void sync_afterDecay_shouldPushGrowthOverHalvedBaseline() {
+        // Given
+        pipelineRunsAgainstConnection();
+        record("rice", 8);
+        popularityService.sync();
+        popularityService.decay();
+        record("rice", 2);
+
+        // When
+        popularityService.sync();
+
+        // Then
+        verify(connection).zIncrBy(SEARCH_KEY, 8.0, "rice");
+        verify(connection).zIncrBy(SEARCH_KEY, 2.0, "rice");
+    }
+
+    @Test
+    @DisplayName("When decaying locally, should leave the shared ranking alone")
+    void decay_shouldNotTouchSharedRanking() {
+        // Given
+        record("rice", 8);
+
+        // When
+        popularityService.decay();
+
+        // Then
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+        verify(redisTemplate, never()).opsForZSet();
+    }
+
+    @Test
+    @DisplayName("When decaying the shared ranking, should halve every score")
+    void decayShared_shouldHalveSharedScores() {
+        // Given
+        pipelineRunsAgainstConnection();
+        Set<ZSetOperations.TypedTuple<String>> tuples = new LinkedHashSet<>(List.of(
+                ZSetOperations.TypedTuple.of("chicken", 9.0)));
+        given(redisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.reverseRangeWithScores(anyString(), eq(0L), eq(999L)))
+                .willReturn(tuples)
+                .willReturn(Set.of());
+
+        // When
+        popularityService.decayShared();
+
+        // Then
+        verify(connection).zAdd(SEARCH_KEY, 4.0, "chicken");
+        verify(connection, times(QueryKind.values().length))
+                .zRemRangeByScore(anyString(), eq(Double.NEGATIVE_INFINITY), anyDouble());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void pipelineRunsAgainstConnection() {
+        given(redisTemplate.executePipelined(any(RedisCallback.class))).willAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            return List.of();
+        });
+    }
+
+    private void record(String query, int times) {
+        for (int i = 0; i < times; i++) {
+            popularityService.record(QueryKind.SEARCH, normalize(query));
+        }
+    }
+}
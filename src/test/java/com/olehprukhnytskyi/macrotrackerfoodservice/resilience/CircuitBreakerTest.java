@@ -0,0 +1,110 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new CircuitBreaker("elasticsearch",
+                new CircuitBreaker.Settings(10, 4, 0.5, Duration.ofSeconds(1),
+                        Duration.ofSeconds(30), 2),
+                e -> e instanceof IOException, meterRegistry, clock::get);
+    }
+
+    @Test
+    @DisplayName("When the failure rate reaches the threshold, should reject calls")
+    void execute_whenFailureRateReached_shouldOpen() throws Exception {
+        // Given
+        circuitBreaker.execute(() -> "ok");
+        circuitBreaker.execute(() -> "ok");
+        fail();
+        fail();
+        AtomicInteger calls = new AtomicInteger();
+
+        // When & Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CircuitBreakerOpenException.class,
+                () -> circuitBreaker.execute(calls::incrementAndGet));
+        assertEquals(0, calls.get());
+        assertEquals(1.0, meterRegistry.get("circuit.breaker.calls")
+                .tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("When failures are not recorded, should stay closed")
+    void execute_whenFailureIsIgnored_shouldStayClosed() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IllegalArgumentException.class, () -> circuitBreaker.execute(() -> {
+                throw new IllegalArgumentException("bad query");
+            }));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("When slow calls dominate, should open like on failures")
+    void execute_whenCallsAreSlow_shouldOpen() throws Exception {
+        // When
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.execute(() -> clock.addAndGet(Duration.ofSeconds(2).toNanos()));
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("After the open duration, successful trial calls should close the breaker")
+    void execute_whenTrialCallsSucceed_shouldClose() throws Exception {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        // When
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.execute(() -> "ok");
+        circuitBreaker.execute(() -> "ok");
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("When a trial call fails, should open again")
+    void execute_whenTrialCallFails_shouldReopen() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        // When
+        fail();
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void fail() {
+        assertThrows(IOException.class, () -> circuitBreaker.execute(() -> {
+            throw new IOException("timeout");
+        }));
+    }
+}
@@ -0,0 +1,109 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RequestHedgerTest {
+    private SimpleMeterRegistry meterRegistry;
+    private RequestHedger requestHedger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestHedger = new RequestHedger(new RequestHedger.Settings(0.95,
+                Duration.ofMillis(5), Duration.ofMillis(20), 0.0, 100), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("When the original answers within the delay, should not hedge")
+    void execute_whenPrimaryIsFast_shouldNotHedge() throws Exception {
+        // Given
+        List<String> preferences = new ArrayList<>();
+
+        // When
+        String result = requestHedger.execute(preference -> {
+            preferences.add(preference);
+            return CompletableFuture.completedFuture("primary");
+        });
+
+        // Then
+        assertEquals("primary", result);
+        assertEquals(1, preferences.size());
+        assertEquals(0.0, meterRegistry.get("search.hedge.sent").counter().count());
+    }
+
+    @Test
+    @DisplayName("When the original is slow, should return the hedge and cancel the original")
+    void execute_whenPrimaryIsSlow_shouldReturnHedge() throws Exception {
+        // Given
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        List<String> preferences = new ArrayList<>();
+
+        // When
+        String result = requestHedger.execute(preference -> {
+            preferences.add(preference);
+            return preference == null
+                    ? primary
+                    : CompletableFuture.completedFuture("hedge");
+        });
+
+        // Then
+        assertEquals("hedge", result);
+        assertNull(preferences.get(0));
+        assertEquals("hedge-1", preferences.get(1));
+        assertTrue(primary.isCancelled());
+        assertEquals(1.0, meterRegistry.get("search.hedge.sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("search.hedge.wins").counter().count());
+    }
+
+    @Test
+    @DisplayName("When the hedge fails, should wait for the original")
+    void execute_whenHedgeFails_shouldReturnPrimary() throws Exception {
+        // When
+        String result = requestHedger.execute(preference -> preference == null
+                ? delayed("primary", 50)
+                : CompletableFuture.failedFuture(new IllegalStateException("replica down")));
+
+        // Then
+        assertEquals("primary", result);
+        assertEquals(0.0, meterRegistry.get("search.hedge.wins").counter().count());
+    }
+
+    @Test
+    @DisplayName("When the budget is spent, should stop hedging")
+    void execute_whenBudgetExhausted_shouldNotHedge() throws Exception {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            requestHedger.execute(preference -> preference == null
+                    ? new CompletableFuture<>()
+                    : CompletableFuture.completedFuture("hedge"));
+        }
+
+        // When
+        String result = requestHedger.execute(preference -> preference == null
+                ? delayed("primary", 50)
+                : CompletableFuture.completedFuture("hedge"));
+
+        // Then
+        assertEquals("primary", result);
+        assertEquals(10.0, meterRegistry.get("search.hedge.sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("search.hedge.budget.exhausted").counter()
+                .count());
+    }
+
+    private static CompletableFuture<String> delayed(String value, long millis) {
+        return CompletableFuture.supplyAsync(() -> value,
+                CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS));
+    }
+}
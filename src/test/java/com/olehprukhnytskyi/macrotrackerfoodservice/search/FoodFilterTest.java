@@ -0,0 +1,59 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.olehprukhnytskyi.exception.BadRequestException;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodSearchFilterDto;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FoodFilterTest {
+    @Test
+    @DisplayName("Equivalent filters should produce the same cache key")
+    void cacheKey_whenFiltersAreEquivalent_shouldBeEqual() {
+        // Given
+        FoodSearchFilterDto first = new FoodSearchFilterDto();
+        first.setMaxCalories(new BigDecimal("100.00"));
+        first.setMinProtein(new BigDecimal("20"));
+        first.setBrand("  Farm   Fresh ");
+        FoodSearchFilterDto second = new FoodSearchFilterDto();
+        second.setMinProtein(new BigDecimal("2E+1"));
+        second.setMaxCalories(new BigDecimal("100"));
+        second.setBrand("farm fresh");
+
+        // When
+        FoodFilter firstFilter = FoodFilter.from(first);
+        FoodFilter secondFilter = FoodFilter.from(second);
+
+        // Then
+        assertEquals("calories:..100;protein:20..;brand:farm fresh", firstFilter.cacheKey());
+        assertEquals(firstFilter, secondFilter);
+    }
+
+    @Test
+    @DisplayName("When no filter is set, should return the empty filter")
+    void from_whenNothingIsSet_shouldReturnNone() {
+        // Given
+        FoodSearchFilterDto dto = new FoodSearchFilterDto();
+        dto.setBrand("  ");
+
+        // When & Then
+        assertSame(FoodFilter.NONE, FoodFilter.from(dto));
+        assertSame(FoodFilter.NONE, FoodFilter.from(null));
+    }
+
+    @Test
+    @DisplayName("When minimum exceeds maximum, should throw BadRequestException")
+    void from_whenMinExceedsMax_shouldThrowException() {
+        // Given
+        FoodSearchFilterDto dto = new FoodSearchFilterDto();
+        dto.setMinFat(new BigDecimal("10"));
+        dto.setMaxFat(new BigDecimal("5"));
+
+        // When & Then
+        assertThrows(BadRequestException.class, () -> FoodFilter.from(dto));
+    }
+}
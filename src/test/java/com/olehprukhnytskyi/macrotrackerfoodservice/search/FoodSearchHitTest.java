@@ -0,0 +1,35 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FoodSearchHitTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should decode snake_case source and ignore fields outside the projection")
+    void decode_shouldReadSnakeCaseSource() throws Exception {
+        // Given
+        String source = """
+                {"code":"4006381333931","product_name":"Oat drink","brands":"Oatly",
+                 "user_id":7,"_keywords":["oat","drink"],
+                 "nutriments":{"energy-kcal":46,"proteins":1.0}}
+                """;
+
+        // When
+        FoodSearchHit hit = objectMapper.readValue(source, FoodSearchHit.class)
+                .withId("4006381333931");
+
+        // Then
+        assertEquals("4006381333931", hit.id());
+        assertEquals("Oat drink", hit.productName());
+        assertEquals(7L, hit.userId());
+        assertEquals(new BigDecimal("46"), hit.nutriments().getCalories());
+        assertSame(hit, hit.withId("4006381333931"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class GtinTest {
+    @Test
+    @DisplayName("When code has a valid check digit, should normalize it to GTIN-13")
+    void parse_whenCheckDigitIsValid_shouldNormalizeToGtin13() {
+        assertEquals(Optional.of(new Gtin("4006381333931")), Gtin.parse(" 4006381333931 "));
+        assertEquals(Optional.of(new Gtin("0036000291452")), Gtin.parse("036000291452"));
+        assertEquals(Optional.of(new Gtin("0000096385074")), Gtin.parse("96385074"));
+        assertEquals(Optional.of(new Gtin("0036000291452")), Gtin.parse("00036000291452"));
+    }
+
+    @Test
+    @DisplayName("When code is malformed or check digit is wrong, should be rejected")
+    void parse_whenCodeIsInvalid_shouldReturnEmpty() {
+        assertTrue(Gtin.parse("4006381333932").isEmpty());
+        assertTrue(Gtin.parse("40063813339").isEmpty());
+        assertTrue(Gtin.parse("40063813339a1").isEmpty());
+        assertTrue(Gtin.parse("milk").isEmpty());
+        assertTrue(Gtin.parse(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should list canonical key first, then legacy padded forms")
+    void lookupKeys_shouldStartWithCanonicalForm() {
+        // When
+        List<String> keys = new Gtin("0036000291452").lookupKeys();
+
+        // Then
+        assertEquals(List.of("0036000291452", "036000291452",
+                "000000000000036000291452"), keys);
+    }
+}
@@ -0,0 +1,66 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+
+class QueryNormalizerTest {
+    @Test
+    @DisplayName("Should lowercase tokens and split on whitespace and punctuation")
+    void normalize_shouldProduceCanonicalTokens() {
+        // When
+        NormalizedQuery query = QueryNormalizer.normalize("  Ben & Jerry's  Cookie-Dough ÉCLAIR ");
+
+        // Then
+        assertEquals("ben jerry s cookie dough éclair", query.getText());
+        assertEquals(List.of("ben", "jerry", "s", "cookie", "dough", "éclair"),
+                query.getTokens());
+        assertEquals(query.getTokens(), query.getTerms());
+        assertTrue(query.getBarcodes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should separate valid barcodes from text terms")
+    void normalize_shouldDetectBarcodeCandidates() {
+        // When
+        NormalizedQuery mixed = QueryNormalizer.normalize("oat 4006381333931 12345678");
+        NormalizedQuery barcode = QueryNormalizer.normalize(" 4006381333931\t");
+
+        // Then
+        assertEquals(List.of("oat", "12345678"), mixed.getTerms());
+        assertEquals(List.of("12345678"), mixed.getCodes());
+        assertEquals(List.of(new Gtin("4006381333931")), mixed.getBarcodes());
+        assertFalse(mixed.isBarcode());
+        assertTrue(barcode.isBarcode());
+    }
+
+    @Test
+    @DisplayName("When query has no letters or numbers, should be empty")
+    void normalize_whenNothingToSearch_shouldBeEmpty() {
+        assertTrue(QueryNormalizer.normalize(null).isEmpty());
+        assertTrue(QueryNormalizer.normalize(" -- ! ").isEmpty());
+        assertEquals("", QueryNormalizer.normalize("\t").getText());
+    }
+
+    @Test
+    @DisplayName("Equivalent queries should share cache keys")
+    void cacheKey_shouldDependOnCanonicalTextOnly() {
+        // Given
+        NormalizedQuery first = QueryNormalizer.normalize("Rice");
+        NormalizedQuery second = QueryNormalizer.normalize("  rice ");
+
+        // Then
+        assertEquals(first, second);
+        assertEquals(DigestUtils.md5DigestAsHex("rice".getBytes(StandardCharsets.UTF_8)),
+                first.getHash());
+        assertEquals(first.cacheKey(0, 25), second.cacheKey(0, 25));
+        assertEquals(DigestUtils.md5DigestAsHex("rice-0-25".getBytes(StandardCharsets.UTF_8)),
+                first.cacheKey(0, 25));
+    }
+}
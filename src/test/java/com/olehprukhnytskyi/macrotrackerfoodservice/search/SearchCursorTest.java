@@ -0,0 +1,34 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SearchCursorTest {
+    @Test
+    @DisplayName("Should decode the same cursor it encoded")
+    void decode_shouldRoundTripEncodedCursor() {
+        // Given
+        SearchCursor cursor = new SearchCursor("46ToAwMDaWR5BXV1aWQy", 12.5d, "4006381333931");
+
+        // When
+        String token = cursor.encode();
+
+        // Then
+        assertEquals(cursor, SearchCursor.decode(token));
+    }
+
+    @Test
+    @DisplayName("When token is malformed, should throw IllegalArgumentException")
+    void decode_whenTokenIsMalformed_shouldThrowException() {
+        String missingCode = Base64.getUrlEncoder()
+                .encodeToString("pit\n1.0\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(missingCode));
+    }
+}
@@ -0,0 +1,77 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SuggestionIndexTest {
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = SuggestionIndex.loading();
+        index.add("Rice");
+        index.add("Ricotta");
+        index.add("Organic Chicken Breast");
+        index.add("Chicken Nuggets");
+        index.add("Chicken Nuggets");
+        index.finishLoading();
+    }
+
+    @Test
+    @DisplayName("When prefix matches, should return names ranked by weight")
+    void suggest_whenPrefixMatches_shouldRankByWeight() {
+        // When
+        List<String> result = index.suggest("chick", 16);
+
+        // Then
+        assertEquals(List.of("Chicken Nuggets", "Organic Chicken Breast"), result);
+    }
+
+    @Test
+    @DisplayName("When prefix ends inside a compressed edge, should still match")
+    void suggest_whenPrefixEndsInsideEdge_shouldMatch() {
+        // When
+        List<String> result = index.suggest("  RIC ", 16);
+
+        // Then
+        assertEquals(List.of("Rice", "Ricotta"), result);
+    }
+
+    @Test
+    @DisplayName("When name is removed, should no longer be suggested")
+    void remove_shouldDropSuggestion() {
+        // When
+        index.remove("Rice");
+
+        // Then
+        assertEquals(List.of("Ricotta"), index.suggest("ri", 16));
+    }
+
+    @Test
+    @DisplayName("When nothing matches, should return an empty list")
+    void suggest_whenNoMatch_shouldReturnEmptyList() {
+        assertTrue(index.suggest("xyz", 16).isEmpty());
+        assertTrue(index.suggest("   ", 16).isEmpty());
+    }
+
+    @Test
+    @DisplayName("When subtree is large, should keep precomputed top entries up to date")
+    void add_whenSubtreeIsLarge_shouldUpdateTopEntries() {
+        // Given
+        IntStream.range(0, 200).forEach(i -> index.add("Milk " + i));
+
+        // When
+        index.add("Milk Chocolate");
+        index.add("Milk Chocolate");
+
+        // Then
+        assertEquals("Milk Chocolate", index.suggest("mil", 16).getFirst());
+        assertEquals(16, index.suggest("milk", 16).size());
+    }
+}
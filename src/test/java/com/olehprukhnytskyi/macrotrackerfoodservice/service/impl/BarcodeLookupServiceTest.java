@@ -0,0 +1,168 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.verify;
+import static org.mockito.Mockito.lenient;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.TwoLevelCache;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo.FoodRepository;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.Gtin;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.BarcodeLookupService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExistenceFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+class BarcodeLookupServiceTest {
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private FoodRepository foodRepository;
+    @Mock
+    private FoodMapper foodMapper;
+    @Mock
+    private FoodExistenceFilter foodExistenceFilter;
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+    @Mock
+    private TwoLevelCache twoLevelCache;
+
+    @InjectMocks
+    private BarcodeLookupService barcodeLookupService;
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ConcurrentMapCache(CacheConstants.FOOD_DATA);
+        lenient().when(cacheManager.getCache(CacheConstants.FOOD_DATA)).thenReturn(cache);
+    }
+
+    @Test
+    @DisplayName("When the forms miss locally, should read them from Redis in one MGET")
+    void find_whenLocalMiss_shouldReadRemoteInOneRoundTrip() {
+        // Given
+        Gtin gtin = new Gtin("0036000291452");
+        FoodResponseDto dto = FoodResponseDto.builder().id("036000291452").build();
+        given(cacheManager.getCache(CacheConstants.FOOD_DATA)).willReturn(twoLevelCache);
+        given(twoLevelCache.getAllLocal(gtin.lookupKeys())).willReturn(Map.of());
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(anyList())).willReturn(Arrays.asList(null, dto, null));
+
+        // When
+        Optional<FoodResponseDto> result = barcodeLookupService.find(gtin);
+
+        // Then
+        assertEquals(Optional.of(dto), result);
+        verify(valueOperations).multiGet(gtin.lookupKeys().stream()
+                .map(key -> CacheConstants.FOOD_DATA + "::" + key)
+                .toList());
+        verify(twoLevelCache).putLocal("036000291452", dto);
+        verify(twoLevelCache, never()).get(any(), eq(FoodResponseDto.class));
+        verify(foodRepository, never()).findAllById(anyList());
+    }
+
+    @Test
+    @DisplayName("When a padded form is cached, should not query the database")
+    void find_whenCached_shouldSkipRepository() {
+        // Given
+        FoodResponseDto dto = FoodResponseDto.builder().id("036000291452").build();
+        cache.put("036000291452", dto);
+
+        // When
+        Optional<FoodResponseDto> result = barcodeLookupService.find(new Gtin("0036000291452"));
+
+        // Then
+        assertEquals(Optional.of(dto), result);
+        verify(foodRepository, never()).findAllById(anyList());
+    }
+
+    @Test
+    @DisplayName("When not cached, should resolve in one query and cache by stored id")
+    void find_whenNotCached_shouldLoadAndCacheByStoredId() {
+        // Given
+        Gtin gtin = new Gtin("0036000291452");
+        Food food = Food.builder().id("036000291452").build();
+        FoodResponseDto dto = FoodResponseDto.builder().id("036000291452").build();
+        given(foodExistenceFilter.mightExist(anyString())).willReturn(true);
+        given(foodRepository.findAllById(gtin.lookupKeys())).willReturn(List.of(food));
+        given(foodMapper.toDto(food)).willReturn(dto);
+
+        // When
+        Optional<FoodResponseDto> result = barcodeLookupService.find(gtin);
+
+        // Then
+        assertEquals(Optional.of(dto), result);
+        assertEquals(dto, cache.get("036000291452", FoodResponseDto.class));
+    }
+
+    @Test
+    @DisplayName("When no stored form exists, should return empty")
+    void find_whenMissing_shouldReturnEmpty() {
+        // Given
+        given(foodExistenceFilter.mightExist(anyString())).willReturn(true);
+        given(foodRepository.findAllById(anyList())).willReturn(List.of());
+
+        // When & Then
+        assertTrue(barcodeLookupService.find(new Gtin("4006381333931")).isEmpty());
+        verify(foodExistenceFilter).recordMissing("4006381333931");
+    }
+
+    @Test
+    @DisplayName("When the filter rules out every stored form, should not query the database")
+    void find_whenFilterRejects_shouldSkipRepository() {
+        // Given
+        given(foodExistenceFilter.mightExist(anyString())).willReturn(false);
+
+        // When
+        Optional<FoodResponseDto> result = barcodeLookupService.find(new Gtin("4006381333931"));
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(foodRepository, never()).findAllById(anyList());
+    }
+
+    @Test
+    @DisplayName("When looking up a stored code, should query only that exact id")
+    void findCode_shouldQueryExactId() {
+        // Given
+        Food food = Food.builder().id("2000000000012").build();
+        FoodResponseDto dto = FoodResponseDto.builder().id("2000000000012").build();
+        given(foodExistenceFilter.mightExist("2000000000012")).willReturn(true);
+        given(foodRepository.findAllById(List.of("2000000000012"))).willReturn(List.of(food));
+        given(foodMapper.toDto(food)).willReturn(dto);
+
+        // When
+        Optional<FoodResponseDto> result = barcodeLookupService.findCode("2000000000012");
+
+        // Then
+        assertEquals(Optional.of(dto), result);
+    }
+}
@@ -0,0 +1,175 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.TwoLevelCache;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.CacheProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo.FoodRepository;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodBatchLookupService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+class FoodBatchLookupServiceTest {
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private TwoLevelCache cache;
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+    @Mock
+    private FoodRepository foodRepository;
+    @Mock
+    private FoodMapper foodMapper;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FoodBatchLookupService foodBatchLookupService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        foodBatchLookupService = new FoodBatchLookupService(cacheManager, redisTemplate,
+                foodRepository, foodMapper, meterRegistry, new CacheProperties());
+        given(cacheManager.getCache(CacheConstants.FOOD_DATA)).willReturn(cache);
+    }
+
+    @Test
+    @DisplayName("When writing loaded foods back, should not overwrite newer cache entries")
+    @SuppressWarnings("unchecked")
+    void findAll_whenFoodsLoaded_shouldWriteBackOnlyIfAbsent() {
+        // Given
+        given(cache.getAllLocal(List.of("2"))).willReturn(Map.of());
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(List.of("food:data::2")))
+                .willReturn(Arrays.asList((Object) null));
+        Food food = Food.builder().id("2").build();
+        given(foodRepository.findAllById(List.of("2"))).willReturn(List.of(food));
+        given(foodMapper.toDto(food)).willReturn(dto("2"));
+        given(redisTemplate.executePipelined(any(SessionCallback.class))).willAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(redisTemplate);
+            return List.of();
+        });
+
+        // When
+        foodBatchLookupService.findAll(List.of("2"));
+
+        // Then
+        verify(valueOperations).setIfAbsent(eq("food:data::2"), eq(dto("2")),
+                any(Duration.class));
+        verify(valueOperations, never()).set(any(), any(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("When a newer entry wins the write-back, should not cache the loaded copy locally")
+    @SuppressWarnings("unchecked")
+    void findAll_whenWriteBackLoses_shouldNotPutLocal() {
+        // Given
+        given(cache.getAllLocal(List.of("1", "2"))).willReturn(Map.of());
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(List.of("food:data::1", "food:data::2")))
+                .willReturn(Arrays.asList(null, null));
+        Food first = Food.builder().id("1").build();
+        Food second = Food.builder().id("2").build();
+        given(foodRepository.findAllById(List.of("1", "2"))).willReturn(List.of(first, second));
+        given(foodMapper.toDto(first)).willReturn(dto("1"));
+        given(foodMapper.toDto(second)).willReturn(dto("2"));
+        given(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .willReturn(List.of(false, true));
+
+        // When
+        foodBatchLookupService.findAll(List.of("1", "2"));
+
+        // Then
+        verify(cache, never()).putLocal(eq("1"), any());
+        verify(cache).putLocal("2", dto("2"));
+    }
+
+    @Test
+    @DisplayName("When foods are spread over tiers, should query each tier once in order")
+    void findAll_whenMixedHits_shouldLoadOnlyMissesAndKeepOrder() {
+        // Given
+        List<String> ids = List.of("3", "1", "2", "1");
+        given(cache.getAllLocal(List.of("3", "1", "2"))).willReturn(Map.of("1", dto("1")));
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(List.of("food:data::3", "food:data::2")))
+                .willReturn(Arrays.asList(dto("3"), null));
+        Food food = Food.builder().id("2").build();
+        given(foodRepository.findAllById(List.of("2"))).willReturn(List.of(food));
+        given(foodMapper.toDto(food)).willReturn(dto("2"));
+        given(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .willReturn(List.of(true));
+
+        // When
+        List<FoodResponseDto> result = foodBatchLookupService.findAll(ids);
+
+        // Then
+        assertEquals(List.of("3", "1", "2"), result.stream().map(FoodResponseDto::getId).toList());
+        verify(redisTemplate).executePipelined(any(SessionCallback.class));
+        verify(cache).putLocal("2", dto("2"));
+        assertEquals(2.0, meterRegistry.get("food.batch.cache.hits").summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get("food.batch.cache.misses").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("When every food is cached locally, should not touch Redis or the database")
+    void findAll_whenAllLocal_shouldSkipRemoteTiers() {
+        // Given
+        given(cache.getAllLocal(List.of("1", "2")))
+                .willReturn(Map.of("1", dto("1"), "2", dto("2")));
+
+        // When
+        List<FoodResponseDto> result = foodBatchLookupService.findAll(List.of("1", "2"));
+
+        // Then
+        assertEquals(2, result.size());
+        verify(redisTemplate, never()).opsForValue();
+        verify(foodRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("When Redis is unavailable, should fall back to the database")
+    void findAll_whenRedisFails_shouldLoadFromDatabase() {
+        // Given
+        given(cache.getAllLocal(List.of("1"))).willReturn(Map.of());
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.multiGet(List.of("food:data::1")))
+                .willThrow(new IllegalStateException("connection refused"));
+        Food food = Food.builder().id("1").build();
+        given(foodRepository.findAllById(List.of("1"))).willReturn(List.of(food));
+        given(foodMapper.toDto(food)).willReturn(dto("1"));
+
+        // When
+        List<FoodResponseDto> result = foodBatchLookupService.findAll(List.of("1"));
+
+        // Then
+        assertEquals(List.of(dto("1")), result);
+    }
+
+    private static FoodResponseDto dto(String id) {
+        return FoodResponseDto.builder().id(id).build();
+    }
+}
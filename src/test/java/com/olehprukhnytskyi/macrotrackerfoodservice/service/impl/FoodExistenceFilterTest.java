@@ -0,0 +1,100 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.cache.FoodFilterListener;
+import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodDeletedEvent;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.FoodFilterProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExistenceFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class FoodExistenceFilterTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private FoodExistenceFilter foodExistenceFilter;
+    private FoodFilterListener listener;
+
+    @BeforeEach
+    void setUp() {
+        foodExistenceFilter = new FoodExistenceFilter(mongoTemplate, redisTemplate,
+                new FoodFilterProperties(), new SimpleMeterRegistry());
+        listener = new FoodFilterListener(foodExistenceFilter);
+    }
+
+    @Test
+    @DisplayName("When the filter channel is resubscribed, should rebuild from the database")
+    void onChannelSubscribed_shouldRebuildFilter() {
+        // Given
+        given(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("foods")))
+                .willReturn(Stream.of(new Document("_id", "1")));
+
+        // When
+        listener.onChannelSubscribed(bytes(CacheConstants.FOOD_FILTER_CHANNEL), 1);
+
+        // Then
+        assertTrue(foodExistenceFilter.mightExist("1"));
+        assertFalse(foodExistenceFilter.mightExist("2"));
+    }
+
+    @Test
+    @DisplayName("When a food is deleted, should reject it and broadcast the id")
+    void handleFoodDeleted_shouldRejectAndBroadcast() {
+        // When
+        foodExistenceFilter.handleFoodDeleted(new FoodDeletedEvent("1", "Apple"));
+
+        // Then
+        assertFalse(foodExistenceFilter.mightExist("1"));
+        verify(redisTemplate).convertAndSend(CacheConstants.FOOD_FILTER_DELETED_CHANNEL, "1");
+    }
+
+    @Test
+    @DisplayName("When another node broadcasts a delete and then a create, should follow both")
+    void onMessage_shouldApplyRemoteDeletesAndCreates() {
+        // Given
+        given(mongoTemplate.stream(any(Query.class), eq(Document.class), anyString()))
+                .willReturn(Stream.of(new Document("_id", "1")));
+        foodExistenceFilter.rebuild();
+
+        // When
+        listener.onMessage(message(CacheConstants.FOOD_FILTER_DELETED_CHANNEL, "1"), null);
+        boolean afterDelete = foodExistenceFilter.mightExist("1");
+        listener.onMessage(message(CacheConstants.FOOD_FILTER_CHANNEL, "1\n2"), null);
+
+        // Then
+        assertFalse(afterDelete);
+        assertTrue(foodExistenceFilter.mightExist("1"));
+        assertTrue(foodExistenceFilter.mightExist("2"));
+    }
+
+    private static DefaultMessage message(String channel, String body) {
+        return new DefaultMessage(bytes(channel), bytes(body));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
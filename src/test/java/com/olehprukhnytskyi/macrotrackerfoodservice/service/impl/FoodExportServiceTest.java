@@ -0,0 +1,102 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.ExportProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+@ExtendWith(MockitoExtension.class)
+class FoodExportServiceTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private FoodMapper foodMapper;
+
+    private FoodExportService foodExportService;
+
+    @BeforeEach
+    void setUp() {
+        ExportProperties properties = new ExportProperties();
+        properties.setFlushInterval(1);
+        foodExportService = new FoodExportService(mongoTemplate, foodMapper, new ObjectMapper(),
+                properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("When exporting a user's foods, should write one JSON line per food in id order")
+    void exportFoods_whenUserGiven_shouldWriteNdjsonOfUserFoods() throws IOException {
+        // Given
+        Food first = Food.builder().id("1").build();
+        Food second = Food.builder().id("2").build();
+        given(mongoTemplate.stream(any(Query.class), eq(Food.class)))
+                .willReturn(Stream.of(first, second));
+        given(foodMapper.toDto(first)).willReturn(FoodResponseDto.builder().id("1").build());
+        given(foodMapper.toDto(second)).willReturn(FoodResponseDto.builder().id("2").build());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long rows = foodExportService.exportFoods(7L, null, false, output);
+
+        // Then
+        assertEquals(2, rows);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("1", new ObjectMapper().readTree(lines[0]).get("id").asText());
+        assertEquals("2", new ObjectMapper().readTree(lines[1]).get("id").asText());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Food.class));
+        assertEquals(new Document("user_id", 7L), query.getValue().getQueryObject());
+        assertEquals(new Document("_id", 1), query.getValue().getSortObject());
+    }
+
+    @Test
+    @DisplayName("When resuming a gzipped catalog export, should start after the given id")
+    void exportFoods_whenAfterGiven_shouldResumeGzippedCatalog() throws IOException {
+        // Given
+        Food food = Food.builder().id("5").build();
+        given(mongoTemplate.stream(any(Query.class), eq(Food.class)))
+                .willReturn(Stream.of(food));
+        given(foodMapper.toDto(food)).willReturn(FoodResponseDto.builder().id("5").build());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        foodExportService.exportFoods(null, "4", true, output);
+
+        // Then
+        try (GZIPInputStream input = new GZIPInputStream(
+                new ByteArrayInputStream(output.toByteArray()))) {
+            String text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals("5", new ObjectMapper().readTree(text).get("id").asText());
+            assertEquals('\n', text.charAt(text.length() - 1));
+        }
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Food.class));
+        assertEquals(new Document("_id", new Document("$gt", "4")),
+                query.getValue().getQueryObject());
+    }
+}
@@ -1,5 +1,6 @@
 package com.olehprukhnytskyi.macrotrackerfoodservice.service.impl;
 
+import static com.olehprukhnytskyi.macrotrackerfoodservice.search.QueryNormalizer.normalize;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.anyString;
@@ -20,6 +21,9 @@ import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodPatchRequestDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
 import com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo.FoodRepository;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchHit;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.SuggestionHit;
 import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodService;
 import com.olehprukhnytskyi.macrotrackerfoodservice.service.S3StorageService;
 import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
@@ -61,28 +65,29 @@ class FoodServiceCacheTest extends AbstractIntegrationTest {
         int offset = 0;
         int limit = 10;
 
-        Food food = Food.builder()
+        FoodSearchHit hit = FoodSearchHit.builder()
                 .id("1")
                 .productName("Apple")
                 .userId(1L)
                 .build();
-        SearchResponse<Food> mockResponse = generateSearchResponse(List.of(food));
+        SearchResponse<FoodSearchHit> mockResponse = generateSearchResponse(List.of(hit));
 
         when(elasticsearchClient.search(
-                ArgumentMatchers.<Function<SearchRequest.Builder,
-                        ObjectBuilder<SearchRequest>>>any(),
-                eq(Food.class)
+                any(SearchRequest.class),
+                eq(FoodSearchHit.class)
         )).thenReturn(mockResponse);
 
         // When
-        FoodListCacheWrapper first = foodService.findByQuery(query, offset, limit);
-        FoodListCacheWrapper second = foodService.findByQuery(query, offset, limit);
+        FoodListCacheWrapper first = foodService.findByQuery(normalize(query), FoodFilter.NONE,
+                offset, limit);
+        FoodListCacheWrapper second = foodService.findByQuery(normalize(query), FoodFilter.NONE,
+                offset, limit);
 
         // Then
-        verify(elasticsearchClient, times(1)).search(
-                ArgumentMatchers.<Function<SearchRequest.Builder,
-                        ObjectBuilder<SearchRequest>>>any(),
-                eq(Food.class)
+        // One exact and one fuzzy tier for the single miss, nothing for the cached call
+        verify(elasticsearchClient, times(2)).search(
+                any(SearchRequest.class),
+                eq(FoodSearchHit.class)
         );
     }
 
@@ -123,28 +128,26 @@ class FoodServiceCacheTest extends AbstractIntegrationTest {
         String query = "ric";
         List<String> productNames = new ArrayList<>(List.of("rice", "ricotta"));
 
-        List<Food> foods = productNames.stream()
-                .map(productName -> Food.builder()
-                        .productName(productName)
-                        .build())
+        List<SuggestionHit> hits = productNames.stream()
+                .map(SuggestionHit::new)
                 .toList();
 
-        SearchResponse<Food> mockResponse = generateSearchResponse(foods);
+        SearchResponse<SuggestionHit> mockResponse = generateSearchResponse(hits);
         when(elasticsearchClient.search(
                 ArgumentMatchers.<Function<SearchRequest.Builder,
                         ObjectBuilder<SearchRequest>>>any(),
-                eq(Food.class)
+                eq(SuggestionHit.class)
         )).thenReturn(mockResponse);
 
         // When
-        List<String> first = foodService.getSearchSuggestions(query);
-        List<String> second = foodService.getSearchSuggestions(query);
+        List<String> first = foodService.getSearchSuggestions(normalize(query));
+        List<String> second = foodService.getSearchSuggestions(normalize(query));
 
         // Then
         verify(elasticsearchClient, times(1)).search(
                 ArgumentMatchers.<Function<SearchRequest.Builder,
                         ObjectBuilder<SearchRequest>>>any(),
-                eq(Food.class)
+                eq(SuggestionHit.class)
         );
 
         String cacheKey = CacheConstants.SEARCH_SUGGESTIONS + "::"
@@ -1,7 +1,9 @@
 package com.olehprukhnytskyi.macrotrackerfoodservice.service.impl;
 
+import static com.olehprukhnytskyi.macrotrackerfoodservice.search.QueryNormalizer.normalize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -11,30 +13,43 @@ import static org.mockito.BDDMockito.anyString;
 import static org.mockito.BDDMockito.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.never;
-import static org.mockito.BDDMockito.times;
 import static org.mockito.BDDMockito.verify;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
 
-import com.mongodb.DuplicateKeyException;
+import com.olehprukhnytskyi.exception.BadRequestException;
 import com.olehprukhnytskyi.exception.ConflictException;
 import com.olehprukhnytskyi.exception.InternalServerException;
 import com.olehprukhnytskyi.exception.NotFoundException;
 import com.olehprukhnytskyi.exception.error.CommonErrorCode;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dao.FoodSearchDao;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodCursorPage;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodListCacheWrapper;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodPatchRequestDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodRequestDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
 import com.olehprukhnytskyi.macrotrackerfoodservice.dto.NutrimentsDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.TypeaheadResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.event.FoodCreatedEvent;
 import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
 import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.NutrimentsMapper;
 import com.olehprukhnytskyi.macrotrackerfoodservice.model.Food;
 import com.olehprukhnytskyi.macrotrackerfoodservice.model.Nutriments;
+import com.olehprukhnytskyi.macrotrackerfoodservice.popularity.QueryPopularityService;
 import com.olehprukhnytskyi.macrotrackerfoodservice.repository.mongo.FoodRepository;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchHit;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchPage;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.Gtin;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.SearchCursor;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.TypeaheadHits;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.BarcodeLookupService;
 import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodAssetService;
 import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodCodeGenerator;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodExistenceFilter;
 import com.olehprukhnytskyi.macrotrackerfoodservice.service.FoodService;
 import com.olehprukhnytskyi.macrotrackerfoodservice.service.ImageService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.SearchWindowService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.SuggestionIndexService;
 import com.olehprukhnytskyi.model.OutboxEvent;
 import com.olehprukhnytskyi.repository.jpa.OutboxRepository;
 import java.math.BigDecimal;
@@ -44,14 +59,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
-import org.springframework.retry.support.RetryTemplate;
 
 @SuppressWarnings("unchecked")
 @ExtendWith(MockitoExtension.class)
@@ -74,8 +95,20 @@ class FoodServiceTest {
     private ImageService imageService;
     @Mock
     private ApplicationEventPublisher applicationEventPublisher;
-    @Spy
-    private RetryTemplate retryTemplate = new RetryTemplate();
+    @Mock
+    private SuggestionIndexService suggestionIndexService;
+    @Mock
+    private BarcodeLookupService barcodeLookupService;
+    @Mock
+    private SearchWindowService searchWindowService;
+    @Mock
+    private QueryPopularityService popularityService;
+    @Mock
+    private FoodExistenceFilter foodExistenceFilter;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private MongoConverter mongoConverter;
 
     @InjectMocks
     private FoodService foodService;
@@ -124,8 +157,13 @@ class FoodServiceTest {
     @DisplayName("When food with same code and fields exists, should return existing DTO")
     void createFoodWithImages_whenSameCodeExists_shouldReturnExistingDto() {
         // Given
+        given(foodMapper.toModel(any())).willReturn(food);
+        given(foodCodeGenerator.resolveCode(any())).willReturn("code");
+        given(mongoTemplate.getConverter()).willReturn(mongoConverter);
+        given(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Food.class))).willReturn(food);
+        given(foodAssetService.processAndUploadImage(any(), any())).willReturn("key");
         given(nutrimentsMapper.toModel(any())).willReturn(nutriments);
-        given(foodRepository.findById(anyString())).willReturn(Optional.of(food));
         given(foodMapper.toDto((Food) any())).willReturn(new FoodResponseDto());
 
         // When
@@ -133,20 +171,20 @@ class FoodServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(foodRepository).findById(anyString());
-        verify(foodRepository, never()).save(any());
+        verify(foodAssetService).discardImage("key");
+        verify(applicationEventPublisher, never()).publishEvent(any());
     }
 
     @Test
-    @DisplayName("When food do not exist, should save and return DTO")
+    @DisplayName("When food do not exist, should upload the image, insert it and return DTO")
     void createFoodWithImages_whenFoodDoNotExist_shouldCreateAndReturnDto() {
         // Given
         foodRequestDto.setCode(null);
 
         given(foodMapper.toModel(any())).willReturn(food);
         given(foodCodeGenerator.resolveCode(any())).willReturn("generated_code");
-        willDoNothing().given(foodAssetService).processAndUploadImage(any(), any());
-        given(foodRepository.save(any())).willReturn(food);
+        given(mongoTemplate.getConverter()).willReturn(mongoConverter);
+        given(foodAssetService.processAndUploadImage(any(), any())).willReturn("key");
         given(foodMapper.toDto((Food) any())).willReturn(new FoodResponseDto());
 
         // When
@@ -154,9 +192,44 @@ class FoodServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(foodCodeGenerator).resolveCode(any());
         verify(foodAssetService).processAndUploadImage(food, image);
-        verify(foodRepository).save(food);
+        verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Food.class));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class),
+                eq(Food.class));
+        verify(foodAssetService, never()).discardImage(anyString());
+        verify(applicationEventPublisher).publishEvent(any(FoodCreatedEvent.class));
+    }
+
+    @Test
+    @DisplayName("When a generated code is taken, should retry with a new code")
+    void createFoodWithImages_whenGeneratedCodeTaken_shouldRetryWithNewCode() {
+        // Given
+        foodRequestDto.setCode(null);
+
+        given(foodMapper.toModel(any())).willReturn(food);
+        given(foodCodeGenerator.resolveCode(any()))
+                .willReturn("2000000000001")
+                .willReturn("2000000000002");
+        given(mongoTemplate.getConverter()).willReturn(mongoConverter);
+        given(foodAssetService.processAndUploadImage(any(), any()))
+                .willReturn("key1")
+                .willReturn("key2");
+        given(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Food.class)))
+                .willReturn(Food.builder().id("2000000000001").productName("other").build())
+                .willReturn(null);
+        given(foodMapper.toDto((Food) any())).willReturn(new FoodResponseDto());
+
+        // When
+        FoodResponseDto result = foodService.createFoodWithImages(foodRequestDto, image, 1L);
+
+        // Then
+        assertNotNull(result);
+        assertEquals("2000000000002", food.getId());
+        verify(foodAssetService).discardImage("key1");
+        verify(foodAssetService, never()).discardImage("key2");
+        verify(applicationEventPublisher).publishEvent(any(FoodCreatedEvent.class));
     }
 
     @Test
@@ -167,7 +240,11 @@ class FoodServiceTest {
         Food differentFood = new Food();
         differentFood.setProductName("other_name");
 
-        given(foodRepository.findById(anyString())).willReturn(Optional.of(differentFood));
+        given(foodMapper.toModel(any())).willReturn(food);
+        given(foodCodeGenerator.resolveCode(any())).willReturn("code");
+        given(mongoTemplate.getConverter()).willReturn(mongoConverter);
+        given(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Food.class))).willReturn(differentFood);
 
         // When
         ConflictException conflictException = assertThrows(ConflictException.class,
@@ -179,12 +256,14 @@ class FoodServiceTest {
     }
 
     @Test
-    @DisplayName("When DuplicateKeyException occurs max times, should throw Exception")
-    void createFoodWithImages_whenDuplicateKeyExceptionMaxTimes_shouldThrowException() {
+    @DisplayName("When image upload fails, should not insert the food")
+    void createFoodWithImages_whenImageUploadFails_shouldNotInsertFood() {
         // Given
         given(foodMapper.toModel(any())).willReturn(food);
         given(foodCodeGenerator.resolveCode(any())).willReturn("code");
-        given(foodRepository.save(any())).willThrow(DuplicateKeyException.class);
+        willThrow(new InternalServerException(CommonErrorCode.INTERNAL_ERROR,
+                "Error processing image")).given(foodAssetService)
+                .processAndUploadImage(any(), any());
 
         // When
         InternalServerException exception = assertThrows(InternalServerException.class,
@@ -192,7 +271,9 @@ class FoodServiceTest {
 
         // Then
         assertEquals("Unexpected error while saving food", exception.getMessage());
-        verify(foodRepository, times(3)).save(any());
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Food.class));
+        verify(applicationEventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -217,11 +298,12 @@ class FoodServiceTest {
         FoodResponseDto dto = new FoodResponseDto();
         dto.setId("123");
 
-        given(foodSearchDao.search(anyString(), anyInt(), anyInt())).willReturn(List.of(food));
-        given(foodMapper.toDto(anyList())).willReturn(List.of(dto));
+        given(searchWindowService.search(normalize("apple"), FoodFilter.NONE, 0, 10))
+                .willReturn(List.of(dto));
 
         // When
-        FoodListCacheWrapper result = foodService.findByQuery("apple", 0, 10);
+        FoodListCacheWrapper result = foodService.findByQuery(normalize("apple"),
+                FoodFilter.NONE, 0, 10);
 
         // Then
         assertNotNull(result.getItems());
@@ -233,26 +315,201 @@ class FoodServiceTest {
     @DisplayName("When DAO throws runtime exception, Service should propagate or wrap it")
     void findByQuery_whenDaoThrowsException_shouldThrowException() {
         // Given
-        given(foodSearchDao.search(anyString(), anyInt(), anyInt()))
+        given(searchWindowService.search(any(), any(), anyInt(), anyInt()))
                 .willThrow(new InternalServerException(CommonErrorCode.BAD_REQUEST,
                         "Elastic Error"));
 
         // When & Then
         assertThrows(InternalServerException.class,
-                () -> foodService.findByQuery("milk", 0, 10));
+                () -> foodService.findByQuery(normalize("milk"), FoodFilter.NONE, 0, 10));
+    }
+
+    @Test
+    @DisplayName("When cursor is given, should continue after it and encode the next one")
+    void findByQueryAfter_whenCursorIsGiven_shouldReturnNextCursor() {
+        // Given
+        SearchCursor cursor = new SearchCursor("pit-1", 3.2d, "11111111");
+        SearchCursor next = new SearchCursor("pit-2", 1.5d, "22222222");
+        FoodResponseDto dto = new FoodResponseDto();
+        given(foodSearchDao.searchAfter(normalize("apple"), FoodFilter.NONE, cursor, 10))
+                .willReturn(new FoodSearchPage(List.of(FoodSearchHit.builder().build()), next));
+        given(foodMapper.fromSearchHits(anyList())).willReturn(List.of(dto));
+
+        // When
+        FoodCursorPage result = foodService.findByQueryAfter(normalize("apple"),
+                FoodFilter.NONE, cursor.encode(), 10);
+
+        // Then
+        assertEquals(List.of(dto), result.getItems());
+        assertEquals(next, SearchCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("When last page is reached, should return no next cursor")
+    void findByQueryAfter_whenLastPage_shouldReturnNullCursor() {
+        // Given
+        given(foodSearchDao.searchAfter(normalize("apple"), FoodFilter.NONE, null, 10))
+                .willReturn(new FoodSearchPage(List.of(), null));
+        given(foodMapper.fromSearchHits(anyList())).willReturn(List.of());
+
+        // When
+        FoodCursorPage result = foodService.findByQueryAfter(normalize("apple"),
+                FoodFilter.NONE, null, 10);
+
+        // Then
+        assertTrue(result.getItems().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("When cursor is malformed, should throw BadRequestException")
+    void findByQueryAfter_whenCursorIsMalformed_shouldThrowException() {
+        // When & Then
+        assertThrows(BadRequestException.class,
+                () -> foodService.findByQueryAfter(normalize("apple"), FoodFilter.NONE,
+                        "%%%", 10));
+        verify(foodSearchDao, never()).searchAfter(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("When query is a valid barcode, should resolve it without searching")
+    void findByQuery_whenQueryIsBarcode_shouldSkipSearch() {
+        // Given
+        FoodResponseDto dto = new FoodResponseDto();
+        dto.setId("4006381333931");
+        given(barcodeLookupService.find(new Gtin("4006381333931"))).willReturn(Optional.of(dto));
+
+        // When
+        FoodListCacheWrapper result = foodService.findByQuery(normalize(" 4006381333931 "),
+                FoodFilter.NONE, 0, 10);
+
+        // Then
+        assertEquals(List.of(dto), result.getItems());
+        verify(searchWindowService, never()).search(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("When the code is neither a barcode nor a stored code, should throw"
+            + " BadRequestException")
+    void findByBarcode_whenCodeIsMalformed_shouldThrowException() {
+        // When & Then
+        assertThrows(BadRequestException.class,
+                () -> foodService.findByBarcode("12345"));
+        verify(barcodeLookupService, never()).find(any());
+        verify(barcodeLookupService, never()).findCode(any());
+    }
+
+    @Test
+    @DisplayName("When a stored code has no valid check digit, should look it up exactly")
+    void findByBarcode_whenCheckDigitIsInvalid_shouldLookUpExactCode() {
+        // Given
+        FoodResponseDto dto = FoodResponseDto.builder().id("2000000000012").build();
+        given(foodCodeGenerator.isValidCode("2000000000012")).willReturn(true);
+        given(barcodeLookupService.findCode("2000000000012")).willReturn(Optional.of(dto));
+
+        // When
+        FoodResponseDto result = foodService.findByBarcode("2000000000012");
+
+        // Then
+        assertEquals(dto, result);
+        verify(barcodeLookupService, never()).find(any());
+    }
+
+    @Test
+    @DisplayName("When barcode is unknown, should throw NotFoundException")
+    void findByBarcode_whenBarcodeIsUnknown_shouldThrowException() {
+        // Given
+        given(barcodeLookupService.find(any())).willReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> foodService.findByBarcode("96385074"));
+    }
+
+    @Test
+    @DisplayName("When the offset is not a multiple of the limit, should skip exactly offset")
+    void findAllByUserId_whenOffsetNotMultipleOfLimit_shouldSkipOffset() {
+        // Given
+        given(mongoTemplate.find(any(Query.class), eq(Food.class)))
+                .willReturn(List.of(Food.builder().id("a1").build()));
+        given(foodMapper.toDto(any(Food.class))).willReturn(new FoodResponseDto());
+
+        // When
+        List<FoodResponseDto> foods = foodService.findAllByUserId(1L, 5, 10);
+
+        // Then
+        assertEquals(1, foods.size());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Food.class));
+        assertEquals(5, query.getValue().getSkip());
+        assertEquals(10, query.getValue().getLimit());
+    }
+
+    @Test
+    @DisplayName("When more user foods follow, should return a cursor after the last id")
+    void findAllByUserIdAfter_whenMoreFoods_shouldReturnNextCursor() {
+        // Given
+        Food first = Food.builder().id("a1").build();
+        Food second = Food.builder().id("b2").build();
+        given(foodRepository.findSliceByUserId(1L, PageRequest.of(0, 2)))
+                .willReturn(new SliceImpl<>(List.of(first, second), PageRequest.of(0, 2), true));
+        given(foodMapper.toDto(any(Food.class))).willReturn(new FoodResponseDto());
+
+        // When
+        FoodCursorPage page = foodService.findAllByUserIdAfter(1L, null, 2);
+
+        // Then
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+        given(foodRepository.findSliceByUserIdAfter(1L, "b2", PageRequest.of(0, 2)))
+                .willReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 2), false));
+        FoodCursorPage last = foodService.findAllByUserIdAfter(1L, page.getNextCursor(), 2);
+        assertTrue(last.getItems().isEmpty());
+        assertNull(last.getNextCursor());
+        verify(foodRepository, never()).countByUserId(any());
+    }
+
+    @Test
+    @DisplayName("When the user foods cursor is malformed, should throw BadRequestException")
+    void findAllByUserIdAfter_whenCursorIsMalformed_shouldThrowException() {
+        // When & Then
+        assertThrows(BadRequestException.class,
+                () -> foodService.findAllByUserIdAfter(1L, "not base64!", 25));
+    }
+
+    @Test
+    @DisplayName("When the existence filter rules the id out, should not query the database")
+    void findById_whenFilterRejects_shouldSkipRepository() {
+        // Given
+        given(foodExistenceFilter.mightExist("123")).willReturn(false);
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> foodService.findById("123"));
+        verify(foodRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("When the filter passes an id the database lacks, should record the miss")
+    void findById_whenFalsePositive_shouldRecordMissing() {
+        // Given
+        given(foodExistenceFilter.mightExist("123")).willReturn(true);
+        given(foodRepository.findById("123")).willReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> foodService.findById("123"));
+        verify(foodExistenceFilter).recordMissing("123");
     }
 
     @Test
     @DisplayName("When query is null, should return an empty list")
     void getSearchSuggestions_whenQueryIsNull_shouldReturnEmptyList() {
-        List<String> result = foodService.getSearchSuggestions(null);
+        List<String> result = foodService.getSearchSuggestions(normalize(null));
         assertTrue(result.isEmpty());
     }
 
     @Test
     @DisplayName("When query is blank, should return an empty list")
     void getSearchSuggestions_whenQueryIsBlank_shouldReturnEmptyList() {
-        List<String> result = foodService.getSearchSuggestions("   ");
+        List<String> result = foodService.getSearchSuggestions(normalize("   "));
         assertTrue(result.isEmpty());
     }
 
@@ -261,16 +518,71 @@ class FoodServiceTest {
     void getSearchSuggestions_shouldDelegateToDao() {
         // Given
         List<String> suggestions = List.of("Apple", "Apricot");
-        given(foodSearchDao.getSuggestions("ap")).willReturn(suggestions);
+        given(foodSearchDao.getSuggestions(normalize("ap"))).willReturn(suggestions);
 
         // When
-        List<String> result = foodService.getSearchSuggestions("ap");
+        List<String> result = foodService.getSearchSuggestions(normalize("ap"));
 
         // Then
         assertEquals(2, result.size());
         assertEquals("Apple", result.get(0));
     }
 
+    @Test
+    @DisplayName("When typeahead misses the suggestion index, should use a single msearch")
+    void typeahead_whenIndexMisses_shouldUseMultiSearch() {
+        // Given
+        FoodResponseDto dto = new FoodResponseDto();
+        List<FoodSearchHit> hits = List.of(FoodSearchHit.builder().build());
+        given(foodSearchDao.typeahead(normalize("ap"), 10))
+                .willReturn(new TypeaheadHits(List.of("Apple"), hits));
+        given(foodMapper.fromSearchHits(hits)).willReturn(List.of(dto));
+
+        // When
+        TypeaheadResponseDto result = foodService.typeahead(normalize("ap"), 10);
+
+        // Then
+        assertEquals(List.of("Apple"), result.getSuggestions());
+        assertEquals(List.of(dto), result.getItems());
+        verify(foodSearchDao, never()).search(any(), anyInt(), anyInt());
+        verify(foodSearchDao, never()).getSuggestions(any());
+    }
+
+    @Test
+    @DisplayName("When typeahead hits the suggestion index, should only search for items")
+    void typeahead_whenIndexHits_shouldOnlySearchItems() {
+        // Given
+        FoodResponseDto dto = new FoodResponseDto();
+        List<FoodSearchHit> hits = List.of(FoodSearchHit.builder().build());
+        given(suggestionIndexService.suggest("ap", 16)).willReturn(Optional.of(List.of("Apple")));
+        given(foodSearchDao.typeaheadHits(normalize("ap"), 10)).willReturn(hits);
+        given(foodMapper.fromSearchHits(hits)).willReturn(List.of(dto));
+
+        // When
+        TypeaheadResponseDto result = foodService.typeahead(normalize("ap"), 10);
+
+        // Then
+        assertEquals(List.of("Apple"), result.getSuggestions());
+        assertEquals(List.of(dto), result.getItems());
+        verify(foodSearchDao, never()).typeahead(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("When typeahead query is a barcode, should resolve it without searching")
+    void typeahead_whenQueryIsBarcode_shouldSkipSearch() {
+        // Given
+        FoodResponseDto dto = new FoodResponseDto();
+        given(barcodeLookupService.find(new Gtin("4006381333931"))).willReturn(Optional.of(dto));
+
+        // When
+        TypeaheadResponseDto result = foodService.typeahead(normalize("4006381333931"), 10);
+
+        // Then
+        assertTrue(result.getSuggestions().isEmpty());
+        assertEquals(List.of(dto), result.getItems());
+        verify(foodSearchDao, never()).typeahead(any(), anyInt());
+    }
+
     @Test
     @DisplayName("When food not found for patch, should throw NotFoundException")
     void patch_whenFoodNotFound_shouldThrowNotFoundException() {
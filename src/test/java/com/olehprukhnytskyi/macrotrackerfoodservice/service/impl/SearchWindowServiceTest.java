@@ -0,0 +1,170 @@
+package com.olehprukhnytskyi.macrotrackerfoodservice.service.impl;
+
+import static com.olehprukhnytskyi.macrotrackerfoodservice.search.QueryNormalizer.normalize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.spy;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+
+import com.olehprukhnytskyi.macrotrackerfoodservice.dao.FoodSearchDao;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodResponseDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.dto.FoodSearchFilterDto;
+import com.olehprukhnytskyi.macrotrackerfoodservice.mapper.FoodMapper;
+import com.olehprukhnytskyi.macrotrackerfoodservice.popularity.QueryPopularityService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.properties.SearchProperties;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodFilter;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.FoodSearchHit;
+import com.olehprukhnytskyi.macrotrackerfoodservice.search.NormalizedQuery;
+import com.olehprukhnytskyi.macrotrackerfoodservice.service.SearchWindowService;
+import com.olehprukhnytskyi.macrotrackerfoodservice.util.CacheConstants;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SearchWindowServiceTest {
+    private static final NormalizedQuery QUERY = normalize("apple");
+
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private FoodSearchDao foodSearchDao;
+    @Mock
+    private FoodMapper foodMapper;
+    @Mock
+    private QueryPopularityService popularityService;
+
+    private SearchWindowService searchWindowService;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        SearchProperties properties = new SearchProperties();
+        properties.setWindowSize(50);
+        properties.setMaxWindowSize(100);
+        cache = spy(new ConcurrentMapCache(CacheConstants.SEARCH_RESULTS));
+        given(cacheManager.getCache(CacheConstants.SEARCH_RESULTS)).willReturn(cache);
+        given(foodMapper.fromSearchHits(anyList())).willAnswer(invocation -> {
+            List<FoodSearchHit> hits = invocation.getArgument(0);
+            return hits.stream()
+                    .map(hit -> FoodResponseDto.builder().id(hit.id()).build())
+                    .toList();
+        });
+        searchWindowService = new SearchWindowService(cacheManager, foodSearchDao, foodMapper,
+                properties, popularityService);
+    }
+
+    @Test
+    @DisplayName("Pages inside the window should be served from one search")
+    void search_whenPageInsideWindow_shouldSliceCachedWindow() {
+        // Given
+        given(foodSearchDao.search(QUERY, FoodFilter.NONE, 0, 50)).willReturn(hits(0, 50));
+
+        // When
+        List<FoodResponseDto> first = searchWindowService.search(QUERY, 0, 25);
+        List<FoodResponseDto> second = searchWindowService.search(QUERY, 25, 25);
+        List<FoodResponseDto> wide = searchWindowService.search(QUERY, 10, 40);
+
+        // Then
+        assertEquals("0", first.getFirst().getId());
+        assertEquals("25", second.getFirst().getId());
+        assertEquals(40, wide.size());
+        verify(foodSearchDao, times(1)).search(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Pages past the window should extend it with only the missing range")
+    void search_whenPagePastWindow_shouldExtendLazily() {
+        // Given
+        given(foodSearchDao.search(QUERY, FoodFilter.NONE, 0, 50)).willReturn(hits(0, 50));
+        given(foodSearchDao.search(QUERY, FoodFilter.NONE, 50, 50)).willReturn(hits(50, 20));
+
+        // When
+        searchWindowService.search(QUERY, 0, 25);
+        List<FoodResponseDto> extended = searchWindowService.search(QUERY, 50, 25);
+        List<FoodResponseDto> pastEnd = searchWindowService.search(QUERY, 75, 25);
+
+        // Then
+        assertEquals(20, extended.size());
+        assertEquals("50", extended.getFirst().getId());
+        assertEquals(List.of(), pastEnd);
+        verify(foodSearchDao, times(2)).search(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Pages beyond the maximum window should go straight to the search engine")
+    void search_whenPageBeyondMaxWindow_shouldBypassCache() {
+        // Given
+        given(foodSearchDao.search(QUERY, FoodFilter.NONE, 100, 25)).willReturn(hits(100, 25));
+
+        // When
+        List<FoodResponseDto> result = searchWindowService.search(QUERY, 100, 25);
+
+        // Then
+        assertEquals("100", result.getFirst().getId());
+    }
+
+    @Test
+    @DisplayName("Filtered searches should be cached in a window of their own")
+    void search_whenFilterIsGiven_shouldUseSeparateWindow() {
+        // Given
+        FoodSearchFilterDto filterDto = new FoodSearchFilterDto();
+        filterDto.setMinProtein(new BigDecimal("20"));
+        FoodFilter filter = FoodFilter.from(filterDto);
+        given(foodSearchDao.search(QUERY, FoodFilter.NONE, 0, 50)).willReturn(hits(0, 50));
+        given(foodSearchDao.search(QUERY, filter, 0, 50)).willReturn(hits(100, 10));
+
+        // When
+        List<FoodResponseDto> unfiltered = searchWindowService.search(QUERY, 0, 25);
+        List<FoodResponseDto> filtered = searchWindowService.search(QUERY, filter, 0, 25);
+        List<FoodResponseDto> cached = searchWindowService.search(QUERY, filter, 0, 25);
+
+        // Then
+        assertEquals("0", unfiltered.getFirst().getId());
+        assertEquals("100", filtered.getFirst().getId());
+        assertEquals(filtered, cached);
+        verify(foodSearchDao, times(2)).search(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Empty results should not be cached")
+    void search_whenNothingFound_shouldNotCacheWindow() {
+        // Given
+        given(foodSearchDao.search(QUERY, FoodFilter.NONE, 0, 50))
+                .willReturn(List.of(), hits(0, 1));
+
+        // When
+        List<FoodResponseDto> empty = searchWindowService.search(QUERY, 0, 25);
+        List<FoodResponseDto> found = searchWindowService.search(QUERY, 0, 25);
+
+        // Then
+        assertEquals(List.of(), empty);
+        assertEquals("0", found.getFirst().getId());
+        verify(foodSearchDao, times(2)).search(any(), any(), anyInt(), anyInt());
+        verify(cache, times(1)).put(any(), any());
+        verify(cache, never()).evict(any());
+    }
+
+    private static List<FoodSearchHit> hits(int from, int count) {
+        return IntStream.range(from, from + count)
+                .mapToObj(i -> FoodSearchHit.builder().id(String.valueOf(i)).build())
+                .toList();
+    }
+}